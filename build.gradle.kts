@@ -6,11 +6,22 @@ repositories {
     jcenter()
 }
 
+// Benchmarks live in their own source set so they can use main but never end up in the jar or the tests
+val jmh by sourceSets.creating {
+    compileClasspath += sourceSets["main"].output
+    runtimeClasspath += sourceSets["main"].output
+}
+
+configurations["jmhImplementation"].extendsFrom(configurations["implementation"])
+
 dependencies {
     implementation("com.google.guava:guava:27.0.1-jre")
 
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.1.0")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.1.0")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.21")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.21")
 }
 
 java {
@@ -22,4 +33,39 @@ tasks {
     withType<Test> {
         useJUnitPlatform()
     }
+
+    // gradle jmh runs every benchmark, gradle jmh -Pjmh.include=<regex> runs the ones whose names match
+    // Allocation rates come from the GC profiler, results are written to build/reports/jmh/results.json
+    register<JavaExec>("jmh") {
+        description = "Runs the JMH benchmarks"
+        group = "verification"
+        classpath = jmh.runtimeClasspath
+        main = "org.openjdk.jmh.Main"
+        val results = file("$buildDir/reports/jmh/results.json")
+        args("-prof", "gc", "-rf", "json", "-rff", results.path)
+        project.findProperty("jmh.include")?.let { args(it.toString()) }
+        doFirst {
+            results.parentFile.mkdirs()
+        }
+    }
+
+    // Runs the multi-threaded benchmarks once per thread count, -Pjmh.threads=1,8,64 picks the counts
+    // Each count's results go to build/reports/jmh/threads-<count>.json
+    register("jmhThreads") {
+        description = "Runs the concurrent JMH benchmarks at a range of thread counts"
+        group = "verification"
+        dependsOn(jmh.runtimeClasspath)
+        doLast {
+            val counts = (project.findProperty("jmh.threads") ?: "1,2,4,8,16,32,64").toString().split(",")
+            for(count in counts.map { it.trim() }) {
+                val results = file("$buildDir/reports/jmh/threads-$count.json")
+                results.parentFile.mkdirs()
+                project.javaexec {
+                    classpath = jmh.runtimeClasspath
+                    main = "org.openjdk.jmh.Main"
+                    args("-t", count, "-prof", "gc", "-rf", "json", "-rff", results.path, "ConcurrentTreeBenchmark")
+                }
+            }
+        }
+    }
 }
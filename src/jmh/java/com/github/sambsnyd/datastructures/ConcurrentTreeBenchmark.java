@@ -0,0 +1,183 @@
+package com.github.sambsnyd.datastructures;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput of ConcurrentSBinaryTree against an SBinaryTree behind a ReentrantReadWriteLock, shared by every thread
+ *
+ * Reads are breadth first searches for a random value in the tree. Writes replace a random node's value with itself,
+ * so every read finds what it's looking for whatever the writers are doing.
+ * - concurrentRead and lockedRead are reads alone, run them with -t to scale them
+ * - the readHeavy groups are 3 readers to every writer and the mixed groups 1 to 1. With -t the threads are rounded
+ *   up to a whole number of groups
+ * gradle jmhThreads runs this at 1, 2, 4, 8, 16, 32 and 64 threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentTreeBenchmark {
+
+    @Param({ "1000", "100000" })
+    private int size;
+
+    private ConcurrentSBinaryTree<Integer> concurrentTree;
+    private List<ConcurrentSBinaryTree<Integer>> concurrentNodes;
+    private SBinaryTree<Integer> lockedTree;
+    private List<SBinaryTree<Integer>> lockedNodes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Setup
+    public void setUp() {
+        List<Integer> values = IntStream.range(0, size).boxed().collect(Collectors.toList());
+        lockedTree = SBinaryTrees.fromSorted(values);
+        concurrentTree = ConcurrentSBinaryTree.copyOf(lockedTree);
+        lockedNodes = new ArrayList<>(size);
+        Deque<SBinaryTree<Integer>> pending = new ArrayDeque<>();
+        pending.push(lockedTree);
+        while(!pending.isEmpty()) {
+            var node = pending.pop();
+            lockedNodes.add(node);
+            if(node.getLeft() != null) {
+                pending.push(node.getLeft());
+            }
+            if(node.getRight() != null) {
+                pending.push(node.getRight());
+            }
+        }
+        concurrentNodes = new ArrayList<>(size);
+        Deque<ConcurrentSBinaryTree<Integer>> pendingConcurrent = new ArrayDeque<>();
+        pendingConcurrent.push(concurrentTree);
+        while(!pendingConcurrent.isEmpty()) {
+            var node = pendingConcurrent.pop();
+            concurrentNodes.add(node);
+            if(node.getLeft() != null) {
+                pendingConcurrent.push(node.getLeft());
+            }
+            if(node.getRight() != null) {
+                pendingConcurrent.push(node.getRight());
+            }
+        }
+    }
+
+    private Integer concurrentSearch() {
+        int target = ThreadLocalRandom.current().nextInt(size);
+        return concurrentTree.breadthFirstSearch(value -> value == target);
+    }
+
+    private Integer concurrentWrite() {
+        var node = concurrentNodes.get(ThreadLocalRandom.current().nextInt(size));
+        return node.updateValue(value -> value);
+    }
+
+    private Integer lockedSearch() {
+        int target = ThreadLocalRandom.current().nextInt(size);
+        lock.readLock().lock();
+        try {
+            return lockedTree.breadthFirstSearch(value -> value == target);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Integer lockedWrite() {
+        var node = lockedNodes.get(ThreadLocalRandom.current().nextInt(size));
+        lock.writeLock().lock();
+        try {
+            node.setValue(node.getValue());
+            return node.getValue();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Benchmark
+    public Integer concurrentRead() {
+        return concurrentSearch();
+    }
+
+    @Benchmark
+    public Integer lockedRead() {
+        return lockedSearch();
+    }
+
+    @Benchmark
+    @Group("readHeavyConcurrent")
+    @GroupThreads(3)
+    public Integer readHeavyConcurrentRead() {
+        return concurrentSearch();
+    }
+
+    @Benchmark
+    @Group("readHeavyConcurrent")
+    @GroupThreads(1)
+    public Integer readHeavyConcurrentWrite() {
+        return concurrentWrite();
+    }
+
+    @Benchmark
+    @Group("readHeavyLocked")
+    @GroupThreads(3)
+    public Integer readHeavyLockedRead() {
+        return lockedSearch();
+    }
+
+    @Benchmark
+    @Group("readHeavyLocked")
+    @GroupThreads(1)
+    public Integer readHeavyLockedWrite() {
+        return lockedWrite();
+    }
+
+    @Benchmark
+    @Group("mixedConcurrent")
+    @GroupThreads(1)
+    public Integer mixedConcurrentRead() {
+        return concurrentSearch();
+    }
+
+    @Benchmark
+    @Group("mixedConcurrent")
+    @GroupThreads(1)
+    public Integer mixedConcurrentWrite() {
+        return concurrentWrite();
+    }
+
+    @Benchmark
+    @Group("mixedLocked")
+    @GroupThreads(1)
+    public Integer mixedLockedRead() {
+        return lockedSearch();
+    }
+
+    @Benchmark
+    @Group("mixedLocked")
+    @GroupThreads(1)
+    public Integer mixedLockedWrite() {
+        return lockedWrite();
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.sambsnyd.datastructures;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IntMinHeap against a PriorityQueue of boxed entries, filling the queue and then draining it
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntMinHeapBenchmark {
+
+    @Param({ "1000", "100000" })
+    private int size;
+
+    private long[] priorities;
+    private IntMinHeap heap;
+
+    @Setup
+    public void setUp() {
+        priorities = new Random(size).longs(size, 0, size).toArray();
+        heap = new IntMinHeap();
+    }
+
+    @Benchmark
+    public long intMinHeap() {
+        heap.clear();
+        for(int value = 0; value < size; value++) {
+            heap.add(value, priorities[value]);
+        }
+        long sum = 0;
+        while(!heap.isEmpty()) {
+            sum += heap.poll();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long priorityQueue() {
+        var queue = new PriorityQueue<long[]>((a, b) -> Long.compare(a[1], b[1]));
+        for(int value = 0; value < size; value++) {
+            queue.add(new long[]{ value, priorities[value] });
+        }
+        long sum = 0;
+        while(!queue.isEmpty()) {
+            sum += queue.poll()[0];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,216 @@
+package com.github.sambsnyd.datastructures;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Building and querying the ordered trees: SAvlTree, SAggregateTree, SPersistentTree and SBinaryTrees' bulk loaders,
+ * with java.util.TreeMap as the baseline for SAvlTree
+ * Ascending input is the worst case for an unbalanced search tree, random input the typical one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderedTreeBenchmark {
+
+    public enum Order { ASCENDING, RANDOM }
+
+    private static final int QUERIES = 1_000;
+
+    @Param({ "1000", "100000" })
+    private int size;
+
+    @Param({ "ASCENDING", "RANDOM" })
+    private Order order;
+
+    private List<Integer> sorted;
+    private List<Integer> input;
+    private int[] queries;
+    private SAvlTree<Integer> avlTree;
+    private SAggregateTree<Integer, Long> aggregateTree;
+    private SPersistentTree<Integer> persistentTree;
+    private TreeMap<Integer, Integer> treeMap;
+
+    @Setup
+    public void setUp() {
+        sorted = IntStream.range(0, size).boxed().collect(Collectors.toList());
+        input = new ArrayList<>(sorted);
+        var random = new Random(size);
+        if(order == Order.RANDOM) {
+            Collections.shuffle(input, random);
+        }
+        queries = random.ints(QUERIES, 0, size).toArray();
+        avlTree = new SAvlTree<>(Comparator.naturalOrder());
+        aggregateTree = new SAggregateTree<>(Comparator.naturalOrder(),
+                SAggregateTree.Aggregation.summingLong(Integer::longValue));
+        persistentTree = SPersistentTree.empty(Comparator.naturalOrder());
+        treeMap = new TreeMap<>();
+        for(Integer value : input) {
+            avlTree.insert(value);
+            aggregateTree.insert(value);
+            persistentTree = persistentTree.insert(value);
+            treeMap.put(value, value);
+        }
+    }
+
+    @Benchmark
+    public SAvlTree<Integer> avlInsertAll() {
+        var tree = new SAvlTree<Integer>(Comparator.naturalOrder());
+        for(Integer value : input) {
+            tree.insert(value);
+        }
+        return tree;
+    }
+
+    @Benchmark
+    public TreeMap<Integer, Integer> treeMapPutAll() {
+        var map = new TreeMap<Integer, Integer>();
+        for(Integer value : input) {
+            map.put(value, value);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public int avlContains() {
+        int found = 0;
+        for(int query : queries) {
+            found += avlTree.contains(query) ? 1 : 0;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int treeMapContains() {
+        int found = 0;
+        for(int query : queries) {
+            found += treeMap.containsKey(query) ? 1 : 0;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public long avlFloorCeiling() {
+        long sum = 0;
+        for(int query : queries) {
+            Integer floor = avlTree.floor(query);
+            Integer ceiling = avlTree.ceiling(query);
+            sum += (floor == null ? 0 : floor) + (ceiling == null ? 0 : ceiling);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long treeMapFloorCeiling() {
+        long sum = 0;
+        for(int query : queries) {
+            Integer floor = treeMap.floorKey(query);
+            Integer ceiling = treeMap.ceilingKey(query);
+            sum += (floor == null ? 0 : floor) + (ceiling == null ? 0 : ceiling);
+        }
+        return sum;
+    }
+
+    /**
+     * Copies out ranges of a tenth of the values
+     */
+    @Benchmark
+    public long avlRange() {
+        long count = 0;
+        for(int i = 0; i < queries.length; i += 10) {
+            count += avlTree.range(queries[i], queries[i] + size / 10).size();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long treeMapRange() {
+        long count = 0;
+        for(int i = 0; i < queries.length; i += 10) {
+            count += new ArrayList<>(treeMap.subMap(queries[i], true, queries[i] + size / 10, true).keySet()).size();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long avlRankAndSelect() {
+        long sum = 0;
+        for(int query : queries) {
+            sum += avlTree.rank(query) + avlTree.select(query);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int avlCountInRange() {
+        int count = 0;
+        for(int query : queries) {
+            count += avlTree.countInRange(query, query + size / 10);
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long aggregateRangeSum() {
+        long sum = 0;
+        for(int query : queries) {
+            sum += aggregateTree.rangeAggregate(query, query + size / 10);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public SPersistentTree<Integer> persistentInsertAll() {
+        var tree = SPersistentTree.<Integer>empty(Comparator.naturalOrder());
+        for(Integer value : input) {
+            tree = tree.insert(value);
+        }
+        return tree;
+    }
+
+    @Benchmark
+    public int persistentContains() {
+        int found = 0;
+        for(int query : queries) {
+            found += persistentTree.contains(query) ? 1 : 0;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public SBinaryTree<Integer> fromSorted() {
+        return SBinaryTrees.fromSorted(sorted);
+    }
+
+    @Benchmark
+    public SBinaryTree<Integer> fromSortedIterator() {
+        return SBinaryTrees.fromSorted(sorted.iterator());
+    }
+
+    @Benchmark
+    public SBinaryTree<Integer> fromSortedParallel() {
+        return SBinaryTrees.fromSortedParallel(sorted);
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.sambsnyd.datastructures;
+
+import com.github.sambsnyd.problems.RecursionAndMemoizationProblems;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Walking every subset through powerSet's Set views against SubsetEnumerator's single reused View
+ * Each benchmark adds up the subsets' sizes so that every subset is actually looked at.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PowerSetBenchmark {
+
+    @Param({ "10", "16", "20" })
+    private int elementCount;
+
+    private Set<Integer> input;
+    private Set<Set<Integer>> powerSet;
+    private SubsetEnumerator<Integer> enumerator;
+    private Set<Integer> lookup;
+
+    @Setup
+    public void setUp() {
+        input = IntStream.range(0, elementCount).boxed().collect(Collectors.toCollection(HashSet::new));
+        powerSet = new RecursionAndMemoizationProblems().powerSet(input);
+        enumerator = new SubsetEnumerator<>(input);
+        lookup = IntStream.range(0, elementCount).filter(i -> i % 3 == 0).boxed().collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public long powerSetIterate() {
+        long total = 0;
+        for(Set<Integer> subset : powerSet) {
+            total += subset.size();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long powerSetParallelStream() {
+        return powerSet.parallelStream().mapToLong(Set::size).sum();
+    }
+
+    @Benchmark
+    public boolean powerSetContains() {
+        return powerSet.contains(lookup);
+    }
+
+    @Benchmark
+    public long grayOrder() {
+        long[] total = new long[1];
+        enumerator.forEachSubsetGrayOrder(subset -> {
+            total[0] += subset.size();
+            return true;
+        });
+        return total[0];
+    }
+
+    @Benchmark
+    public long subsetsOfHalfSize() {
+        long[] total = new long[1];
+        enumerator.forEachSubsetOfSize(elementCount / 2, subset -> {
+            total[0] += subset.mask();
+            return true;
+        });
+        return total[0];
+    }
+}
@@ -0,0 +1,203 @@
+package com.github.sambsnyd.datastructures;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Traversals and searches over the same tree held as an SBinaryTree, an IntBinaryTree, a MappedBinaryTree and a
+ * ConcurrentSBinaryTree, balanced and degenerate
+ * The searches look for a value that isn't in the tree, so every one of them visits every node.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreeBenchmark {
+
+    public enum Shape {
+        // Built by SBinaryTrees.fromSorted, height log n
+        BALANCED,
+        // Every node the right child of the one before, height n
+        DEGENERATE
+    }
+
+    @Param({ "1000", "100000" })
+    private int size;
+
+    @Param({ "BALANCED", "DEGENERATE" })
+    private Shape shape;
+
+    private SBinaryTree<Integer> tree;
+    private SBinaryTree<Integer> cachedTree;
+    private IntBinaryTree intTree;
+    private Path file;
+    private MappedBinaryTree<Integer> mappedTree;
+    private ConcurrentSBinaryTree<Integer> concurrentTree;
+
+    @Setup
+    public void setUp() throws IOException {
+        tree = create();
+        cachedTree = create().enableMetadataCache();
+        intTree = toIntTree(tree);
+        file = Files.createTempFile("tree-benchmark", ".tree");
+        MappedBinaryTree.write(tree, file, MappedBinaryTree.Codec.ints());
+        mappedTree = MappedBinaryTree.open(file, MappedBinaryTree.Codec.ints());
+        concurrentTree = ConcurrentSBinaryTree.copyOf(tree);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private SBinaryTree<Integer> create() {
+        if(shape == Shape.BALANCED) {
+            List<Integer> values = IntStream.range(0, size).boxed().collect(Collectors.toList());
+            return SBinaryTrees.fromSorted(values);
+        }
+        var root = new SBinaryTree<>(0);
+        var last = root;
+        for(int value = 1; value < size; value++) {
+            var next = new SBinaryTree<>(value);
+            last.setRight(next);
+            last = next;
+        }
+        return root;
+    }
+
+    /**
+     * Copies a tree node for node with an explicit stack, so degenerate trees don't overflow the call stack
+     */
+    private static IntBinaryTree toIntTree(SBinaryTree<Integer> tree) {
+        var copy = new IntBinaryTree(tree.size());
+        Deque<SBinaryTree<Integer>> sources = new ArrayDeque<>();
+        Deque<Integer> copies = new ArrayDeque<>();
+        sources.push(tree);
+        copies.push(copy.addNode(tree.getValue()));
+        while(!sources.isEmpty()) {
+            var source = sources.pop();
+            int node = copies.pop();
+            if(source.getLeft() != null) {
+                sources.push(source.getLeft());
+                copies.push(copy.addLeft(node, source.getLeft().getValue()));
+            }
+            if(source.getRight() != null) {
+                sources.push(source.getRight());
+                copies.push(copy.addRight(node, source.getRight().getValue()));
+            }
+        }
+        return copy;
+    }
+
+    @Benchmark
+    public List<Integer> traverseInorder() {
+        return tree.traverseInorder();
+    }
+
+    @Benchmark
+    public List<Integer> traverseLevelOrder() {
+        return tree.traverseLevelOrder();
+    }
+
+    @Benchmark
+    public long iterateInorder() {
+        long sum = 0;
+        for(Iterator<Integer> it = tree.inorderIterator(); it.hasNext(); ) {
+            sum += it.next();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long streamSum() {
+        return tree.stream().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long parallelStreamSum() {
+        return tree.parallelStream().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long parallelReduceSum() {
+        return tree.parallelReduce(0L, (sum, value) -> sum + value, Long::sum);
+    }
+
+    @Benchmark
+    public Integer breadthFirstSearch() {
+        return tree.breadthFirstSearch(value -> value < 0);
+    }
+
+    @Benchmark
+    public Integer depthFirstSearch() {
+        return tree.depthFirstSearch(value -> value < 0);
+    }
+
+    @Benchmark
+    public int height() {
+        return tree.getHeight();
+    }
+
+    @Benchmark
+    public int heightCached() {
+        return cachedTree.getHeight();
+    }
+
+    @Benchmark
+    public int[] intTreeTraverseInorder() {
+        return intTree.traverseInorder();
+    }
+
+    @Benchmark
+    public int intTreeBreadthFirstSearch() {
+        return intTree.breadthFirstSearch(value -> value < 0);
+    }
+
+    @Benchmark
+    public int intTreeDepthFirstSearch() {
+        return intTree.depthFirstSearch(value -> value < 0);
+    }
+
+    @Benchmark
+    public List<Integer> mappedTraverseInorder() {
+        return mappedTree.traverseInorder();
+    }
+
+    @Benchmark
+    public Integer mappedDepthFirstSearch() {
+        return mappedTree.depthFirstSearch(value -> value < 0);
+    }
+
+    @Benchmark
+    public List<Integer> concurrentTraverseInorder() {
+        return concurrentTree.traverseInorder();
+    }
+
+    @Benchmark
+    public Integer concurrentBreadthFirstSearch() {
+        return concurrentTree.breadthFirstSearch(value -> value < 0);
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.sambsnyd.problems;
+
+import com.github.sambsnyd.datastructures.BitGrid;
+
+import java.util.Random;
+
+/**
+ * Square grids for the grid benchmarks, the same for a given shape and size on every run
+ */
+public final class BenchmarkGrids {
+
+    public enum Shape {
+        // Every cell passable, so there are as many paths as possible and nothing to steer around
+        OPEN,
+        // A third of the cells blocked at random around one guaranteed right/down path, so searches keep running
+        // into dead ends that can't reach the bottom right
+        TRAPS
+    }
+
+    private BenchmarkGrids() { }
+
+    static BitGrid create(Shape shape, int size) {
+        var grid = new BitGrid(size, size);
+        if(shape == Shape.OPEN) {
+            grid.fill(true);
+            return grid;
+        }
+        var random = new Random(size);
+        for(int cell = 0; cell < grid.cellCount(); cell++) {
+            grid.setPassable(cell, random.nextInt(3) != 0);
+        }
+        // Carve a random walk of right and down steps from the top left to the bottom right
+        int row = 0;
+        int column = 0;
+        grid.setPassable(row, column, true);
+        while(row < size - 1 || column < size - 1) {
+            if(column == size - 1 || (row < size - 1 && random.nextBoolean())) {
+                row++;
+            } else {
+                column++;
+            }
+            grid.setPassable(row, column, true);
+        }
+        return grid;
+    }
+}
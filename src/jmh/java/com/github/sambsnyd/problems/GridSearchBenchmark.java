@@ -0,0 +1,80 @@
+package com.github.sambsnyd.problems;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GridSearch's searches from the top left to the bottom right, with Dijkstra as the heuristic-free baseline
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GridSearchBenchmark {
+
+    @Param({ "64", "512" })
+    private int size;
+
+    @Param({ "OPEN", "TRAPS" })
+    private BenchmarkGrids.Shape shape;
+
+    private GridSearch fourWay;
+    private GridSearch eightWay;
+    private int target;
+
+    @Setup
+    public void setUp() {
+        var grid = BenchmarkGrids.create(shape, size);
+        fourWay = new GridSearch(grid, GridSearch.Movement.FOUR);
+        eightWay = new GridSearch(grid, GridSearch.Movement.EIGHT);
+        target = grid.cellCount() - 1;
+    }
+
+    @Benchmark
+    public GridSearch.Result dijkstraFour() {
+        return fourWay.aStar(0, target, GridSearch.Heuristic.ZERO);
+    }
+
+    @Benchmark
+    public GridSearch.Result aStarFour() {
+        return fourWay.aStar(0, target, GridSearch.Heuristic.MANHATTAN);
+    }
+
+    @Benchmark
+    public GridSearch.Result bidirectionalFour() {
+        return fourWay.bidirectional(0, target, GridSearch.Heuristic.MANHATTAN);
+    }
+
+    @Benchmark
+    public GridSearch.Result dijkstraEight() {
+        return eightWay.aStar(0, target, GridSearch.Heuristic.ZERO);
+    }
+
+    @Benchmark
+    public GridSearch.Result aStarEight() {
+        return eightWay.aStar(0, target, GridSearch.Heuristic.OCTILE);
+    }
+
+    @Benchmark
+    public GridSearch.Result bidirectionalEight() {
+        return eightWay.bidirectional(0, target, GridSearch.Heuristic.OCTILE);
+    }
+
+    @Benchmark
+    public GridSearch.Result jumpPoint() {
+        return eightWay.jumpPoint(0, target);
+    }
+}
@@ -0,0 +1,135 @@
+package com.github.sambsnyd.problems;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findMagicIndex against MagicIndexSearch, for single arrays, batches of arrays cut from them and range queries
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MagicIndexBenchmark {
+
+    public enum Shape {
+        // Distinct values that wander around their indexes, so magic indexes are scattered through the array
+        STRICTLY_INCREASING,
+        // Runs of up to 32 equal values, where findMagicIndex can prune little and has to search both sides
+        DUPLICATE_HEAVY
+    }
+
+    private static final int BATCH_ARRAY_LENGTH = 1_000;
+
+    @Param({ "1000", "1000000" })
+    private int length;
+
+    @Param({ "STRICTLY_INCREASING", "DUPLICATE_HEAVY" })
+    private Shape shape;
+
+    private RecursionAndMemoizationProblems problems;
+    private MagicIndexSearch.Ordering ordering;
+    private int[] values;
+    private int[][] batch;
+    private int[] offsets;
+    private MagicIndexSearch.Index index;
+    private int queryLo;
+    private int queryHi;
+
+    @Setup
+    public void setUp() {
+        problems = new RecursionAndMemoizationProblems();
+        ordering = shape == Shape.STRICTLY_INCREASING ?
+                MagicIndexSearch.Ordering.STRICTLY_INCREASING :
+                MagicIndexSearch.Ordering.NON_DECREASING;
+        var random = new Random(length);
+        values = new int[length];
+        int value = -length / 100;
+        for(int i = 0; i < length; ) {
+            int run = shape == Shape.STRICTLY_INCREASING ? 1 : 1 + random.nextInt(32);
+            for(int j = 0; j < run && i < length; j++) {
+                values[i++] = value;
+            }
+            // Steps average about one index per index so the values stay close to their indexes
+            value += shape == Shape.STRICTLY_INCREASING ? 1 + (random.nextInt(8) == 0 ? 1 : 0) : run;
+            value -= random.nextInt(2);
+            if(shape == Shape.STRICTLY_INCREASING) {
+                value = Math.max(value, values[i - 1] + 1);
+            }
+        }
+        int arrays = Math.max(1, length / BATCH_ARRAY_LENGTH);
+        batch = new int[arrays][];
+        offsets = new int[arrays + 1];
+        for(int i = 0; i < arrays; i++) {
+            offsets[i + 1] = i == arrays - 1 ? length : (i + 1) * BATCH_ARRAY_LENGTH;
+            batch[i] = Arrays.copyOfRange(values, offsets[i], offsets[i + 1]);
+        }
+        index = MagicIndexSearch.Index.of(values);
+        queryLo = length / 4;
+        queryHi = length / 2;
+    }
+
+    @Benchmark
+    public int recursive() {
+        return problems.findMagicIndex(values);
+    }
+
+    @Benchmark
+    public int lowest() {
+        return MagicIndexSearch.lowestMagicIndex(values, ordering);
+    }
+
+    @Benchmark
+    public int batchRecursive() {
+        int found = 0;
+        for(int[] array : batch) {
+            found += problems.findMagicIndex(array) >= 0 ? 1 : 0;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int[] batchArrays() {
+        return MagicIndexSearch.lowestMagicIndexes(batch, ordering);
+    }
+
+    @Benchmark
+    public int[] batchPacked() {
+        return MagicIndexSearch.lowestMagicIndexes(values, offsets, ordering);
+    }
+
+    @Benchmark
+    public long allMagicIndexes() {
+        return MagicIndexSearch.magicIndexes(values).count();
+    }
+
+    @Benchmark
+    public MagicIndexSearch.Index indexBuild() {
+        return MagicIndexSearch.Index.of(values);
+    }
+
+    @Benchmark
+    public int indexRangeCount() {
+        return index.count(queryLo, queryHi);
+    }
+
+    @Benchmark
+    public int[] indexRange() {
+        return index.between(queryLo, queryHi).toArray();
+    }
+}
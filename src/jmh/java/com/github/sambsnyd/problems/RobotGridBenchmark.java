@@ -0,0 +1,112 @@
+package com.github.sambsnyd.problems;
+
+import com.github.sambsnyd.datastructures.BitGrid;
+import com.google.common.collect.ArrayTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The right/down robot problem: the original ArrayTable search against the bit-packed search, the row DP,
+ * GridRouter and IncrementalGridPlanner, on open grids and grids full of dead ends
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RobotGridBenchmark {
+
+    @Param({ "64", "512" })
+    private int size;
+
+    @Param({ "OPEN", "TRAPS" })
+    private BenchmarkGrids.Shape shape;
+
+    private RecursionAndMemoizationProblems problems;
+    private BitGrid grid;
+    private ArrayTable<Integer, Integer, Boolean> table;
+    private GridRouter router;
+    private IncrementalGridPlanner planner;
+    private int plannerCell;
+
+    @Setup
+    public void setUp() {
+        problems = new RecursionAndMemoizationProblems();
+        grid = BenchmarkGrids.create(shape, size);
+        List<Integer> indexes = IntStream.range(0, size).boxed().collect(Collectors.toList());
+        table = ArrayTable.create(indexes, indexes);
+        for(int row = 0; row < size; row++) {
+            for(int column = 0; column < size; column++) {
+                table.set(row, column, grid.isPassable(row, column));
+            }
+        }
+        router = new GridRouter(grid);
+        planner = new IncrementalGridPlanner(grid);
+        planner.replan();
+        // Blocking a cell halfway along the current route forces the planner to find another
+        int[] path = planner.path();
+        plannerCell = path[path.length / 2];
+    }
+
+    @Benchmark
+    public List<RecursionAndMemoizationProblems.GridPoint> traverseArrayTable() {
+        return problems.robotTraverseGrid(table);
+    }
+
+    @Benchmark
+    public int[] traverseBitGrid() {
+        return problems.robotTraverseGridCells(grid);
+    }
+
+    @Benchmark
+    public boolean hasPath() {
+        return problems.robotHasPath(grid);
+    }
+
+    @Benchmark
+    public int[] findPath() {
+        return problems.robotFindPath(grid);
+    }
+
+    @Benchmark
+    public BigInteger countPathsExact() {
+        return problems.robotCountPathsExact(grid);
+    }
+
+    @Benchmark
+    public GridRouter routerBuild() {
+        return new GridRouter(grid);
+    }
+
+    @Benchmark
+    public int[] routerFindPath() {
+        return router.findPath(0, grid.cellCount() - 1);
+    }
+
+    /**
+     * Blocks a cell on the route and opens it again, repairing the route after each change
+     */
+    @Benchmark
+    public int plannerRepair() {
+        planner.setPassable(plannerCell, false);
+        int expanded = planner.replan();
+        planner.setPassable(plannerCell, true);
+        return expanded + planner.replan();
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.sambsnyd.problems;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The stair climbing counts, from the exponential brute force to the O(log n) matrix powers
+ * 30 steps is as far as the int-returning versions go before overflowing, and the brute force already takes a while.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StairCountingBenchmark {
+
+    private static final long MODULUS = 1_000_000_007L;
+
+    @Param({ "10", "20", "30" })
+    private int stepCount;
+
+    private RecursionAndMemoizationProblems problems;
+
+    @Setup
+    public void setUp() {
+        problems = new RecursionAndMemoizationProblems();
+    }
+
+    @Benchmark
+    public int brute() {
+        return problems.stairTraversalCombinationsBrute(stepCount);
+    }
+
+    @Benchmark
+    public int memoized() {
+        return problems.stairTraversalCombinationsMemoized(stepCount);
+    }
+
+    /**
+     * Every call after the first is a lookup in the shared memo
+     */
+    @Benchmark
+    public long cached() {
+        return problems.stairTraversalCombinationsCached(stepCount);
+    }
+
+    /**
+     * A fresh memo every time, so the count is computed from scratch as with memoized
+     */
+    @Benchmark
+    public long cachedCold() {
+        return new RecursionAndMemoizationProblems(new Memoizer<>(1_000)).stairTraversalCombinationsCached(stepCount);
+    }
+
+    @Benchmark
+    public long matrix() {
+        return problems.stairTraversalCombinationsMatrix(stepCount);
+    }
+
+    @Benchmark
+    public long modular() {
+        return problems.stairTraversalCombinationsModular(stepCount, MODULUS);
+    }
+
+    @Benchmark
+    public BigInteger exact() {
+        return problems.stairTraversalCombinationsExact(stepCount);
+    }
+
+    @Benchmark
+    public long stepCombinations() {
+        return problems.stepCombinations(stepCount, 1, 2, 3);
+    }
+
+    /**
+     * Every count up to stepCount rather than just the last one
+     */
+    @Benchmark
+    public long upTo() {
+        return problems.stairTraversalCombinationsUpTo(stepCount).sum();
+    }
+
+    @Benchmark
+    public long sequenceJump() {
+        var sequence = new StairCombinationSequence();
+        sequence.jumpTo(stepCount);
+        return sequence.nextLong();
+    }
+}
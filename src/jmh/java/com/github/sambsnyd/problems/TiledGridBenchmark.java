@@ -0,0 +1,81 @@
+package com.github.sambsnyd.problems;
+
+import com.github.sambsnyd.datastructures.BitGrid;
+import com.github.sambsnyd.datastructures.MappedTileGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TiledGridSolver over a memory-mapped grid, against the in-heap row DP on the same grid
+ * The file is written once per trial, so after the first iteration the tiles are in the page cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TiledGridBenchmark {
+
+    @Param({ "1024", "4096" })
+    private int size;
+
+    @Param({ "OPEN", "TRAPS" })
+    private BenchmarkGrids.Shape shape;
+
+    @Param({ "256" })
+    private int tileSize;
+
+    private RecursionAndMemoizationProblems problems;
+    private BitGrid grid;
+    private Path file;
+    private MappedTileGrid tiled;
+
+    @Setup
+    public void setUp() throws IOException {
+        problems = new RecursionAndMemoizationProblems();
+        grid = BenchmarkGrids.create(shape, size);
+        file = Files.createTempFile("tiled-grid-benchmark", ".grid");
+        tiled = MappedTileGrid.write(grid, file, tileSize);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public boolean tiledHasPath() {
+        return new TiledGridSolver(tiled).hasPath();
+    }
+
+    @Benchmark
+    public long[] tiledFindPath() {
+        return new TiledGridSolver(tiled).findPath();
+    }
+
+    @Benchmark
+    public boolean inHeapHasPath() {
+        return problems.robotHasPath(grid);
+    }
+
+    @Benchmark
+    public int[] inHeapFindPath() {
+        return problems.robotFindPath(grid);
+    }
+}
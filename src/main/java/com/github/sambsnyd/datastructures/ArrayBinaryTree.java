@@ -0,0 +1,330 @@
+package com.github.sambsnyd.datastructures;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * The shape of a binary tree stored in parallel arrays, shared by the primitive-specialized trees
+ *
+ * A node is an int index into left[] and right[], which hold the indices of its children or NONE.
+ * Subclasses keep the node values in a parallel primitive array, so there are no per-node objects, no boxing and
+ * no pointer chasing beyond an index lookup: roughly 12 bytes per int node and 16 per long node.
+ * As with any tree, a node should be the child of at most one other node.
+ */
+abstract class ArrayBinaryTree {
+    public static final int NONE = -1;
+
+    private int[] left;
+    private int[] right;
+    private int size;
+    private int root = NONE;
+
+    ArrayBinaryTree(int initialCapacity) {
+        Preconditions.checkArgument(initialCapacity >= 0, "Initial capacity must not be negative");
+        left = new int[initialCapacity];
+        right = new int[initialCapacity];
+    }
+
+    /**
+     * Grows or reorders the subclass's value array to match the node arrays
+     */
+    abstract void resizeValues(int capacity);
+    abstract void reorderValues(int[] newOrder, int count);
+
+    /**
+     * Allocates a node with no children, which becomes the root if the tree doesn't have one yet
+     */
+    int allocateNode() {
+        if(size == left.length) {
+            int capacity = Math.max(16, size + (size >> 1));
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            resizeValues(capacity);
+        }
+        left[size] = NONE;
+        right[size] = NONE;
+        if(root == NONE) {
+            root = size;
+        }
+        return size++;
+    }
+
+    void checkNode(int node) {
+        Preconditions.checkElementIndex(node, size, "node");
+    }
+
+    public int getRoot() {
+        return root;
+    }
+
+    public void setRoot(int node) {
+        if(node != NONE) {
+            checkNode(node);
+        }
+        root = node;
+    }
+
+    /**
+     * The number of nodes allocated, including any no longer reachable from the root
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getLeft(int node) {
+        checkNode(node);
+        return left[node];
+    }
+
+    public void setLeft(int parent, int child) {
+        checkNode(parent);
+        if(child != NONE) {
+            checkNode(child);
+        }
+        left[parent] = child;
+    }
+
+    public int getRight(int node) {
+        checkNode(node);
+        return right[node];
+    }
+
+    public void setRight(int parent, int child) {
+        checkNode(parent);
+        if(child != NONE) {
+            checkNode(child);
+        }
+        right[parent] = child;
+    }
+
+    public int getHeight() {
+        return root == NONE ? 0 : getHeight(root);
+    }
+
+    /**
+     * The height of the subtree under node, counting node itself as 1
+     */
+    public int getHeight(int node) {
+        checkNode(node);
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = node;
+        int levels = 0;
+        while(head < tail) {
+            levels++;
+            int levelEnd = tail;
+            while(head < levelEnd) {
+                int current = queue[head++];
+                if(left[current] != NONE) {
+                    queue[tail++] = left[current];
+                }
+                if(right[current] != NONE) {
+                    queue[tail++] = right[current];
+                }
+            }
+        }
+        return levels;
+    }
+
+    public boolean isBalanced() {
+        return root == NONE || isBalanced(root);
+    }
+
+    /**
+     * A single post-order pass that stops at the first node whose subtrees differ in height by more than one
+     */
+    public boolean isBalanced(int node) {
+        checkNode(node);
+        int[] heights = new int[size];
+        int[] order = new int[size];
+        int count = collect(node, Order.POSTORDER, order);
+        for(int i = 0; i < count; i++) {
+            int current = order[i];
+            int leftHeight = left[current] == NONE ? 0 : heights[left[current]];
+            int rightHeight = right[current] == NONE ? 0 : heights[right[current]];
+            if(Math.abs(leftHeight - rightHeight) > 1) {
+                return false;
+            }
+            heights[current] = 1 + Math.max(leftHeight, rightHeight);
+        }
+        return true;
+    }
+
+    enum Order { INORDER, PREORDER, POSTORDER, LEVEL_ORDER }
+
+    /**
+     * Visits the nodes under start in the given order, passing each node index to the visitor
+     * Driven by a primitive int[] stack or queue, so nothing is allocated per node
+     */
+    void visit(int start, Order order, IntConsumer visitor) {
+        if(start == NONE) {
+            return;
+        }
+        // Each node is pushed at most once so these can never overflow
+        int[] pending = new int[size];
+        switch(order) {
+            case INORDER: {
+                int top = 0;
+                int node = start;
+                while(node != NONE || top > 0) {
+                    while(node != NONE) {
+                        pending[top++] = node;
+                        node = left[node];
+                    }
+                    node = pending[--top];
+                    visitor.accept(node);
+                    node = right[node];
+                }
+                break;
+            }
+            case PREORDER: {
+                int top = 0;
+                pending[top++] = start;
+                while(top > 0) {
+                    int node = pending[--top];
+                    visitor.accept(node);
+                    if(right[node] != NONE) {
+                        pending[top++] = right[node];
+                    }
+                    if(left[node] != NONE) {
+                        pending[top++] = left[node];
+                    }
+                }
+                break;
+            }
+            case POSTORDER: {
+                int top = 0;
+                int node = start;
+                // Descend to the first node in post-order: keep left, go right only when there is no left
+                while(node != NONE) {
+                    pending[top++] = node;
+                    node = left[node] != NONE ? left[node] : right[node];
+                }
+                while(top > 0) {
+                    node = pending[--top];
+                    visitor.accept(node);
+                    if(top > 0) {
+                        int parent = pending[top - 1];
+                        // Finishing a left subtree means the parent's right subtree is next, if it has one
+                        if(left[parent] == node && right[parent] != NONE) {
+                            int next = right[parent];
+                            while(next != NONE) {
+                                pending[top++] = next;
+                                next = left[next] != NONE ? left[next] : right[next];
+                            }
+                        }
+                    }
+                }
+                break;
+            }
+            case LEVEL_ORDER: {
+                int head = 0;
+                int tail = 0;
+                pending[tail++] = start;
+                while(head < tail) {
+                    int node = pending[head++];
+                    visitor.accept(node);
+                    if(left[node] != NONE) {
+                        pending[tail++] = left[node];
+                    }
+                    if(right[node] != NONE) {
+                        pending[tail++] = right[node];
+                    }
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Writes the nodes under start into destination in the given order, returning how many were written
+     */
+    int collect(int start, Order order, int[] destination) {
+        int[] count = new int[1];
+        visit(start, order, node -> destination[count[0]++] = node);
+        return count[0];
+    }
+
+    /**
+     * Returns the first node in level-order whose index satisfies the test, or NONE
+     */
+    int breadthFirstSearchNode(IntPredicate nodeTest) {
+        if(root == NONE) {
+            return NONE;
+        }
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        while(head < tail) {
+            int node = queue[head++];
+            if(nodeTest.test(node)) {
+                return node;
+            }
+            if(left[node] != NONE) {
+                queue[tail++] = left[node];
+            }
+            if(right[node] != NONE) {
+                queue[tail++] = right[node];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Returns the first node in pre-order whose index satisfies the test, or NONE
+     */
+    int depthFirstSearchNode(IntPredicate nodeTest) {
+        if(root == NONE) {
+            return NONE;
+        }
+        int[] stack = new int[size];
+        int top = 0;
+        stack[top++] = root;
+        while(top > 0) {
+            int node = stack[--top];
+            if(nodeTest.test(node)) {
+                return node;
+            }
+            if(right[node] != NONE) {
+                stack[top++] = right[node];
+            }
+            if(left[node] != NONE) {
+                stack[top++] = left[node];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Renumbers the nodes reachable from the root in pre-order and drops any that are unreachable
+     * Afterwards a depth-first walk reads the arrays front to back, which the hardware prefetcher handles well.
+     * Node indices held from before compacting are no longer valid.
+     */
+    public void compact() {
+        int[] order = new int[size];
+        int count = collect(root, Order.PREORDER, order);
+        int[] newIndex = new int[size];
+        Arrays.fill(newIndex, NONE);
+        for(int i = 0; i < count; i++) {
+            newIndex[order[i]] = i;
+        }
+        int[] newLeft = new int[Math.max(count, 16)];
+        int[] newRight = new int[newLeft.length];
+        for(int i = 0; i < count; i++) {
+            int old = order[i];
+            newLeft[i] = left[old] == NONE ? NONE : newIndex[left[old]];
+            newRight[i] = right[old] == NONE ? NONE : newIndex[right[old]];
+        }
+        reorderValues(order, count);
+        resizeValues(newLeft.length);
+        left = newLeft;
+        right = newRight;
+        size = count;
+        root = count == 0 ? NONE : 0;
+    }
+}
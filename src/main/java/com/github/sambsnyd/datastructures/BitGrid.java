@@ -0,0 +1,156 @@
+package com.github.sambsnyd.datastructures;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ArrayTable;
+
+import java.util.Arrays;
+
+/**
+ * A rectangular grid of passable/impassable cells packed one bit per cell into a long[]
+ *
+ * A 10,000 x 10,000 grid takes 12.5MB rather than the hundreds of megabytes a table of boxed Booleans needs.
+ * Cells can be addressed by row and column or by a single int, row * columns + column, which is how search
+ * code refers to them so that a point never has to be an object.
+ */
+public class BitGrid {
+
+    private final int rows;
+    private final int columns;
+    private final long[] bits;
+
+    /**
+     * Creates a grid where every cell is impassable
+     */
+    public BitGrid(int rows, int columns) {
+        Preconditions.checkArgument(rows > 0 && columns > 0, "Grid must be non-empty");
+        Preconditions.checkArgument((long)rows * columns <= Integer.MAX_VALUE, "Grid has too many cells");
+        this.rows = rows;
+        this.columns = columns;
+        this.bits = new long[(int)(((long)rows * columns + 63) >>> 6)];
+    }
+
+    /**
+     * Copies a grid in the ArrayTable format robotTraverseGrid has always taken
+     * true is passable, false or null is impassable
+     */
+    public static BitGrid copyOf(ArrayTable<Integer, Integer, Boolean> table) {
+        Preconditions.checkNotNull(table);
+        Preconditions.checkArgument(table.size() > 0, "Grid must be non-empty");
+        var grid = new BitGrid(table.rowKeyList().size(), table.columnKeyList().size());
+        for(int row = 0; row < grid.rows; row++) {
+            for(int column = 0; column < grid.columns; column++) {
+                if(Boolean.TRUE.equals(table.at(row, column))) {
+                    grid.setPassable(row, column, true);
+                }
+            }
+        }
+        return grid;
+    }
+
+    public BitGrid copy() {
+        var copy = new BitGrid(rows, columns);
+        System.arraycopy(bits, 0, copy.bits, 0, bits.length);
+        return copy;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    public int cellCount() {
+        return rows * columns;
+    }
+
+    public int cell(int row, int column) {
+        Preconditions.checkElementIndex(row, rows, "row");
+        Preconditions.checkElementIndex(column, columns, "column");
+        return row * columns + column;
+    }
+
+    public int row(int cell) {
+        return cell / columns;
+    }
+
+    public int column(int cell) {
+        return cell % columns;
+    }
+
+    public boolean isPassable(int row, int column) {
+        return isPassable(cell(row, column));
+    }
+
+    /**
+     * Unchecked beyond the array bounds, search loops call this for every cell they consider
+     */
+    public boolean isPassable(int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    public void setPassable(int row, int column, boolean passable) {
+        setPassable(cell(row, column), passable);
+    }
+
+    public void setPassable(int cell, boolean passable) {
+        Preconditions.checkElementIndex(cell, cellCount(), "cell");
+        if(passable) {
+            bits[cell >>> 6] |= 1L << cell;
+        } else {
+            bits[cell >>> 6] &= ~(1L << cell);
+        }
+    }
+
+    /**
+     * The number of longs readRow needs to hold one row
+     */
+    public int wordsPerRow() {
+        return (columns + 63) >>> 6;
+    }
+
+    /**
+     * Copies one row's bits into the start of words so that column c is bit (c % 64) of words[c / 64]
+     * Bits past the last column are cleared, so whole rows can be combined with word-at-a-time bit operations
+     */
+    public void readRow(int row, long[] words) {
+        Preconditions.checkElementIndex(row, rows, "row");
+        Preconditions.checkArgument(words.length >= wordsPerRow(), "Need %s words to hold a row", wordsPerRow());
+        long start = (long)row * columns;
+        for(int i = 0; i < wordsPerRow(); i++) {
+            long bitIndex = start + 64L * i;
+            int word = (int)(bitIndex >>> 6);
+            int offset = (int)(bitIndex & 63);
+            long value = bits[word] >>> offset;
+            if(offset != 0 && word + 1 < bits.length) {
+                value |= bits[word + 1] << (64 - offset);
+            }
+            int remaining = columns - 64 * i;
+            if(remaining < 64) {
+                value &= (1L << remaining) - 1;
+            }
+            words[i] = value;
+        }
+    }
+
+    /**
+     * Makes every cell passable or impassable
+     */
+    public void fill(boolean passable) {
+        Arrays.fill(bits, passable ? -1L : 0L);
+    }
+
+    public int passableCount() {
+        int count = 0;
+        for(long word : bits) {
+            count += Long.bitCount(word);
+        }
+        // fill(true) sets the unused bits past the last cell too
+        int unused = bits.length * 64 - cellCount();
+        if(unused > 0) {
+            count -= Long.bitCount(bits[bits.length - 1] >>> (64 - unused));
+        }
+        return count;
+    }
+}
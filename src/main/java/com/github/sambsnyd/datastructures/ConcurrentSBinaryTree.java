@@ -0,0 +1,296 @@
+package com.github.sambsnyd.datastructures;
+
+import com.google.common.base.Preconditions;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A thread-safe binary tree with the same shape of API as SBinaryTree
+ *
+ * Every field is volatile and every write changes exactly one field, so there are no locks anywhere:
+ *  - Readers never block or retry. They see each node's fields as of the moment they read them, so traversals and
+ *    searches are weakly consistent, like a ConcurrentHashMap iterator: they never fail, and reflect every update
+ *    that happened-before they started plus possibly some made while they were running.
+ *  - Writers that need to make a decision based on the current state use the compareAndSet* methods, which CAS a
+ *    single field, or setLeftIfAbsent/setRightIfAbsent to grow the tree without clobbering a concurrent insert.
+ * Writers to different nodes never contend with each other, writers to the same field retry only on conflict.
+ */
+public class ConcurrentSBinaryTree<T> implements Iterable<T> {
+
+    private static final VarHandle VALUE;
+    private static final VarHandle LEFT;
+    private static final VarHandle RIGHT;
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            VALUE = lookup.findVarHandle(ConcurrentSBinaryTree.class, "value", Object.class);
+            LEFT = lookup.findVarHandle(ConcurrentSBinaryTree.class, "left", ConcurrentSBinaryTree.class);
+            RIGHT = lookup.findVarHandle(ConcurrentSBinaryTree.class, "right", ConcurrentSBinaryTree.class);
+        } catch(ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile T value;
+    private volatile ConcurrentSBinaryTree<T> left;
+    private volatile ConcurrentSBinaryTree<T> right;
+
+    public ConcurrentSBinaryTree(T value) {
+        this(null, value, null);
+    }
+
+    public ConcurrentSBinaryTree(ConcurrentSBinaryTree<T> left, T value, ConcurrentSBinaryTree<T> right) {
+        Preconditions.checkNotNull(value);
+        this.left = left;
+        this.value = value;
+        this.right = right;
+    }
+
+    /**
+     * Copies an SBinaryTree, walking it with an explicit stack
+     */
+    public static <T> ConcurrentSBinaryTree<T> copyOf(SBinaryTree<T> tree) {
+        Preconditions.checkNotNull(tree);
+        var root = new ConcurrentSBinaryTree<>(tree.getValue());
+        Deque<SBinaryTree<T>> sources = new ArrayDeque<>();
+        Deque<ConcurrentSBinaryTree<T>> copies = new ArrayDeque<>();
+        sources.push(tree);
+        copies.push(root);
+        while(!sources.isEmpty()) {
+            var source = sources.pop();
+            var copy = copies.pop();
+            if(source.getLeft() != null) {
+                copy.left = new ConcurrentSBinaryTree<>(source.getLeft().getValue());
+                sources.push(source.getLeft());
+                copies.push(copy.left);
+            }
+            if(source.getRight() != null) {
+                copy.right = new ConcurrentSBinaryTree<>(source.getRight().getValue());
+                sources.push(source.getRight());
+                copies.push(copy.right);
+            }
+        }
+        return root;
+    }
+
+    // Lock-free writes
+
+    /**
+     * Atomically sets the left child to update if it is currently expected, compared by identity
+     */
+    public boolean compareAndSetLeft(ConcurrentSBinaryTree<T> expected, ConcurrentSBinaryTree<T> update) {
+        return LEFT.compareAndSet(this, expected, update);
+    }
+
+    public boolean compareAndSetRight(ConcurrentSBinaryTree<T> expected, ConcurrentSBinaryTree<T> update) {
+        return RIGHT.compareAndSet(this, expected, update);
+    }
+
+    /**
+     * Atomically sets the value to update if it is currently expected, compared by identity
+     */
+    public boolean compareAndSetValue(T expected, T update) {
+        Preconditions.checkNotNull(update);
+        return VALUE.compareAndSet(this, expected, update);
+    }
+
+    /**
+     * Atomically replaces the value with the result of applying the function to it, retrying if another thread
+     * changes the value in the meantime, so the function may be called more than once and should be side-effect free
+     * Returns the new value
+     */
+    public T updateValue(UnaryOperator<T> update) {
+        Preconditions.checkNotNull(update);
+        while(true) {
+            T current = value;
+            T updated = update.apply(current);
+            Preconditions.checkNotNull(updated);
+            if(VALUE.compareAndSet(this, current, updated)) {
+                return updated;
+            }
+        }
+    }
+
+    /**
+     * Adds a left child holding the value unless there already is one
+     * Returns whichever node is the left child afterwards, so racing callers all agree on the winner
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentSBinaryTree<T> setLeftIfAbsent(T value) {
+        var candidate = new ConcurrentSBinaryTree<>(value);
+        var witness = (ConcurrentSBinaryTree<T>)LEFT.compareAndExchange(this, null, candidate);
+        return witness == null ? candidate : witness;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentSBinaryTree<T> setRightIfAbsent(T value) {
+        var candidate = new ConcurrentSBinaryTree<>(value);
+        var witness = (ConcurrentSBinaryTree<T>)RIGHT.compareAndExchange(this, null, candidate);
+        return witness == null ? candidate : witness;
+    }
+
+    // Wait-free reads
+
+    public int getHeight() {
+        int levels = 0;
+        Deque<ConcurrentSBinaryTree<T>> level = new ArrayDeque<>();
+        level.add(this);
+        while(!level.isEmpty()) {
+            levels++;
+            for(int remaining = level.size(); remaining > 0; remaining--) {
+                var node = level.poll();
+                // Read each child once, a second read could see a different node
+                var nodeLeft = node.left;
+                var nodeRight = node.right;
+                if(nodeLeft != null) {
+                    level.add(nodeLeft);
+                }
+                if(nodeRight != null) {
+                    level.add(nodeRight);
+                }
+            }
+        }
+        return levels;
+    }
+
+    public int size() {
+        int size = 0;
+        for(var it = iterator(); it.hasNext(); it.next()) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the first matching value in level-order, or null if nothing matches
+     */
+    public T breadthFirstSearch(Predicate<T> searchFun) {
+        Preconditions.checkNotNull(searchFun);
+        Deque<ConcurrentSBinaryTree<T>> queue = new ArrayDeque<>();
+        queue.add(this);
+        while(!queue.isEmpty()) {
+            var node = queue.poll();
+            T nodeValue = node.value;
+            if(searchFun.test(nodeValue)) {
+                return nodeValue;
+            }
+            var nodeLeft = node.left;
+            var nodeRight = node.right;
+            if(nodeLeft != null) {
+                queue.add(nodeLeft);
+            }
+            if(nodeRight != null) {
+                queue.add(nodeRight);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the first matching value in pre-order, or null if nothing matches
+     */
+    public T depthFirstSearch(Predicate<T> searchFun) {
+        Preconditions.checkNotNull(searchFun);
+        Deque<ConcurrentSBinaryTree<T>> stack = new ArrayDeque<>();
+        stack.push(this);
+        while(!stack.isEmpty()) {
+            var node = stack.pop();
+            T nodeValue = node.value;
+            if(searchFun.test(nodeValue)) {
+                return nodeValue;
+            }
+            var nodeLeft = node.left;
+            var nodeRight = node.right;
+            if(nodeRight != null) {
+                stack.push(nodeRight);
+            }
+            if(nodeLeft != null) {
+                stack.push(nodeLeft);
+            }
+        }
+        return null;
+    }
+
+    public List<T> traverseInorder() {
+        List<T> result = new ArrayList<>();
+        forEach(result::add);
+        return result;
+    }
+
+    /**
+     * A weakly consistent in-order iterator
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private final Deque<ConcurrentSBinaryTree<T>> stack = new ArrayDeque<>();
+            {
+                pushLeftSpine(ConcurrentSBinaryTree.this);
+            }
+
+            private void pushLeftSpine(ConcurrentSBinaryTree<T> node) {
+                while(node != null) {
+                    stack.push(node);
+                    node = node.left;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if(stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                var node = stack.pop();
+                pushLeftSpine(node.right);
+                return node.value;
+            }
+        };
+    }
+
+    // Plain getters and setters, each one a single volatile read or write
+
+    public ConcurrentSBinaryTree<T> getLeft() {
+        return left;
+    }
+
+    public void setLeft(ConcurrentSBinaryTree<T> left) {
+        this.left = left;
+    }
+    public void setLeft(T left) {
+        setLeft(new ConcurrentSBinaryTree<>(left));
+    }
+
+    public ConcurrentSBinaryTree<T> getRight() {
+        return right;
+    }
+
+    public void setRight(ConcurrentSBinaryTree<T> right) {
+        this.right = right;
+    }
+    public void setRight(T right) {
+        setRight(new ConcurrentSBinaryTree<>(right));
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public void setValue(T value) {
+        Preconditions.checkNotNull(value);
+        this.value = value;
+    }
+}
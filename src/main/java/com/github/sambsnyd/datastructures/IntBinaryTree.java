@@ -0,0 +1,125 @@
+package com.github.sambsnyd.datastructures;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * A binary tree of primitive int values stored in parallel arrays rather than as one object per node
+ *
+ * Nodes are referred to by their int index, with NONE standing in for a missing child.
+ * The first node added becomes the root.
+ *
+ *     var tree = new IntBinaryTree();
+ *     int root = tree.addNode(1);
+ *     int left = tree.addLeft(root, 2);
+ *     tree.addRight(root, 3);
+ *     tree.addLeft(left, 4);
+ *     tree.traverseInorder(); // [4,2,1,3]
+ */
+public class IntBinaryTree extends ArrayBinaryTree {
+
+    private int[] values;
+
+    public IntBinaryTree() {
+        this(16);
+    }
+
+    public IntBinaryTree(int initialCapacity) {
+        super(initialCapacity);
+        values = new int[initialCapacity];
+    }
+
+    @Override
+    void resizeValues(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    void reorderValues(int[] newOrder, int count) {
+        int[] reordered = new int[count];
+        for(int i = 0; i < count; i++) {
+            reordered[i] = values[newOrder[i]];
+        }
+        values = reordered;
+    }
+
+    /**
+     * Adds a node with no children and returns its index
+     */
+    public int addNode(int value) {
+        int node = allocateNode();
+        values[node] = value;
+        return node;
+    }
+
+    /**
+     * Adds a node and makes it the left child of parent, replacing any existing left child
+     */
+    public int addLeft(int parent, int value) {
+        checkNode(parent);
+        int node = addNode(value);
+        setLeft(parent, node);
+        return node;
+    }
+
+    public int addRight(int parent, int value) {
+        checkNode(parent);
+        int node = addNode(value);
+        setRight(parent, node);
+        return node;
+    }
+
+    public int getValue(int node) {
+        checkNode(node);
+        return values[node];
+    }
+
+    public void setValue(int node, int value) {
+        checkNode(node);
+        values[node] = value;
+    }
+
+    /**
+     * Values in left -> root -> right order, see SBinaryTree.traverseInorder()
+     */
+    public int[] traverseInorder() {
+        return traverse(Order.INORDER);
+    }
+
+    public int[] traversePreorder() {
+        return traverse(Order.PREORDER);
+    }
+
+    public int[] traversePostorder() {
+        return traverse(Order.POSTORDER);
+    }
+
+    public int[] traverseLevelOrder() {
+        return traverse(Order.LEVEL_ORDER);
+    }
+
+    private int[] traverse(Order order) {
+        int[] result = new int[size()];
+        int[] count = new int[1];
+        visit(getRoot(), order, node -> result[count[0]++] = values[node]);
+        return count[0] == result.length ? result : Arrays.copyOf(result, count[0]);
+    }
+
+    /**
+     * Returns the index of the first node in level-order whose value matches, or NONE
+     */
+    public int breadthFirstSearch(IntPredicate searchFun) {
+        Preconditions.checkNotNull(searchFun);
+        return breadthFirstSearchNode(node -> searchFun.test(values[node]));
+    }
+
+    /**
+     * Returns the index of the first node in pre-order whose value matches, or NONE
+     */
+    public int depthFirstSearch(IntPredicate searchFun) {
+        Preconditions.checkNotNull(searchFun);
+        return depthFirstSearchNode(node -> searchFun.test(values[node]));
+    }
+}
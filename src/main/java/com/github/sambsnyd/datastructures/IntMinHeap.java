@@ -0,0 +1,105 @@
+package com.github.sambsnyd.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of int values ordered by long priorities, kept in two parallel arrays
+ *
+ * For search algorithms that refer to nodes by index: nothing is boxed and nothing is allocated per element.
+ * There's no decrease-key, searches push a node again with its better priority and skip stale copies when polled.
+ */
+public class IntMinHeap {
+
+    private int[] values;
+    private long[] priorities;
+    private int size;
+
+    public IntMinHeap() {
+        this(16);
+    }
+
+    public IntMinHeap(int initialCapacity) {
+        values = new int[Math.max(initialCapacity, 1)];
+        priorities = new long[values.length];
+    }
+
+    public void add(int value, long priority) {
+        if(size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+        }
+        // Sift up: move parents down until the new element's spot is found
+        int index = size++;
+        while(index > 0) {
+            int parent = (index - 1) >>> 1;
+            if(priorities[parent] <= priority) {
+                break;
+            }
+            values[index] = values[parent];
+            priorities[index] = priorities[parent];
+            index = parent;
+        }
+        values[index] = value;
+        priorities[index] = priority;
+    }
+
+    /**
+     * Removes and returns the value with the smallest priority
+     */
+    public int poll() {
+        if(size == 0) {
+            throw new NoSuchElementException();
+        }
+        int result = values[0];
+        size--;
+        if(size > 0) {
+            int value = values[size];
+            long priority = priorities[size];
+            // Sift down: move smaller children up until the last element's spot is found
+            int index = 0;
+            int half = size >>> 1;
+            while(index < half) {
+                int child = 2 * index + 1;
+                if(child + 1 < size && priorities[child + 1] < priorities[child]) {
+                    child++;
+                }
+                if(priority <= priorities[child]) {
+                    break;
+                }
+                values[index] = values[child];
+                priorities[index] = priorities[child];
+                index = child;
+            }
+            values[index] = value;
+            priorities[index] = priority;
+        }
+        return result;
+    }
+
+    public int peek() {
+        if(size == 0) {
+            throw new NoSuchElementException();
+        }
+        return values[0];
+    }
+
+    public long peekPriority() {
+        if(size == 0) {
+            throw new NoSuchElementException();
+        }
+        return priorities[0];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
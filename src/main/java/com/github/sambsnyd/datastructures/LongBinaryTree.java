@@ -0,0 +1,125 @@
+package com.github.sambsnyd.datastructures;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * A binary tree of primitive long values stored in parallel arrays rather than as one object per node
+ *
+ * Nodes are referred to by their int index, with NONE standing in for a missing child.
+ * The first node added becomes the root.
+ *
+ *     var tree = new LongBinaryTree();
+ *     int root = tree.addNode(1);
+ *     int left = tree.addLeft(root, 2);
+ *     tree.addRight(root, 3);
+ *     tree.addLeft(left, 4);
+ *     tree.traverseInorder(); // [4,2,1,3]
+ */
+public class LongBinaryTree extends ArrayBinaryTree {
+
+    private long[] values;
+
+    public LongBinaryTree() {
+        this(16);
+    }
+
+    public LongBinaryTree(int initialCapacity) {
+        super(initialCapacity);
+        values = new long[initialCapacity];
+    }
+
+    @Override
+    void resizeValues(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    void reorderValues(int[] newOrder, int count) {
+        long[] reordered = new long[count];
+        for(int i = 0; i < count; i++) {
+            reordered[i] = values[newOrder[i]];
+        }
+        values = reordered;
+    }
+
+    /**
+     * Adds a node with no children and returns its index
+     */
+    public int addNode(long value) {
+        int node = allocateNode();
+        values[node] = value;
+        return node;
+    }
+
+    /**
+     * Adds a node and makes it the left child of parent, replacing any existing left child
+     */
+    public int addLeft(int parent, long value) {
+        checkNode(parent);
+        int node = addNode(value);
+        setLeft(parent, node);
+        return node;
+    }
+
+    public int addRight(int parent, long value) {
+        checkNode(parent);
+        int node = addNode(value);
+        setRight(parent, node);
+        return node;
+    }
+
+    public long getValue(int node) {
+        checkNode(node);
+        return values[node];
+    }
+
+    public void setValue(int node, long value) {
+        checkNode(node);
+        values[node] = value;
+    }
+
+    /**
+     * Values in left -> root -> right order, see SBinaryTree.traverseInorder()
+     */
+    public long[] traverseInorder() {
+        return traverse(Order.INORDER);
+    }
+
+    public long[] traversePreorder() {
+        return traverse(Order.PREORDER);
+    }
+
+    public long[] traversePostorder() {
+        return traverse(Order.POSTORDER);
+    }
+
+    public long[] traverseLevelOrder() {
+        return traverse(Order.LEVEL_ORDER);
+    }
+
+    private long[] traverse(Order order) {
+        long[] result = new long[size()];
+        int[] count = new int[1];
+        visit(getRoot(), order, node -> result[count[0]++] = values[node]);
+        return count[0] == result.length ? result : Arrays.copyOf(result, count[0]);
+    }
+
+    /**
+     * Returns the index of the first node in level-order whose value matches, or NONE
+     */
+    public int breadthFirstSearch(LongPredicate searchFun) {
+        Preconditions.checkNotNull(searchFun);
+        return breadthFirstSearchNode(node -> searchFun.test(values[node]));
+    }
+
+    /**
+     * Returns the index of the first node in pre-order whose value matches, or NONE
+     */
+    public int depthFirstSearch(LongPredicate searchFun) {
+        Preconditions.checkNotNull(searchFun);
+        return depthFirstSearchNode(node -> searchFun.test(values[node]));
+    }
+}
@@ -0,0 +1,414 @@
+package com.github.sambsnyd.datastructures;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * A read-only view of an SBinaryTree that was written to a file, read straight out of a memory mapping
+ *
+ * Opening a file maps it rather than reading it, so the only heap used is this object and whatever a traversal
+ * needs for its stack or queue. Values are decoded one at a time when they're asked for, and the operating system
+ * pages the file in and out as it's touched, so a warm restart maps the file instead of rebuilding the tree.
+ *
+ * File layout, all big-endian:
+ *   header:  magic (int), version (int), node count (int), offset of the value section (int)
+ *   nodes:   one 16 byte record per node, numbered in pre-order so the root is node 0:
+ *            left child (int), right child (int), value offset (int), value length (int)
+ *   values:  each node's value as written by the Codec
+ * A missing child is stored as NONE. A single mapping is limited to 2GB, so that's the limit on file size too.
+ */
+public class MappedBinaryTree<T> implements Iterable<T> {
+    public static final int NONE = -1;
+
+    private static final int MAGIC = 0x53425452; // "SBTR"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 16;
+
+    /**
+     * Converts values to and from bytes at absolute positions in a buffer, leaving the buffer's position alone
+     */
+    public interface Codec<T> {
+        int sizeOf(T value);
+        void write(ByteBuffer buffer, int offset, T value);
+        T read(ByteBuffer buffer, int offset, int length);
+
+        static Codec<Integer> ints() {
+            return new Codec<>() {
+                @Override
+                public int sizeOf(Integer value) {
+                    return Integer.BYTES;
+                }
+
+                @Override
+                public void write(ByteBuffer buffer, int offset, Integer value) {
+                    buffer.putInt(offset, value);
+                }
+
+                @Override
+                public Integer read(ByteBuffer buffer, int offset, int length) {
+                    return buffer.getInt(offset);
+                }
+            };
+        }
+
+        static Codec<Long> longs() {
+            return new Codec<>() {
+                @Override
+                public int sizeOf(Long value) {
+                    return Long.BYTES;
+                }
+
+                @Override
+                public void write(ByteBuffer buffer, int offset, Long value) {
+                    buffer.putLong(offset, value);
+                }
+
+                @Override
+                public Long read(ByteBuffer buffer, int offset, int length) {
+                    return buffer.getLong(offset);
+                }
+            };
+        }
+
+        static Codec<String> utf8() {
+            return new Codec<>() {
+                @Override
+                public int sizeOf(String value) {
+                    return value.getBytes(StandardCharsets.UTF_8).length;
+                }
+
+                @Override
+                public void write(ByteBuffer buffer, int offset, String value) {
+                    buffer.duplicate().position(offset).put(value.getBytes(StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public String read(ByteBuffer buffer, int offset, int length) {
+                    byte[] bytes = new byte[length];
+                    buffer.duplicate().position(offset).get(bytes);
+                    return new String(bytes, StandardCharsets.UTF_8);
+                }
+            };
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final Codec<T> codec;
+    private final int size;
+    private final int valuesStart;
+
+    private MappedBinaryTree(ByteBuffer buffer, Codec<T> codec) throws IOException {
+        if(buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an SBinaryTree file");
+        }
+        if(buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported SBinaryTree file version " + buffer.getInt(4));
+        }
+        this.buffer = buffer;
+        this.codec = codec;
+        this.size = buffer.getInt(8);
+        this.valuesStart = buffer.getInt(12);
+        if((long)HEADER_BYTES + (long)size * RECORD_BYTES > valuesStart || valuesStart > buffer.capacity()) {
+            throw new IOException("SBinaryTree file is truncated or corrupt");
+        }
+    }
+
+    /**
+     * Writes the tree to path, replacing anything already there
+     * Nodes are written in pre-order using an explicit stack, so this needs no more heap than a traversal does.
+     */
+    public static <T> void write(SBinaryTree<T> tree, Path path, Codec<T> codec) throws IOException {
+        Preconditions.checkNotNull(tree);
+        Preconditions.checkNotNull(path);
+        Preconditions.checkNotNull(codec);
+        // First pass to learn how big the file needs to be
+        long nodeCount = 0;
+        long valueBytes = 0;
+        for(var it = tree.preorderIterator(); it.hasNext(); ) {
+            nodeCount++;
+            valueBytes += codec.sizeOf(it.next());
+        }
+        long valuesStart = HEADER_BYTES + nodeCount * RECORD_BYTES;
+        long fileSize = valuesStart + valueBytes;
+        Preconditions.checkArgument(fileSize <= Integer.MAX_VALUE, "Tree is too large to map as a single file");
+
+        try(var channel = FileChannel.open(path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            out.putInt(0, MAGIC);
+            out.putInt(4, VERSION);
+            out.putInt(8, (int)nodeCount);
+            out.putInt(12, (int)valuesStart);
+
+            // Same walk as the pre-order iterator, but each pending node remembers which record points to it.
+            // A left child is always the very next record. A right child's number isn't known until its
+            // parent's left subtree is written, so its parent's record is patched when it's reached.
+            Deque<SBinaryTree<T>> stack = new ArrayDeque<>();
+            int[] patchPositions = new int[16];
+            stack.push(tree);
+            patchPositions[0] = -1;
+            int index = 0;
+            int valueOffset = 0;
+            while(!stack.isEmpty()) {
+                var node = stack.pop();
+                int patchPosition = patchPositions[stack.size()];
+                if(patchPosition >= 0) {
+                    out.putInt(patchPosition, index);
+                }
+                int record = HEADER_BYTES + index * RECORD_BYTES;
+                int valueLength = codec.sizeOf(node.getValue());
+                out.putInt(record, node.getLeft() != null ? index + 1 : NONE);
+                out.putInt(record + 4, NONE);
+                out.putInt(record + 8, valueOffset);
+                out.putInt(record + 12, valueLength);
+                codec.write(out, (int)valuesStart + valueOffset, node.getValue());
+                valueOffset += valueLength;
+
+                if(stack.size() + 2 > patchPositions.length) {
+                    patchPositions = Arrays.copyOf(patchPositions, patchPositions.length * 2);
+                }
+                if(node.getRight() != null) {
+                    patchPositions[stack.size()] = record + 4;
+                    stack.push(node.getRight());
+                }
+                if(node.getLeft() != null) {
+                    patchPositions[stack.size()] = -1;
+                    stack.push(node.getLeft());
+                }
+                index++;
+            }
+            out.force();
+        }
+    }
+
+    /**
+     * Maps a file written by write()
+     * The channel is closed straight away, the mapping stays valid until this view is garbage collected.
+     */
+    public static <T> MappedBinaryTree<T> open(Path path, Codec<T> codec) throws IOException {
+        Preconditions.checkNotNull(path);
+        Preconditions.checkNotNull(codec);
+        try(var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedBinaryTree<>(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), codec);
+        }
+    }
+
+    private void checkNode(int node) {
+        Preconditions.checkElementIndex(node, size, "node");
+    }
+
+    private int record(int node) {
+        return HEADER_BYTES + node * RECORD_BYTES;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getRoot() {
+        return size == 0 ? NONE : 0;
+    }
+
+    public int getLeft(int node) {
+        checkNode(node);
+        return buffer.getInt(record(node));
+    }
+
+    public int getRight(int node) {
+        checkNode(node);
+        return buffer.getInt(record(node) + 4);
+    }
+
+    public T getValue(int node) {
+        checkNode(node);
+        int record = record(node);
+        return codec.read(buffer, valuesStart + buffer.getInt(record + 8), buffer.getInt(record + 12));
+    }
+
+    public int getHeight() {
+        if(size == 0) {
+            return 0;
+        }
+        int[] level = new int[]{ 0 };
+        int levelSize = 1;
+        int[] next = new int[2];
+        int levels = 0;
+        while(levelSize > 0) {
+            levels++;
+            int nextSize = 0;
+            if(next.length < levelSize * 2) {
+                next = new int[levelSize * 2];
+            }
+            for(int i = 0; i < levelSize; i++) {
+                int record = record(level[i]);
+                int left = buffer.getInt(record);
+                int right = buffer.getInt(record + 4);
+                if(left != NONE) {
+                    next[nextSize++] = left;
+                }
+                if(right != NONE) {
+                    next[nextSize++] = right;
+                }
+            }
+            int[] swap = level;
+            level = next;
+            next = swap;
+            levelSize = nextSize;
+        }
+        return levels;
+    }
+
+    /**
+     * Records are stored in pre-order, so this is a front-to-back scan of the file
+     */
+    public List<T> traversePreorder() {
+        List<T> result = new ArrayList<>(size);
+        for(int node = 0; node < size; node++) {
+            result.add(getValue(node));
+        }
+        return result;
+    }
+
+    public List<T> traverseInorder() {
+        List<T> result = new ArrayList<>(size);
+        forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Iterates in-order, keeping only a stack of node numbers on the heap
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int[] stack = new int[16];
+            private int top = 0;
+            {
+                pushLeftSpine(getRoot());
+            }
+
+            private void pushLeftSpine(int node) {
+                while(node != NONE) {
+                    if(top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = node;
+                    node = buffer.getInt(record(node));
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return top > 0;
+            }
+
+            @Override
+            public T next() {
+                if(top == 0) {
+                    throw new NoSuchElementException();
+                }
+                int node = stack[--top];
+                pushLeftSpine(buffer.getInt(record(node) + 4));
+                return getValue(node);
+            }
+        };
+    }
+
+    /**
+     * Returns the first matching value in pre-order, or null if nothing matches
+     * Pre-order is the order records are stored in, so this reads the file sequentially
+     */
+    public T depthFirstSearch(Predicate<T> searchFun) {
+        Preconditions.checkNotNull(searchFun);
+        for(int node = 0; node < size; node++) {
+            T value = getValue(node);
+            if(searchFun.test(value)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the first matching value in level-order, or null if nothing matches
+     */
+    public T breadthFirstSearch(Predicate<T> searchFun) {
+        Preconditions.checkNotNull(searchFun);
+        if(size == 0) {
+            return null;
+        }
+        int[] queue = new int[16];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = 0;
+        while(head < tail) {
+            int node = queue[head++];
+            T value = getValue(node);
+            if(searchFun.test(value)) {
+                return value;
+            }
+            if(tail + 2 > queue.length) {
+                // Slide the unprocessed part of the queue to the front before deciding whether to grow
+                int pending = tail - head;
+                int[] target = pending + 2 > queue.length / 2 ? new int[queue.length * 2] : queue;
+                System.arraycopy(queue, head, target, 0, pending);
+                queue = target;
+                head = 0;
+                tail = pending;
+            }
+            int record = record(node);
+            int left = buffer.getInt(record);
+            int right = buffer.getInt(record + 4);
+            if(left != NONE) {
+                queue[tail++] = left;
+            }
+            if(right != NONE) {
+                queue[tail++] = right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the whole file back into an ordinary SBinaryTree on the heap
+     */
+    public SBinaryTree<T> toTree() {
+        if(size == 0) {
+            return null;
+        }
+        List<SBinaryTree<T>> built = new ArrayList<>(size);
+        for(int node = 0; node < size; node++) {
+            built.add(new SBinaryTree<>(getValue(node)));
+        }
+        for(int node = 0; node < size; node++) {
+            int left = getLeft(node);
+            int right = getRight(node);
+            if(left != NONE) {
+                built.get(node).setLeft(built.get(left));
+            }
+            if(right != NONE) {
+                built.get(node).setRight(built.get(right));
+            }
+        }
+        return built.get(0);
+    }
+}
@@ -0,0 +1,221 @@
+package com.github.sambsnyd.datastructures;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A passable/impassable grid kept in a file and read through memory mappings, for grids too big for the heap
+ *
+ * The grid is cut into square tiles of tileSize x tileSize cells, one bit per cell, and each tile is stored
+ * contiguously so that working on a tile only pages in that tile. Every band of tiles across the grid is its own
+ * mapping, which keeps each mapping under the 2GB limit however many rows the grid has. Cells past the edge of the
+ * grid in the last row and column of tiles are stored as impassable.
+ *
+ * File layout, all big-endian:
+ *   header:  magic (int), version (int), rows (int), columns (int), tile size (int), 12 reserved bytes
+ *   tiles:   tile rows x tile columns tiles in row-major order, each tileSize rows of tileSize / 64 longs,
+ *            where column c of a tile row is bit (c % 64) of long c / 64
+ *
+ * Reading is safe from any number of threads. Writing isn't synchronized, and is only possible on grids that came
+ * from create or write.
+ */
+public class MappedTileGrid {
+
+    private static final int MAGIC = 0x53424744; // "SBGD"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private final int rows;
+    private final int columns;
+    private final int tileSize;
+    private final int tileRows;
+    private final int tileColumns;
+    private final int wordsPerTileRow;
+    private final int tileBytes;
+    private final MappedByteBuffer[] bands;
+
+    private MappedTileGrid(FileChannel channel, FileChannel.MapMode mode) throws IOException {
+        if(channel.size() < HEADER_BYTES) {
+            throw new IOException("Not a tiled grid file");
+        }
+        var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if(header.getInt(0) != MAGIC) {
+            throw new IOException("Not a tiled grid file");
+        }
+        if(header.getInt(4) != VERSION) {
+            throw new IOException("Unsupported tiled grid file version " + header.getInt(4));
+        }
+        rows = header.getInt(8);
+        columns = header.getInt(12);
+        tileSize = header.getInt(16);
+        if(rows <= 0 || columns <= 0 || tileSize <= 0 || tileSize % 64 != 0) {
+            throw new IOException("Tiled grid file is corrupt");
+        }
+        tileRows = (rows + tileSize - 1) / tileSize;
+        tileColumns = (columns + tileSize - 1) / tileSize;
+        wordsPerTileRow = tileSize / 64;
+        tileBytes = tileSize * wordsPerTileRow * Long.BYTES;
+        long bandBytes = (long)tileColumns * tileBytes;
+        if(HEADER_BYTES + tileRows * bandBytes > channel.size()) {
+            throw new IOException("Tiled grid file is truncated");
+        }
+        bands = new MappedByteBuffer[tileRows];
+        for(int band = 0; band < tileRows; band++) {
+            bands[band] = channel.map(mode, HEADER_BYTES + band * bandBytes, bandBytes);
+        }
+    }
+
+    /**
+     * Creates a file for a grid where every cell is impassable, replacing anything already at path
+     * The file is extended rather than written, so on most file systems it takes no space until cells are set.
+     */
+    public static MappedTileGrid create(Path path, int rows, int columns, int tileSize) throws IOException {
+        Preconditions.checkNotNull(path);
+        Preconditions.checkArgument(rows > 0 && columns > 0, "Grid must be non-empty");
+        Preconditions.checkArgument(tileSize > 0 && tileSize % 64 == 0, "Tile size must be a positive multiple of 64");
+        long tileBytes = (long)tileSize * tileSize / 8;
+        long tileColumns = (columns + (long)tileSize - 1) / tileSize;
+        long tileRows = (rows + (long)tileSize - 1) / tileSize;
+        Preconditions.checkArgument(tileColumns * tileBytes <= Integer.MAX_VALUE,
+                "A band of tiles across the grid must fit in one 2GB mapping, use a smaller tile size");
+
+        try(var channel = FileChannel.open(path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            var header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, rows);
+            header.putInt(12, columns);
+            header.putInt(16, tileSize);
+            channel.write(header, 0);
+            long fileSize = HEADER_BYTES + tileRows * tileColumns * tileBytes;
+            channel.write(ByteBuffer.allocate(1), fileSize - 1);
+            return new MappedTileGrid(channel, FileChannel.MapMode.READ_WRITE);
+        }
+    }
+
+    /**
+     * Writes a BitGrid out as a tiled grid file, replacing anything already at path
+     */
+    public static MappedTileGrid write(BitGrid grid, Path path, int tileSize) throws IOException {
+        Preconditions.checkNotNull(grid);
+        var tiled = create(path, grid.rows(), grid.columns(), tileSize);
+        for(int cell = 0; cell < grid.cellCount(); cell++) {
+            if(grid.isPassable(cell)) {
+                tiled.setPassable(grid.row(cell), grid.column(cell), true);
+            }
+        }
+        tiled.force();
+        return tiled;
+    }
+
+    /**
+     * Maps a file written by create or write, read-only
+     * The channel is closed straight away, the mappings stay valid until this grid is garbage collected.
+     */
+    public static MappedTileGrid open(Path path) throws IOException {
+        Preconditions.checkNotNull(path);
+        try(var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedTileGrid(channel, FileChannel.MapMode.READ_ONLY);
+        }
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    public long cellCount() {
+        return (long)rows * columns;
+    }
+
+    public int tileSize() {
+        return tileSize;
+    }
+
+    /**
+     * The number of rows of tiles
+     */
+    public int tileRows() {
+        return tileRows;
+    }
+
+    /**
+     * The number of columns of tiles
+     */
+    public int tileColumns() {
+        return tileColumns;
+    }
+
+    /**
+     * The number of longs readTileRow needs to hold one row of a tile
+     */
+    public int wordsPerTileRow() {
+        return wordsPerTileRow;
+    }
+
+    public boolean isPassable(int row, int column) {
+        Preconditions.checkElementIndex(row, rows, "row");
+        Preconditions.checkElementIndex(column, columns, "column");
+        int offset = wordOffset(row, column);
+        return (bands[row / tileSize].getLong(offset) & (1L << column)) != 0;
+    }
+
+    public void setPassable(int row, int column, boolean passable) {
+        Preconditions.checkElementIndex(row, rows, "row");
+        Preconditions.checkElementIndex(column, columns, "column");
+        var band = bands[row / tileSize];
+        int offset = wordOffset(row, column);
+        long word = band.getLong(offset);
+        band.putLong(offset, passable ? word | (1L << column) : word & ~(1L << column));
+    }
+
+    /**
+     * Copies one row of one tile into words so that the tile's column c is bit (c % 64) of words[c / 64]
+     * Columns past the edge of the grid read as impassable.
+     */
+    public void readTileRow(int tileRow, int tileColumn, int rowInTile, long[] words) {
+        Preconditions.checkElementIndex(tileRow, tileRows, "tileRow");
+        Preconditions.checkElementIndex(tileColumn, tileColumns, "tileColumn");
+        Preconditions.checkElementIndex(rowInTile, tileSize, "rowInTile");
+        Preconditions.checkArgument(words.length >= wordsPerTileRow, "Need %s words to hold a tile row", wordsPerTileRow);
+        var band = bands[tileRow];
+        int offset = tileColumn * tileBytes + rowInTile * wordsPerTileRow * Long.BYTES;
+        for(int i = 0; i < wordsPerTileRow; i++) {
+            words[i] = band.getLong(offset + i * Long.BYTES);
+        }
+    }
+
+    /**
+     * Writes any changes made through setPassable out to the file
+     */
+    public void force() {
+        for(var band : bands) {
+            if(!band.isReadOnly()) {
+                band.force();
+            }
+        }
+    }
+
+    /**
+     * The offset within a band of the long holding a cell
+     */
+    private int wordOffset(int row, int column) {
+        int tileColumn = column / tileSize;
+        int rowInTile = row % tileSize;
+        int columnInTile = column % tileSize;
+        return tileColumn * tileBytes + (rowInTile * wordsPerTileRow + (columnInTile >>> 6)) * Long.BYTES;
+    }
+}
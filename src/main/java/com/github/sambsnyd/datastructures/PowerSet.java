@@ -0,0 +1,252 @@
+package com.github.sambsnyd.datastructures;
+
+import com.google.common.base.Preconditions;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A read-only view of every subset of a set of up to 62 elements, created on demand rather than stored
+ *
+ * The input's elements are numbered when the view is created, and subset number i holds the elements whose bits are
+ * set in i, so subsets can be fetched by index in any order. Each subset is an immutable Set backed by its bitmask,
+ * with an O(1) size and a contains that's a map lookup and a bit test, and nothing but the view and the subsets in use
+ * is ever in memory. Streams split the range of indexes in half, so parallelStream spreads the subsets evenly across
+ * threads.
+ *
+ * Like any Collection, size() is capped at Integer.MAX_VALUE. longSize() has the real count for sets of more
+ * than 30 elements.
+ */
+public class PowerSet<T> extends AbstractSet<Set<T>> {
+
+    public static final int MAX_ELEMENTS = 62;
+
+    private final List<T> elements;
+    private final Map<Object, Integer> indexes;
+
+    /**
+     * Takes a copy of the input, later changes to it aren't seen
+     */
+    public PowerSet(Collection<? extends T> input) {
+        Preconditions.checkNotNull(input);
+        var distinct = new ArrayList<T>(input.size());
+        indexes = new HashMap<>();
+        for(T element : input) {
+            if(!indexes.containsKey(element)) {
+                indexes.put(element, distinct.size());
+                distinct.add(element);
+            }
+        }
+        Preconditions.checkArgument(distinct.size() <= MAX_ELEMENTS,
+                "A power set can have at most %s elements, not %s", MAX_ELEMENTS, distinct.size());
+        elements = Collections.unmodifiableList(distinct);
+    }
+
+    /**
+     * The elements subsets are made of, in the order that numbers them
+     */
+    public List<T> elements() {
+        return elements;
+    }
+
+    public long longSize() {
+        return 1L << elements.size();
+    }
+
+    @Override
+    public int size() {
+        return (int)Math.min(longSize(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    /**
+     * The subset holding the elements whose numbers are set bits of index
+     */
+    public Set<T> get(long index) {
+        if(index < 0 || index >= longSize()) {
+            throw new IndexOutOfBoundsException("index " + index + " is outside a power set of size " + longSize());
+        }
+        return new Subset(index);
+    }
+
+    /**
+     * The index of a set in this power set, or -1 if it has elements that aren't in the input
+     */
+    public long indexOf(Object o) {
+        if(!(o instanceof Set)) {
+            return -1;
+        }
+        if(o instanceof PowerSet<?>.Subset && ((PowerSet<?>.Subset)o).owner() == this) {
+            return ((PowerSet<?>.Subset)o).mask;
+        }
+        long mask = 0;
+        for(Object element : (Set<?>)o) {
+            Integer index = indexes.get(element);
+            if(index == null) {
+                return -1;
+            }
+            mask |= 1L << index;
+        }
+        return mask;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public Iterator<Set<T>> iterator() {
+        return new Iterator<>() {
+            private long next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < longSize();
+            }
+
+            @Override
+            public Set<T> next() {
+                if(!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return new Subset(next++);
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<Set<T>> spliterator() {
+        return new IndexSpliterator(0, longSize());
+    }
+
+    /**
+     * Covers the subsets with indexes in [from, to), splitting off the first half of what's left
+     */
+    private class IndexSpliterator implements Spliterator<Set<T>> {
+        private long from;
+        private final long to;
+
+        IndexSpliterator(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Set<T>> action) {
+            if(from >= to) {
+                return false;
+            }
+            action.accept(new Subset(from++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Set<T>> action) {
+            for(; from < to; from++) {
+                action.accept(new Subset(from));
+            }
+        }
+
+        @Override
+        public Spliterator<Set<T>> trySplit() {
+            long middle = (from + to) >>> 1;
+            if(middle <= from) {
+                return null;
+            }
+            var prefix = new IndexSpliterator(from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return SIZED | SUBSIZED | ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * One subset, the elements whose numbers are set bits of mask
+     */
+    private class Subset extends AbstractSet<T> {
+        private final long mask;
+
+        Subset(long mask) {
+            this.mask = mask;
+        }
+
+        PowerSet<T> owner() {
+            return PowerSet.this;
+        }
+
+        @Override
+        public int size() {
+            return Long.bitCount(mask);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return mask == 0;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            Integer index = indexes.get(o);
+            return index != null && (mask & (1L << index)) != 0;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                private long remaining = mask;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining != 0;
+                }
+
+                @Override
+                public T next() {
+                    if(remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    int index = Long.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1;
+                    return elements.get(index);
+                }
+            };
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(o instanceof PowerSet<?>.Subset && ((PowerSet<?>.Subset)o).owner() == PowerSet.this) {
+                return ((PowerSet<?>.Subset)o).mask == mask;
+            }
+            return super.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return super.hashCode();
+        }
+    }
+}
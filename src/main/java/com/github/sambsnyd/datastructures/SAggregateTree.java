@@ -0,0 +1,196 @@
+package com.github.sambsnyd.datastructures;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * An SAvlTree where every node also keeps an aggregate, such as a sum, min or max, of all values in its subtree
+ *
+ * The aggregate is defined by a monoid: an identity and an associative combine function.
+ * Aggregates are recomputed alongside heights and sizes whenever the tree is rebalanced, so the aggregate of any
+ * range of values can be answered in O(log n) by combining the aggregates of O(log n) subtrees.
+ */
+public class SAggregateTree<T, A> extends SAvlTree<T> {
+
+    /**
+     * A monoid over values of type T summarized as type A
+     * combine must be associative and identity must be an identity for combine, but combine need not be commutative
+     * since subtree aggregates are always combined in ascending order
+     */
+    public interface Aggregation<T, A> {
+        A identity();
+        A lift(T value);
+        A combine(A left, A right);
+
+        static <T, A> Aggregation<T, A> of(A identity, Function<? super T, A> lift, BinaryOperator<A> combine) {
+            Preconditions.checkNotNull(lift);
+            Preconditions.checkNotNull(combine);
+            return new Aggregation<>() {
+                @Override
+                public A identity() {
+                    return identity;
+                }
+
+                @Override
+                public A lift(T value) {
+                    return lift.apply(value);
+                }
+
+                @Override
+                public A combine(A left, A right) {
+                    return combine.apply(left, right);
+                }
+            };
+        }
+
+        static <T> Aggregation<T, Long> summingLong(ToLongFunction<? super T> mapper) {
+            Preconditions.checkNotNull(mapper);
+            return of(0L, mapper::applyAsLong, Long::sum);
+        }
+
+        /**
+         * The smallest value, with null standing in for the aggregate of no values
+         */
+        static <T> Aggregation<T, T> min(Comparator<? super T> comparator) {
+            Preconditions.checkNotNull(comparator);
+            return of(null, Function.identity(), (left, right) -> {
+                if(left == null) {
+                    return right;
+                }
+                if(right == null) {
+                    return left;
+                }
+                return comparator.compare(left, right) <= 0 ? left : right;
+            });
+        }
+
+        static <T> Aggregation<T, T> max(Comparator<? super T> comparator) {
+            return min(comparator.reversed());
+        }
+    }
+
+    private final Aggregation<? super T, A> aggregation;
+
+    public SAggregateTree(Comparator<? super T> comparator, Aggregation<? super T, A> aggregation) {
+        super(comparator);
+        Preconditions.checkNotNull(aggregation);
+        this.aggregation = aggregation;
+    }
+
+    @Override
+    SBinaryTree<T> newNode(T value) {
+        return new AggregateNode<>(value, aggregation).enableMetadataCache();
+    }
+
+    /**
+     * The aggregate of every value in the tree, O(1)
+     */
+    public A aggregate() {
+        return aggregateOf(root);
+    }
+
+    /**
+     * The aggregate of every value v with from <= v <= to, O(log n)
+     */
+    public A rangeAggregate(T fromInclusive, T toInclusive) {
+        Preconditions.checkNotNull(fromInclusive);
+        Preconditions.checkNotNull(toInclusive);
+        Preconditions.checkArgument(comparator.compare(fromInclusive, toInclusive) <= 0,
+                "Range start must not be greater than range end");
+        // Walk down to the node where the paths to the two bounds split, then each bound is a one-sided query
+        var node = root;
+        while(node != null) {
+            if(comparator.compare(node.getValue(), fromInclusive) < 0) {
+                node = node.getRight();
+            } else if(comparator.compare(node.getValue(), toInclusive) > 0) {
+                node = node.getLeft();
+            } else {
+                A middle = aggregation.lift(node.getValue());
+                return aggregation.combine(
+                        aggregation.combine(atLeast(node.getLeft(), fromInclusive), middle),
+                        atMost(node.getRight(), toInclusive));
+            }
+        }
+        return aggregation.identity();
+    }
+
+    /**
+     * The aggregate of values >= bound in the subtree, following a single root-to-leaf path
+     */
+    private A atLeast(SBinaryTree<T> node, T bound) {
+        // Pieces are found from largest values to smallest, so each one is combined onto the front
+        A result = aggregation.identity();
+        while(node != null) {
+            if(comparator.compare(node.getValue(), bound) < 0) {
+                node = node.getRight();
+            } else {
+                A nodeAndRight = aggregation.combine(aggregation.lift(node.getValue()), aggregateOf(node.getRight()));
+                result = aggregation.combine(nodeAndRight, result);
+                node = node.getLeft();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The aggregate of values <= bound in the subtree, following a single root-to-leaf path
+     */
+    private A atMost(SBinaryTree<T> node, T bound) {
+        // Pieces are found from smallest values to largest, so each one is combined onto the back
+        A result = aggregation.identity();
+        while(node != null) {
+            if(comparator.compare(node.getValue(), bound) > 0) {
+                node = node.getLeft();
+            } else {
+                A leftAndNode = aggregation.combine(aggregateOf(node.getLeft()), aggregation.lift(node.getValue()));
+                result = aggregation.combine(result, leftAndNode);
+                node = node.getRight();
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private A aggregateOf(SBinaryTree<T> node) {
+        return node == null ? aggregation.identity() : ((AggregateNode<T, A>)node).aggregate;
+    }
+
+    private static class AggregateNode<T, A> extends SBinaryTree<T> {
+        private final Aggregation<? super T, A> aggregation;
+        private A aggregate;
+
+        AggregateNode(T value, Aggregation<? super T, A> aggregation) {
+            super(value);
+            this.aggregation = aggregation;
+        }
+
+        @Override
+        boolean recomputeMetadata() {
+            boolean changed = super.recomputeMetadata();
+            A newAggregate = aggregation.combine(
+                    aggregation.combine(aggregateOf(getLeft()), aggregation.lift(getValue())),
+                    aggregateOf(getRight()));
+            changed |= !Objects.equals(newAggregate, aggregate);
+            aggregate = newAggregate;
+            return changed;
+        }
+
+        @Override
+        public void setValue(T value) {
+            super.setValue(value);
+            if(isMetadataCached()) {
+                propagateMetadata();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private A aggregateOf(SBinaryTree<T> node) {
+            return node == null ? aggregation.identity() : ((AggregateNode<T, A>)node).aggregate;
+        }
+    }
+}
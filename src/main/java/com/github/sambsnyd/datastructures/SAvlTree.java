@@ -0,0 +1,378 @@
+package com.github.sambsnyd.datastructures;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An ordered set of values kept in an AVL tree of SBinaryTree nodes
+ *
+ * Every insert and remove rebalances with rotations so that at every node the heights of the left and right subtrees
+ * differ by at most one. That keeps the height under 1.44 * log2(n), so lookups, inserts, removes, floor and ceiling
+ * are all O(log n) no matter what order values arrive in.
+ *
+ * The nodes keep SBinaryTree's metadata cache enabled, which is where the heights used for balancing come from.
+ */
+public class SAvlTree<T> implements Iterable<T> {
+
+    final Comparator<? super T> comparator;
+    SBinaryTree<T> root;
+    private long rotationCount;
+    // Set by the recursive insert/remove helpers when they actually change the tree
+    private boolean modified;
+
+    public SAvlTree(Comparator<? super T> comparator) {
+        Preconditions.checkNotNull(comparator);
+        this.comparator = comparator;
+    }
+
+    /**
+     * Adds the value, returning false if an equal value was already present
+     */
+    public boolean insert(T value) {
+        Preconditions.checkNotNull(value);
+        modified = false;
+        root = insert(root, value);
+        root.detachFromParent();
+        return modified;
+    }
+    private SBinaryTree<T> insert(SBinaryTree<T> node, T value) {
+        if(node == null) {
+            modified = true;
+            return newNode(value);
+        }
+        int comparison = comparator.compare(value, node.getValue());
+        if(comparison < 0) {
+            node.relink(insert(node.getLeft(), value), node.getRight());
+        } else if(comparison > 0) {
+            node.relink(node.getLeft(), insert(node.getRight(), value));
+        } else {
+            return node;
+        }
+        return rebalance(node);
+    }
+
+    /**
+     * Subclasses that augment each node with extra data supply their own node type here
+     */
+    SBinaryTree<T> newNode(T value) {
+        return new SBinaryTree<>(value).enableMetadataCache();
+    }
+
+    /**
+     * Removes the value, returning false if no equal value was present
+     */
+    public boolean remove(T value) {
+        Preconditions.checkNotNull(value);
+        modified = false;
+        root = remove(root, value);
+        if(root != null) {
+            root.detachFromParent();
+        }
+        return modified;
+    }
+    private SBinaryTree<T> remove(SBinaryTree<T> node, T value) {
+        if(node == null) {
+            return null;
+        }
+        int comparison = comparator.compare(value, node.getValue());
+        if(comparison < 0) {
+            node.relink(remove(node.getLeft(), value), node.getRight());
+        } else if(comparison > 0) {
+            node.relink(node.getLeft(), remove(node.getRight(), value));
+        } else {
+            modified = true;
+            if(node.getLeft() == null) {
+                return node.getRight();
+            }
+            if(node.getRight() == null) {
+                return node.getLeft();
+            }
+            // Two children: take over the value of the in-order successor, then remove the successor instead
+            var successor = node.getRight();
+            while(successor.getLeft() != null) {
+                successor = successor.getLeft();
+            }
+            node.setValue(successor.getValue());
+            node.relink(node.getLeft(), removeSmallest(node.getRight()));
+        }
+        return rebalance(node);
+    }
+    private SBinaryTree<T> removeSmallest(SBinaryTree<T> node) {
+        if(node.getLeft() == null) {
+            return node.getRight();
+        }
+        node.relink(removeSmallest(node.getLeft()), node.getRight());
+        return rebalance(node);
+    }
+
+    /**
+     * Restores the AVL property at a node whose children are balanced but may differ in height by two
+     * Returns the node that now roots this subtree
+     */
+    private SBinaryTree<T> rebalance(SBinaryTree<T> node) {
+        int balance = height(node.getLeft()) - height(node.getRight());
+        if(balance > 1) {
+            var left = node.getLeft();
+            if(height(left.getLeft()) < height(left.getRight())) {
+                // Left-right case, first turn it into the left-left case
+                node.relink(rotateLeft(left), node.getRight());
+            }
+            return rotateRight(node);
+        }
+        if(balance < -1) {
+            var right = node.getRight();
+            if(height(right.getRight()) < height(right.getLeft())) {
+                // Right-left case, first turn it into the right-right case
+                node.relink(node.getLeft(), rotateRight(right));
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     *       (y)          (x)
+     *       / \          / \
+     *     (x) (c)  ->  (a) (y)
+     *     / \              / \
+     *   (a) (b)          (b) (c)
+     */
+    private SBinaryTree<T> rotateRight(SBinaryTree<T> y) {
+        var x = y.getLeft();
+        y.relink(x.getRight(), y.getRight());
+        x.relink(x.getLeft(), y);
+        rotationCount++;
+        return x;
+    }
+
+    /**
+     *     (x)              (y)
+     *     / \              / \
+     *   (a) (y)    ->    (x) (c)
+     *       / \          / \
+     *     (b) (c)      (a) (b)
+     */
+    private SBinaryTree<T> rotateLeft(SBinaryTree<T> x) {
+        var y = x.getRight();
+        x.relink(x.getLeft(), y.getLeft());
+        y.relink(x, y.getRight());
+        rotationCount++;
+        return y;
+    }
+
+    private static int height(SBinaryTree<?> node) {
+        return node == null ? 0 : node.getHeight();
+    }
+
+    public boolean contains(T value) {
+        Preconditions.checkNotNull(value);
+        var node = root;
+        while(node != null) {
+            int comparison = comparator.compare(value, node.getValue());
+            if(comparison == 0) {
+                return true;
+            }
+            node = comparison < 0 ? node.getLeft() : node.getRight();
+        }
+        return false;
+    }
+
+    /**
+     * The greatest value less than or equal to the given value, or null if there is none
+     */
+    public T floor(T value) {
+        Preconditions.checkNotNull(value);
+        T candidate = null;
+        var node = root;
+        while(node != null) {
+            int comparison = comparator.compare(value, node.getValue());
+            if(comparison == 0) {
+                return node.getValue();
+            }
+            if(comparison < 0) {
+                node = node.getLeft();
+            } else {
+                candidate = node.getValue();
+                node = node.getRight();
+            }
+        }
+        return candidate;
+    }
+
+    /**
+     * The least value greater than or equal to the given value, or null if there is none
+     */
+    public T ceiling(T value) {
+        Preconditions.checkNotNull(value);
+        T candidate = null;
+        var node = root;
+        while(node != null) {
+            int comparison = comparator.compare(value, node.getValue());
+            if(comparison == 0) {
+                return node.getValue();
+            }
+            if(comparison > 0) {
+                node = node.getRight();
+            } else {
+                candidate = node.getValue();
+                node = node.getLeft();
+            }
+        }
+        return candidate;
+    }
+
+    /**
+     * Every value v with from <= v <= to, in ascending order
+     * Subtrees entirely outside the range are never visited, so this is O(log n + number of values returned)
+     */
+    public List<T> range(T fromInclusive, T toInclusive) {
+        Preconditions.checkNotNull(fromInclusive);
+        Preconditions.checkNotNull(toInclusive);
+        Preconditions.checkArgument(comparator.compare(fromInclusive, toInclusive) <= 0,
+                "Range start must not be greater than range end");
+        List<T> result = new ArrayList<>();
+        Deque<SBinaryTree<T>> stack = new ArrayDeque<>();
+        var node = root;
+        while(node != null || !stack.isEmpty()) {
+            while(node != null) {
+                if(comparator.compare(node.getValue(), fromInclusive) < 0) {
+                    // This node and everything to its left are below the range
+                    node = node.getRight();
+                } else {
+                    stack.push(node);
+                    node = node.getLeft();
+                }
+            }
+            node = stack.pop();
+            if(comparator.compare(node.getValue(), toInclusive) > 0) {
+                break;
+            }
+            result.add(node.getValue());
+            node = node.getRight();
+        }
+        return result;
+    }
+
+    /**
+     * The number of values strictly less than the given value, which is its index if present
+     * O(log n) since every node knows the size of its subtree
+     */
+    public int rank(T value) {
+        Preconditions.checkNotNull(value);
+        return countBelow(value, false);
+    }
+
+    /**
+     * The value at the given index in ascending order, so select(0) is the smallest value
+     */
+    public T select(int index) {
+        Preconditions.checkElementIndex(index, size());
+        var node = root;
+        while(true) {
+            int leftSize = size(node.getLeft());
+            if(index < leftSize) {
+                node = node.getLeft();
+            } else if(index == leftSize) {
+                return node.getValue();
+            } else {
+                index -= leftSize + 1;
+                node = node.getRight();
+            }
+        }
+    }
+
+    /**
+     * The number of values v with from <= v <= to, in O(log n) without visiting them
+     */
+    public int countInRange(T fromInclusive, T toInclusive) {
+        Preconditions.checkNotNull(fromInclusive);
+        Preconditions.checkNotNull(toInclusive);
+        Preconditions.checkArgument(comparator.compare(fromInclusive, toInclusive) <= 0,
+                "Range start must not be greater than range end");
+        return countBelow(toInclusive, true) - countBelow(fromInclusive, false);
+    }
+
+    private int countBelow(T value, boolean inclusive) {
+        int count = 0;
+        var node = root;
+        while(node != null) {
+            int comparison = comparator.compare(node.getValue(), value);
+            if(comparison < 0 || (inclusive && comparison == 0)) {
+                count += size(node.getLeft()) + 1;
+                node = node.getRight();
+            } else {
+                node = node.getLeft();
+            }
+        }
+        return count;
+    }
+
+    private static int size(SBinaryTree<?> node) {
+        return node == null ? 0 : node.size();
+    }
+
+    public T first() {
+        if(root == null) {
+            return null;
+        }
+        var node = root;
+        while(node.getLeft() != null) {
+            node = node.getLeft();
+        }
+        return node.getValue();
+    }
+
+    public T last() {
+        if(root == null) {
+            return null;
+        }
+        var node = root;
+        while(node.getRight() != null) {
+            node = node.getRight();
+        }
+        return node.getValue();
+    }
+
+    public int size() {
+        return root == null ? 0 : root.size();
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public int getHeight() {
+        return height(root);
+    }
+
+    /**
+     * The total number of single rotations performed since this tree was created
+     * A double rotation counts as two
+     */
+    public long getRotationCount() {
+        return rotationCount;
+    }
+
+    /**
+     * The underlying tree, or null if empty, so that SBinaryTree's traversals and streams can be used on it
+     * Mutating it through its setters will break the ordering and balance this class maintains
+     */
+    public SBinaryTree<T> getRoot() {
+        return root;
+    }
+
+    /**
+     * Iterates in ascending order
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return root == null ? Collections.emptyIterator() : root.inorderIterator();
+    }
+}
@@ -2,19 +2,42 @@ package com.github.sambsnyd.datastructures;
 
 import com.google.common.base.Preconditions;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Objects;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class SBinaryTree<T> {
+public class SBinaryTree<T> implements Iterable<T> {
 
     private T value;
     private SBinaryTree<T> left;
     private SBinaryTree<T> right;
 
+    // Only maintained once enableMetadataCache() has been called on this node or an ancestor
+    private boolean metadataCached;
+    private SBinaryTree<T> parent;
+    private int height;
+    private int size;
+    private boolean balanced;
+
     public SBinaryTree(T value) {
         this(null, value, null);
     }
@@ -26,78 +49,311 @@ public class SBinaryTree<T> {
         this.right = right;
     }
 
+    /**
+     * O(1) if the metadata cache is enabled, otherwise a single level-by-level pass over the tree
+     */
     public int getHeight() {
-        int leftHeight = 0;
-        if(left != null) {
-            leftHeight = left.getHeight();
+        if(metadataCached) {
+            return height;
         }
-        int rightHeight = 0;
-        if(right != null) {
-            rightHeight = right.getHeight();
+        int levels = 0;
+        Deque<SBinaryTree<T>> level = new ArrayDeque<>();
+        level.add(this);
+        while(!level.isEmpty()) {
+            levels++;
+            for(int remaining = level.size(); remaining > 0; remaining--) {
+                var node = level.poll();
+                if(node.left != null) {
+                    level.add(node.left);
+                }
+                if(node.right != null) {
+                    level.add(node.right);
+                }
+            }
         }
-        return 1 + Math.max(leftHeight, rightHeight);
+        return levels;
     }
 
+    /**
+     * The number of nodes in this tree, including this one
+     * O(1) if the metadata cache is enabled, otherwise a single pass over the tree
+     */
+    public int size() {
+        if(metadataCached) {
+            return size;
+        }
+        int size = 0;
+        for(var it = preorderIterator(); it.hasNext(); it.next()) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * A tree is balanced if at every node the heights of the left and right subtrees differ by at most one
+     * O(1) if the metadata cache is enabled, otherwise a single post-order pass that stops at the first imbalance
+     */
     public boolean isBalanced() {
-        int leftHeight = 0;
-        boolean leftBalanced = true;
-        if(left != null) {
-            leftHeight = left.getHeight();
-            leftBalanced = left.isBalanced();
+        if(metadataCached) {
+            return balanced;
         }
-        int rightHeight = 0;
-        boolean rightBalanced = true;
-        if(right != null) {
-            rightHeight = right.getHeight();
-            rightBalanced = right.isBalanced();
+        // Post-order visits every child before its parent, so when a node comes up the heights of its subtrees
+        // are on top of this stack: right first if it has a right child, then left if it has a left child
+        int[] heights = new int[16];
+        int depth = 0;
+        for(var it = new PostorderIterator<>(this); it.hasNext(); ) {
+            var node = it.nextNode();
+            int rightHeight = node.right != null ? heights[--depth] : 0;
+            int leftHeight = node.left != null ? heights[--depth] : 0;
+            if(Math.abs(leftHeight - rightHeight) > 1) {
+                return false;
+            }
+            if(depth == heights.length) {
+                heights = Arrays.copyOf(heights, depth * 2);
+            }
+            heights[depth++] = 1 + Math.max(leftHeight, rightHeight);
         }
-        return Math.abs(leftHeight - rightHeight) <= 1 && leftBalanced && rightBalanced;
+        return true;
     }
 
-    public T breadthFirstSearchRecursive(Predicate<T> searchFun) {
-        if(searchFun.test(value)) {
-            return value;
+    /**
+     * Opts this tree into keeping each node's height, size and balance alongside it so that getHeight(), size() and
+     * isBalanced() are O(1). Costs one O(n) pass now, then every setLeft/setRight walks up to the root updating
+     * ancestors, stopping early once nothing changes. So that walk is O(height) and O(log n) on a balanced tree.
+     *
+     * Nodes created through setLeft/setRight of a cached node are cached too.
+     * Walking upward needs a parent pointer, so while cached a node can be the child of only one other node.
+     */
+    public SBinaryTree<T> enableMetadataCache() {
+        if(metadataCached) {
+            return this;
+        }
+        checkNoSharedNodes();
+        for(var it = new PostorderIterator<>(this); it.hasNext(); ) {
+            var node = it.nextNode();
+            node.adopt(node.left);
+            node.adopt(node.right);
+            node.metadataCached = true;
+            node.recomputeMetadata();
         }
-        return breadthFirstSearchRecursive(searchFun, List.of(left, right));
+        return this;
+    }
+
+    public boolean isMetadataCached() {
+        return metadataCached;
     }
-    private static <T> T breadthFirstSearchRecursive(Predicate<T> searchFun, List<SBinaryTree<T>> nodes ) {
-        var withoutNulls = nodes.stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-        if(withoutNulls.size() == 0) {
-            return null;
+
+    /**
+     * Fails before anything is changed if some node is reachable twice, or already belongs to a parent outside
+     * this tree, so a failed enableMetadataCache leaves the tree exactly as it was
+     */
+    private void checkNoSharedNodes() {
+        Set<SBinaryTree<T>> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<SBinaryTree<T>> pending = new ArrayDeque<>();
+        pending.push(this);
+        seen.add(this);
+        while(!pending.isEmpty()) {
+            var node = pending.pop();
+            checkUnshared(node, node.left, seen, pending);
+            checkUnshared(node, node.right, seen, pending);
         }
+    }
 
-        return withoutNulls.stream()
-                .filter(it -> searchFun.test(it.value))
-                .map(it -> it.value)
-                .findFirst()
-                .orElse(breadthFirstSearchRecursive(searchFun,
-                                withoutNulls.stream()
-                                        .flatMap(it -> Stream.of(it.left, it.right))
-                                        .filter(Objects::nonNull)
-                                        .collect(Collectors.toList())));
+    private static <T> void checkUnshared(SBinaryTree<T> node, SBinaryTree<T> child,
+                                          Set<SBinaryTree<T>> seen, Deque<SBinaryTree<T>> pending) {
+        if(child == null) {
+            return;
+        }
+        Preconditions.checkArgument(seen.add(child) && (child.parent == null || child.parent == node),
+                "A node with cached metadata can only be the child of one other node");
+        pending.push(child);
     }
 
-    public T depthFirstSearchRecursive(Predicate<T> searchFun) {
-        if(searchFun.test(value)) {
-            return value;
+    private void adopt(SBinaryTree<T> child) {
+        if(child == null) {
+            return;
         }
+        Preconditions.checkArgument(child.parent == null || child.parent == this,
+                "A node with cached metadata can only be the child of one other node");
+        child.parent = this;
+    }
+
+    private void disown(SBinaryTree<T> child) {
+        if(child != null && child.parent == this && child != left && child != right) {
+            child.parent = null;
+        }
+    }
+
+    /**
+     * Recalculates this node's metadata from its children, returning whether anything changed
+     * Node types in this package that carry extra per-subtree data override this to keep it up to date too
+     */
+    boolean recomputeMetadata() {
+        int leftHeight = left != null ? left.height : 0;
+        int rightHeight = right != null ? right.height : 0;
+        int newHeight = 1 + Math.max(leftHeight, rightHeight);
+        int newSize = 1 + (left != null ? left.size : 0) + (right != null ? right.size : 0);
+        boolean newBalanced = Math.abs(leftHeight - rightHeight) <= 1 &&
+                (left == null || left.balanced) &&
+                (right == null || right.balanced);
+        boolean changed = newHeight != height || newSize != size || newBalanced != balanced;
+        height = newHeight;
+        size = newSize;
+        balanced = newBalanced;
+        return changed;
+    }
+
+    void propagateMetadata() {
+        var node = this;
+        while(node != null && node.recomputeMetadata()) {
+            node = node.parent;
+        }
+    }
+
+    /**
+     * For trees in this package that restructure themselves bottom-up, such as rotations in SAvlTree
+     * Replaces both children of a cached node and recomputes only this node's metadata, so the caller is
+     * responsible for relinking every ancestor afterwards, and for calling detachFromParent() on whichever node
+     * ends up as the root.
+     */
+    void relink(SBinaryTree<T> left, SBinaryTree<T> right) {
+        this.left = left;
+        this.right = right;
         if(left != null) {
-            T maybeFound = left.depthFirstSearchRecursive(searchFun);
-            if(maybeFound != null) {
-                return maybeFound;
-            }
+            left.parent = this;
         }
         if(right != null) {
-            T maybeFound = right.depthFirstSearchRecursive(searchFun);
-            if(maybeFound != null) {
-                return maybeFound;
+            right.parent = this;
+        }
+        recomputeMetadata();
+    }
+
+    void detachFromParent() {
+        parent = null;
+    }
+
+    /**
+     * A value found by a search along with how far below the searched node it was found
+     * The node a search starts from is at depth 0, its children are at depth 1, and so on
+     */
+    public static class SearchResult<T> {
+        private final T value;
+        private final int depth;
+
+        SearchResult(T value, int depth) {
+            this.value = value;
+            this.depth = depth;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        @Override
+        public String toString() {
+            return value + "@" + depth;
+        }
+    }
+
+    /**
+     * Returns the first matching value in level-order, or null if nothing matches
+     */
+    public T breadthFirstSearch(Predicate<T> searchFun) {
+        var result = breadthFirstSearchWithDepth(searchFun, Integer.MAX_VALUE);
+        return result == null ? null : result.value;
+    }
+
+    /**
+     * Searches one level at a time using a queue, stopping at the first match
+     * Nodes deeper than maxDepth are never visited. Returns null if nothing matches.
+     */
+    public SearchResult<T> breadthFirstSearchWithDepth(Predicate<T> searchFun, int maxDepth) {
+        Preconditions.checkNotNull(searchFun);
+        Preconditions.checkArgument(maxDepth >= 0, "maxDepth must not be negative");
+        Deque<SBinaryTree<T>> level = new ArrayDeque<>();
+        level.add(this);
+        for(int depth = 0; depth <= maxDepth && !level.isEmpty(); depth++) {
+            for(int remaining = level.size(); remaining > 0; remaining--) {
+                var node = level.poll();
+                if(searchFun.test(node.value)) {
+                    return new SearchResult<>(node.value, depth);
+                }
+                if(node.left != null) {
+                    level.add(node.left);
+                }
+                if(node.right != null) {
+                    level.add(node.right);
+                }
             }
         }
         return null;
     }
 
+    /**
+     * Returns the first matching value in pre-order, or null if nothing matches
+     */
+    public T depthFirstSearch(Predicate<T> searchFun) {
+        var result = depthFirstSearchWithDepth(searchFun, Integer.MAX_VALUE);
+        return result == null ? null : result.value;
+    }
+
+    /**
+     * Searches root -> left -> right using an explicit stack, so a tall tree can't overflow the call stack
+     * Stops at the first match and never descends below maxDepth. Returns null if nothing matches.
+     */
+    public SearchResult<T> depthFirstSearchWithDepth(Predicate<T> searchFun, int maxDepth) {
+        Preconditions.checkNotNull(searchFun);
+        Preconditions.checkArgument(maxDepth >= 0, "maxDepth must not be negative");
+        Deque<SBinaryTree<T>> stack = new ArrayDeque<>();
+        // The depth of each node on the stack, kept in step with it
+        int[] depths = new int[16];
+        stack.push(this);
+        depths[0] = 0;
+        while(!stack.isEmpty()) {
+            var node = stack.pop();
+            int depth = depths[stack.size()];
+            if(searchFun.test(node.value)) {
+                return new SearchResult<>(node.value, depth);
+            }
+            if(depth == maxDepth) {
+                continue;
+            }
+            if(stack.size() + 2 > depths.length) {
+                depths = Arrays.copyOf(depths, depths.length * 2);
+            }
+            // Right goes on first so that left comes off first
+            if(node.right != null) {
+                depths[stack.size()] = depth + 1;
+                stack.push(node.right);
+            }
+            if(node.left != null) {
+                depths[stack.size()] = depth + 1;
+                stack.push(node.left);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @deprecated the search is no longer recursive, use breadthFirstSearch
+     */
+    @Deprecated
+    public T breadthFirstSearchRecursive(Predicate<T> searchFun) {
+        return breadthFirstSearch(searchFun);
+    }
+
+    /**
+     * @deprecated the search is no longer recursive, use depthFirstSearch
+     */
+    @Deprecated
+    public T depthFirstSearchRecursive(Predicate<T> searchFun) {
+        return depthFirstSearch(searchFun);
+    }
+
     /**
      * Traverses left -> root -> right
      *     (1)
@@ -110,31 +366,41 @@ public class SBinaryTree<T> {
      * So a BST would return its elements in smallest->largest (ascending) order
      */
     public List<T> traverseInorder() {
-        return traverseInorder(new ArrayList<>(), this);
+        return drain(inorderIterator());
     }
-    private static <T> List<T> traverseInorder(List<T> aggregator, SBinaryTree<T> tree) {
-        if(tree.left != null) {
-            aggregator.addAll(traverseInorder(new ArrayList<>(), tree.left));
-        }
-        aggregator.add(tree.value);
-        if(tree.right != null) {
-            aggregator.addAll(traverseInorder(new ArrayList<>(), tree.right));
-        }
-        return aggregator;
+
+    /**
+     * Traverses root -> left-> right
+     *     (1)
+     *     / \
+     *   (2) (3)
+     *   / \
+     * (4) (5)
+     *
+     * Would return [1,2,4,5,3]
+     * Useful for copying a tree since every parent is visited before its children
+     */
+    public List<T> traversePreorder() {
+        return drain(preorderIterator());
     }
-    private static <T> Stream<T> traverseInorderS(Stream<T> aggregator, SBinaryTree<T> tree) {
-        if(tree.left != null) {
-            aggregator = Stream.concat(aggregator, traverseInorderS(Stream.of(), tree.left));
-        }
-        aggregator = Stream.concat(aggregator, Stream.of(tree.value));
-        if(tree.right != null) {
-            aggregator = Stream.concat(aggregator, traverseInorderS(Stream.of(), tree.right));
-        }
-        return aggregator;
+
+    /**
+     * Traverses left -> right -> root
+     *     (1)
+     *     / \
+     *   (2) (3)
+     *   / \
+     * (4) (5)
+     *
+     * Would return [4,5,2,3,1]
+     * Useful for deleting a tree since every child is visited before its parent
+     */
+    public List<T> traversePostorder() {
+        return drain(postorderIterator());
     }
 
     /**
-     * Traverses root -> left-> right
+     * Traverses one level at a time, left to right
      *     (1)
      *     / \
      *   (2) (3)
@@ -142,21 +408,420 @@ public class SBinaryTree<T> {
      * (4) (5)
      *
      * Would return [1,2,3,4,5]
-     * A BST would return its elements in non-decreasing order
-     * Effectively a breadth-first traversal
      */
-    public List<T> traversePreorder() {
-        return traverseInorder(new ArrayList<>(), this);
+    public List<T> traverseLevelOrder() {
+        return drain(levelOrderIterator());
+    }
+
+    private static <T> List<T> drain(Iterator<T> it) {
+        List<T> result = new ArrayList<>();
+        it.forEachRemaining(result::add);
+        return result;
+    }
+
+    /**
+     * Iterates in-order, so for-each over a BST visits its elements in ascending order
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return inorderIterator();
+    }
+
+    /**
+     * The iterators below are lazy: each element is produced only when next() is called so a consumer that stops
+     * early never pays for the rest of the tree.
+     * They're driven by an explicit stack rather than recursion so a tall tree can't overflow the call stack,
+     * and the only allocation after construction is the deque growing to the height (or for level-order, the width)
+     * of the tree.
+     */
+    public Iterator<T> inorderIterator() {
+        return new InorderIterator<>(this);
+    }
+
+    public Iterator<T> preorderIterator() {
+        return new PreorderIterator<>(this);
+    }
+
+    public Iterator<T> postorderIterator() {
+        return new PostorderIterator<>(this);
+    }
+
+    public Iterator<T> levelOrderIterator() {
+        return new LevelOrderIterator<>(this);
+    }
+
+    public Stream<T> streamInorder() {
+        return toStream(inorderIterator());
+    }
+
+    public Stream<T> streamPreorder() {
+        return toStream(preorderIterator());
+    }
+
+    public Stream<T> streamPostorder() {
+        return toStream(postorderIterator());
+    }
+
+    public Stream<T> streamLevelOrder() {
+        return toStream(levelOrderIterator());
+    }
+
+    /**
+     * An in-order stream whose spliterator splits by handing off subtrees, see {@link #spliterator()}
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * An in-order spliterator that splits off the left subtree as the prefix and keeps the root and right subtree
+     * for itself, so a parallel stream over a reasonably balanced tree spreads its work across cores.
+     * Size estimates start at the exact size of the tree and are halved at each split, so they're only exact for
+     * perfectly balanced trees or trees with the metadata cache enabled. Degenerate trees still produce every element, in order, they just don't split evenly.
+     * Without the metadata cache the size is only counted the first time it's asked for, which sequential streams
+     * never do, so they stay lazy and stop as early as their terminal operation allows.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new InorderSpliterator<>(null, this, metadataCached ? size : InorderSpliterator.UNKNOWN_SIZE);
     }
-    private static <T> List<T> traversePreorder(List<T> aggregator, SBinaryTree<T> tree) {
-        aggregator.add(tree.value);
-        if(tree.left != null) {
-            aggregator.addAll(traversePreorder(new ArrayList<>(), tree.left));
+
+    /**
+     * Folds the tree in in-order sequence on the common fork-join pool
+     * Same contract as {@link Stream#reduce(Object, BiFunction, BinaryOperator)}:
+     * identity must be an identity for combiner and combiner must be associative
+     */
+    public <R> R parallelReduce(R identity, BiFunction<R, ? super T, R> accumulator, BinaryOperator<R> combiner) {
+        return parallelReduce(ForkJoinPool.commonPool(), identity, accumulator, combiner);
+    }
+
+    public <R> R parallelReduce(ForkJoinPool pool,
+                                R identity,
+                                BiFunction<R, ? super T, R> accumulator,
+                                BinaryOperator<R> combiner) {
+        Preconditions.checkNotNull(pool);
+        Preconditions.checkNotNull(accumulator);
+        Preconditions.checkNotNull(combiner);
+        return pool.invoke(new ReduceTask<>(this, () -> identity, accumulator, combiner, forkDepth(pool)));
+    }
+
+    /**
+     * Collects the tree in in-order sequence on the common fork-join pool
+     * Each forked subtree gets its own container from the collector's supplier
+     */
+    public <A, R> R parallelCollect(Collector<? super T, A, R> collector) {
+        return parallelCollect(ForkJoinPool.commonPool(), collector);
+    }
+
+    public <A, R> R parallelCollect(ForkJoinPool pool, Collector<? super T, A, R> collector) {
+        Preconditions.checkNotNull(pool);
+        Preconditions.checkNotNull(collector);
+        var accumulator = collector.accumulator();
+        A container = pool.invoke(new ReduceTask<T, A>(
+                this,
+                collector.supplier(),
+                (acc, it) -> {
+                    accumulator.accept(acc, it);
+                    return acc;
+                },
+                collector.combiner(),
+                forkDepth(pool)));
+        return collector.finisher().apply(container);
+    }
+
+    /**
+     * How many levels of the tree get their own fork-join tasks
+     * Enough for roughly 8 tasks per worker on a balanced tree, below that subtrees are folded sequentially
+     */
+    private static int forkDepth(ForkJoinPool pool) {
+        return 32 - Integer.numberOfLeadingZeros(pool.getParallelism()) + 3;
+    }
+
+    private static <T> Stream<T> toStream(Iterator<T> it) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    private static class InorderIterator<T> implements Iterator<T> {
+        // The path of nodes whose left subtree is being visited, the top of the stack is the next node to emit
+        private final Deque<SBinaryTree<T>> stack = new ArrayDeque<>();
+
+        InorderIterator(SBinaryTree<T> root) {
+            pushLeftSpine(root);
+        }
+
+        private void pushLeftSpine(SBinaryTree<T> node) {
+            while(node != null) {
+                stack.push(node);
+                node = node.left;
+            }
         }
-        if(tree.right != null) {
-            aggregator.addAll(traversePreorder(new ArrayList<>(), tree.right));
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if(stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            SBinaryTree<T> node = stack.pop();
+            pushLeftSpine(node.right);
+            return node.value;
+        }
+    }
+
+    private static class PreorderIterator<T> implements Iterator<T> {
+        private final Deque<SBinaryTree<T>> stack = new ArrayDeque<>();
+
+        PreorderIterator(SBinaryTree<T> root) {
+            stack.push(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if(stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            SBinaryTree<T> node = stack.pop();
+            // Right goes on first so that left comes off first
+            if(node.right != null) {
+                stack.push(node.right);
+            }
+            if(node.left != null) {
+                stack.push(node.left);
+            }
+            return node.value;
+        }
+    }
+
+    private static class PostorderIterator<T> implements Iterator<T> {
+        private final Deque<SBinaryTree<T>> stack = new ArrayDeque<>();
+
+        PostorderIterator(SBinaryTree<T> root) {
+            descend(root);
+        }
+
+        /**
+         * Pushes nodes until reaching a leaf, preferring the left child but taking the right when there is no left
+         * The leaf ends up on top of the stack, it is the first node in post-order beneath the starting node
+         */
+        private void descend(SBinaryTree<T> node) {
+            while(node != null) {
+                stack.push(node);
+                node = node.left != null ? node.left : node.right;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            return nextNode().value;
+        }
+
+        SBinaryTree<T> nextNode() {
+            if(stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            SBinaryTree<T> node = stack.pop();
+            if(!stack.isEmpty()) {
+                SBinaryTree<T> parent = stack.peek();
+                // Finishing a left subtree means the parent's right subtree is next, if it has one
+                if(parent.left == node && parent.right != null) {
+                    descend(parent.right);
+                }
+            }
+            return node;
+        }
+    }
+
+    private static class InorderSpliterator<T> implements Spliterator<T> {
+        static final long UNKNOWN_SIZE = Long.MAX_VALUE;
+
+        // Covers head (if non-null) followed by every node of subtree (if non-null) in in-order sequence
+        private SBinaryTree<T> head;
+        private SBinaryTree<T> subtree;
+        // Once elements start being consumed from the subtree the remaining elements can no longer be split
+        private InorderIterator<T> traversal;
+        private long estimatedSize;
+
+        InorderSpliterator(SBinaryTree<T> head, SBinaryTree<T> subtree, long estimatedSize) {
+            this.head = head;
+            this.subtree = subtree;
+            this.estimatedSize = estimatedSize;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if(head != null) {
+                T value = head.value;
+                head = null;
+                consumedOne();
+                action.accept(value);
+                return true;
+            }
+            if(traversal == null) {
+                traversal = new InorderIterator<>(subtree);
+                subtree = null;
+            }
+            if(!traversal.hasNext()) {
+                return false;
+            }
+            consumedOne();
+            action.accept(traversal.next());
+            return true;
+        }
+
+        private void consumedOne() {
+            if(estimatedSize != UNKNOWN_SIZE) {
+                estimatedSize--;
+            }
+        }
+
+        /**
+         * Counts what's left the first time the size is needed, if that's before traversal has started
+         */
+        private void resolveSize() {
+            if(estimatedSize == UNKNOWN_SIZE && traversal == null) {
+                estimatedSize = (head != null ? 1 : 0) + (subtree != null ? subtree.size() : 0);
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            while(tryAdvance(action)) { }
+        }
+
+        /**
+         * In-order, (head, subtree) is head, subtree.left, subtree, subtree.right
+         * So the prefix is (head, subtree.left) and what remains is (subtree, subtree.right)
+         */
+        @Override
+        public Spliterator<T> trySplit() {
+            if(traversal != null || subtree == null) {
+                return null;
+            }
+            resolveSize();
+            if(head == null && subtree.left == null) {
+                // The prefix would be empty, so rotate forward one step and split there instead
+                head = subtree;
+                subtree = subtree.right;
+                if(subtree == null) {
+                    return null;
+                }
+            }
+            long prefixEstimate = subtree.metadataCached ?
+                    (head != null ? 1 : 0) + (subtree.left != null ? subtree.left.size : 0) :
+                    estimatedSize / 2;
+            var prefix = new InorderSpliterator<>(head, subtree.left, prefixEstimate);
+            head = subtree;
+            subtree = subtree.right;
+            estimatedSize -= prefixEstimate;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            resolveSize();
+            return Math.max(estimatedSize, 0);
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.NONNULL;
+        }
+    }
+
+    private static class ReduceTask<T, R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final SBinaryTree<T> tree;
+        private final Supplier<R> identity;
+        private final BiFunction<R, ? super T, R> accumulator;
+        private final BinaryOperator<R> combiner;
+        private final int forkDepth;
+
+        ReduceTask(SBinaryTree<T> tree,
+                   Supplier<R> identity,
+                   BiFunction<R, ? super T, R> accumulator,
+                   BinaryOperator<R> combiner,
+                   int forkDepth) {
+            this.tree = tree;
+            this.identity = identity;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.forkDepth = forkDepth;
+        }
+
+        @Override
+        protected R compute() {
+            if(forkDepth == 0) {
+                R result = identity.get();
+                for(var it = tree.inorderIterator(); it.hasNext(); ) {
+                    result = accumulator.apply(result, it.next());
+                }
+                return result;
+            }
+            // Fork the left side, do the root and right side in this thread, then stitch them back together in order
+            ReduceTask<T, R> leftTask = null;
+            if(tree.left != null) {
+                leftTask = new ReduceTask<>(tree.left, identity, accumulator, combiner, forkDepth - 1);
+                leftTask.fork();
+            }
+            R result = accumulator.apply(identity.get(), tree.value);
+            if(tree.right != null) {
+                result = combiner.apply(result,
+                        new ReduceTask<>(tree.right, identity, accumulator, combiner, forkDepth - 1).compute());
+            }
+            if(leftTask != null) {
+                result = combiner.apply(leftTask.join(), result);
+            }
+            return result;
+        }
+    }
+
+    private static class LevelOrderIterator<T> implements Iterator<T> {
+        private final Deque<SBinaryTree<T>> queue = new ArrayDeque<>();
+
+        LevelOrderIterator(SBinaryTree<T> root) {
+            queue.add(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if(queue.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            SBinaryTree<T> node = queue.poll();
+            if(node.left != null) {
+                queue.add(node.left);
+            }
+            if(node.right != null) {
+                queue.add(node.right);
+            }
+            return node.value;
         }
-        return aggregator;
     }
 
     // Setters and getters
@@ -165,7 +830,18 @@ public class SBinaryTree<T> {
     }
 
     public void setLeft(SBinaryTree<T> left) {
+        if(!metadataCached) {
+            this.left = left;
+            return;
+        }
+        if(left != null) {
+            left.enableMetadataCache();
+            adopt(left);
+        }
+        var previous = this.left;
         this.left = left;
+        disown(previous);
+        propagateMetadata();
     }
     public void setLeft(T left) {
         setLeft(new SBinaryTree<>(left));
@@ -179,7 +855,18 @@ public class SBinaryTree<T> {
     }
 
     public void setRight(SBinaryTree<T> right) {
+        if(!metadataCached) {
+            this.right = right;
+            return;
+        }
+        if(right != null) {
+            right.enableMetadataCache();
+            adopt(right);
+        }
+        var previous = this.right;
         this.right = right;
+        disown(previous);
+        propagateMetadata();
     }
 
     public T getValue() {
@@ -0,0 +1,158 @@
+package com.github.sambsnyd.datastructures;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Builds balanced SBinaryTrees from whole sequences of values in O(n)
+ *
+ * Every builder produces a tree whose in-order traversal is the input in its original order, and which is as short
+ * as a tree holding that many values can be. So sorted input produces a balanced binary search tree.
+ * Values must be non-null. Empty input produces null, since there's no such thing as an empty SBinaryTree.
+ */
+public final class SBinaryTrees {
+
+    // Below this many values a parallel build just builds sequentially, forking costs more than it saves
+    private static final int PARALLEL_THRESHOLD = 8_192;
+
+    private SBinaryTrees() { }
+
+    @SafeVarargs
+    public static <T> SBinaryTree<T> fromSorted(T... values) {
+        Preconditions.checkNotNull(values);
+        // Copied element by element, handing the array itself to another varargs method could pollute the heap
+        var list = new ArrayList<T>(values.length);
+        for(T value : values) {
+            list.add(Preconditions.checkNotNull(value));
+        }
+        return fromSorted(list);
+    }
+
+    public static <T> SBinaryTree<T> fromSorted(List<? extends T> values) {
+        Preconditions.checkNotNull(values);
+        if(!(values instanceof RandomAccess)) {
+            // Index-based splitting on a linked list would be O(n^2), stream it instead
+            return fromSorted(values.iterator());
+        }
+        return build(values, 0, values.size() - 1);
+    }
+
+    /**
+     * Makes the middle value the root and builds each half the same way, so recursion is only O(log n) deep
+     */
+    private static <T> SBinaryTree<T> build(List<? extends T> values, int low, int high) {
+        if(low > high) {
+            return null;
+        }
+        int mid = (low + high) >>> 1;
+        return new SBinaryTree<>(build(values, low, mid - 1), values.get(mid), build(values, mid + 1, high));
+    }
+
+    /**
+     * Builds from a single pass over values without knowing how many there are and without buffering them
+     *
+     * Each value is appended as the right child of the previous one, producing a "vine": a tree shaped like a linked
+     * list. Once the input is exhausted the vine is folded into a balanced tree in place with left rotations,
+     * the Day-Stout-Warren algorithm, which is O(n) time and O(1) space beyond the nodes themselves.
+     */
+    public static <T> SBinaryTree<T> fromSorted(Iterator<? extends T> values) {
+        Preconditions.checkNotNull(values);
+        if(!values.hasNext()) {
+            return null;
+        }
+        // The pseudo-root holds the vine as its right child so rotations at the top of the vine need no special case
+        // Its value is never read and is only there because SBinaryTree doesn't allow nulls
+        var pseudoRoot = new SBinaryTree<T>(values.next());
+        pseudoRoot.setRight(pseudoRoot.getValue());
+        var tail = pseudoRoot.getRight();
+        int size = 1;
+        while(values.hasNext()) {
+            tail.setRight(values.next());
+            tail = tail.getRight();
+            size++;
+        }
+
+        // Fold the values past the largest perfect tree first so the final tree is complete, then halve repeatedly
+        int perfectSize = Integer.highestOneBit(size + 1) - 1;
+        compress(pseudoRoot, size - perfectSize);
+        for(int remaining = perfectSize / 2; remaining > 0; remaining /= 2) {
+            compress(pseudoRoot, remaining);
+        }
+        return pseudoRoot.getRight();
+    }
+
+    public static <T> SBinaryTree<T> fromSorted(Stream<? extends T> values) {
+        Preconditions.checkNotNull(values);
+        return fromSorted(values.iterator());
+    }
+
+    /**
+     * Left-rotates every other node down the right spine, count times
+     *
+     *   (a)                 (b)
+     *     \                 / \
+     *     (b)     ->      (a) (c)
+     *       \                   \
+     *       (c)                 ...
+     *         \
+     *         ...
+     */
+    private static <T> void compress(SBinaryTree<T> pseudoRoot, int count) {
+        var scanner = pseudoRoot;
+        for(int i = 0; i < count; i++) {
+            var child = scanner.getRight();
+            var grandchild = child.getRight();
+            scanner.setRight(grandchild);
+            child.setRight(grandchild.getLeft());
+            grandchild.setLeft(child);
+            scanner = grandchild;
+        }
+    }
+
+    /**
+     * Like fromSorted(List) but builds the left and right halves of large subtrees on separate fork-join tasks
+     */
+    public static <T> SBinaryTree<T> fromSortedParallel(List<? extends T> values) {
+        return fromSortedParallel(ForkJoinPool.commonPool(), values);
+    }
+
+    public static <T> SBinaryTree<T> fromSortedParallel(ForkJoinPool pool, List<? extends T> values) {
+        Preconditions.checkNotNull(pool);
+        Preconditions.checkNotNull(values);
+        Preconditions.checkArgument(values instanceof RandomAccess, "Parallel builds need a random access list");
+        return pool.invoke(new BuildTask<>(values, 0, values.size() - 1));
+    }
+
+    private static class BuildTask<T> extends RecursiveTask<SBinaryTree<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends T> values;
+        private final int low;
+        private final int high;
+
+        BuildTask(List<? extends T> values, int low, int high) {
+            this.values = values;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected SBinaryTree<T> compute() {
+            if(high - low < PARALLEL_THRESHOLD) {
+                return build(values, low, high);
+            }
+            int mid = (low + high) >>> 1;
+            var leftTask = new BuildTask<T>(values, low, mid - 1);
+            leftTask.fork();
+            var right = new BuildTask<T>(values, mid + 1, high).compute();
+            return new SBinaryTree<>(leftTask.join(), values.get(mid), right);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.github.sambsnyd.datastructures;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable ordered set kept in an AVL tree whose versions share structure
+ *
+ * insert and remove never modify a tree, they return a new one. Only the nodes on the path from the root to the
+ * changed node are copied, O(log n) of them, and everything else is shared with the previous version.
+ * So holding on to a version is an O(1) snapshot: it stays readable while newer versions are created, and its
+ * nodes are garbage collected once no version refers to them.
+ *
+ * Readers need no locking at all, for example with writers publishing through an AtomicReference:
+ *
+ *     AtomicReference<SPersistentTree<Integer>> current = new AtomicReference<>(SPersistentTree.empty(cmp));
+ *     current.updateAndGet(tree -> tree.insert(42));   // writers
+ *     var snapshot = current.get();                     // readers, consistent for as long as they hold it
+ */
+public final class SPersistentTree<T> implements Iterable<T> {
+
+    private static final class Node<T> {
+        final Node<T> left;
+        final T value;
+        final Node<T> right;
+        final int height;
+        final int size;
+
+        Node(Node<T> left, T value, Node<T> right) {
+            this.left = left;
+            this.value = value;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+    }
+
+    private final Comparator<? super T> comparator;
+    private final Node<T> root;
+
+    private SPersistentTree(Comparator<? super T> comparator, Node<T> root) {
+        this.comparator = comparator;
+        this.root = root;
+    }
+
+    public static <T> SPersistentTree<T> empty(Comparator<? super T> comparator) {
+        Preconditions.checkNotNull(comparator);
+        return new SPersistentTree<>(comparator, null);
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Returns a version of this tree that also contains value, or this same tree if it already did
+     */
+    public SPersistentTree<T> insert(T value) {
+        Preconditions.checkNotNull(value);
+        var newRoot = insert(root, value);
+        return newRoot == root ? this : new SPersistentTree<>(comparator, newRoot);
+    }
+    private Node<T> insert(Node<T> node, T value) {
+        if(node == null) {
+            return new Node<>(null, value, null);
+        }
+        int comparison = comparator.compare(value, node.value);
+        if(comparison < 0) {
+            var newLeft = insert(node.left, value);
+            return newLeft == node.left ? node : balance(newLeft, node.value, node.right);
+        }
+        if(comparison > 0) {
+            var newRight = insert(node.right, value);
+            return newRight == node.right ? node : balance(node.left, node.value, newRight);
+        }
+        return node;
+    }
+
+    /**
+     * Returns a version of this tree without value, or this same tree if it didn't contain it
+     */
+    public SPersistentTree<T> remove(T value) {
+        Preconditions.checkNotNull(value);
+        var newRoot = remove(root, value);
+        return newRoot == root ? this : new SPersistentTree<>(comparator, newRoot);
+    }
+    private Node<T> remove(Node<T> node, T value) {
+        if(node == null) {
+            return null;
+        }
+        int comparison = comparator.compare(value, node.value);
+        if(comparison < 0) {
+            var newLeft = remove(node.left, value);
+            return newLeft == node.left ? node : balance(newLeft, node.value, node.right);
+        }
+        if(comparison > 0) {
+            var newRight = remove(node.right, value);
+            return newRight == node.right ? node : balance(node.left, node.value, newRight);
+        }
+        if(node.left == null) {
+            return node.right;
+        }
+        if(node.right == null) {
+            return node.left;
+        }
+        // Two children: the in-order successor takes this node's place
+        var successor = node.right;
+        while(successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(node.left, successor.value, removeSmallest(node.right));
+    }
+    private Node<T> removeSmallest(Node<T> node) {
+        if(node.left == null) {
+            return node.right;
+        }
+        return balance(removeSmallest(node.left), node.value, node.right);
+    }
+
+    /**
+     * Builds a node from subtrees whose heights differ by at most two, rotating if they differ by exactly two
+     * Every node it creates is new, the subtrees passed in are shared as they are
+     */
+    private static <T> Node<T> balance(Node<T> left, T value, Node<T> right) {
+        int difference = height(left) - height(right);
+        if(difference > 1) {
+            if(height(left.left) >= height(left.right)) {
+                return new Node<>(left.left, left.value, new Node<>(left.right, value, right));
+            }
+            var pivot = left.right;
+            return new Node<>(
+                    new Node<>(left.left, left.value, pivot.left),
+                    pivot.value,
+                    new Node<>(pivot.right, value, right));
+        }
+        if(difference < -1) {
+            if(height(right.right) >= height(right.left)) {
+                return new Node<>(new Node<>(left, value, right.left), right.value, right.right);
+            }
+            var pivot = right.left;
+            return new Node<>(
+                    new Node<>(left, value, pivot.left),
+                    pivot.value,
+                    new Node<>(pivot.right, right.value, right.right));
+        }
+        return new Node<>(left, value, right);
+    }
+
+    public boolean contains(T value) {
+        Preconditions.checkNotNull(value);
+        var node = root;
+        while(node != null) {
+            int comparison = comparator.compare(value, node.value);
+            if(comparison == 0) {
+                return true;
+            }
+            node = comparison < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /**
+     * The greatest value less than or equal to the given value, or null if there is none
+     */
+    public T floor(T value) {
+        Preconditions.checkNotNull(value);
+        T candidate = null;
+        var node = root;
+        while(node != null) {
+            int comparison = comparator.compare(value, node.value);
+            if(comparison == 0) {
+                return node.value;
+            }
+            if(comparison < 0) {
+                node = node.left;
+            } else {
+                candidate = node.value;
+                node = node.right;
+            }
+        }
+        return candidate;
+    }
+
+    /**
+     * The least value greater than or equal to the given value, or null if there is none
+     */
+    public T ceiling(T value) {
+        Preconditions.checkNotNull(value);
+        T candidate = null;
+        var node = root;
+        while(node != null) {
+            int comparison = comparator.compare(value, node.value);
+            if(comparison == 0) {
+                return node.value;
+            }
+            if(comparison > 0) {
+                node = node.right;
+            } else {
+                candidate = node.value;
+                node = node.left;
+            }
+        }
+        return candidate;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public int getHeight() {
+        return height(root);
+    }
+
+    public List<T> traverseInorder() {
+        List<T> result = new ArrayList<>(size());
+        forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Copies this version into a mutable SBinaryTree of the same shape, or null if empty
+     */
+    public SBinaryTree<T> toSBinaryTree() {
+        if(root == null) {
+            return null;
+        }
+        var copy = new SBinaryTree<>(root.value);
+        Deque<Node<T>> sources = new ArrayDeque<>();
+        Deque<SBinaryTree<T>> copies = new ArrayDeque<>();
+        sources.push(root);
+        copies.push(copy);
+        while(!sources.isEmpty()) {
+            var source = sources.pop();
+            var target = copies.pop();
+            if(source.left != null) {
+                target.setLeft(source.left.value);
+                sources.push(source.left);
+                copies.push(target.getLeft());
+            }
+            if(source.right != null) {
+                target.setRight(source.right.value);
+                sources.push(source.right);
+                copies.push(target.getRight());
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Iterates this version in ascending order, unaffected by any later versions
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private final Deque<Node<T>> stack = new ArrayDeque<>();
+            {
+                pushLeftSpine(root);
+            }
+
+            private void pushLeftSpine(Node<T> node) {
+                while(node != null) {
+                    stack.push(node);
+                    node = node.left;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if(stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                var node = stack.pop();
+                pushLeftSpine(node.right);
+                return node.value;
+            }
+        };
+    }
+}
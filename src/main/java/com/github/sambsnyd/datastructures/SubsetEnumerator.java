@@ -0,0 +1,291 @@
+package com.github.sambsnyd.datastructures;
+
+import com.google.common.base.Preconditions;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Visits subsets of a set one at a time in a fixed order, without allocating anything per subset
+ *
+ * Where PowerSet hands out a new Set for every subset, an enumerator hands its visitor the same View over and over,
+ * updated in place. Elements are numbered in input order as with PowerSet, and a View is a bitmask over those
+ * numbers: a single long for up to 64 elements and an array of them beyond that, so there's no limit on the
+ * number of elements.
+ * - forEachSubsetOfSize visits the subsets of exactly k elements in increasing mask order, using Gosper's hack to
+ *   step from one mask to the next in O(1) (O(words) past 64 elements)
+ * - forEachSubsetGrayOrder visits every subset in Gray code order, where each subset differs from the one before by
+ *   adding or removing a single element, which the View reports so that incremental state can be updated cheaply
+ *
+ * Visitors must not keep the View past the visit, copy it with toBitSet or new HashSet(view) if it's needed later.
+ */
+public class SubsetEnumerator<T> {
+
+    @FunctionalInterface
+    public interface Visitor<T> {
+        /**
+         * Returns whether to keep going
+         */
+        boolean visit(View<T> subset);
+    }
+
+    private final List<T> elements;
+    private final Map<Object, Integer> indexes;
+
+    /**
+     * Takes a copy of the input, later changes to it aren't seen
+     */
+    public SubsetEnumerator(Collection<? extends T> input) {
+        Preconditions.checkNotNull(input);
+        var distinct = new ArrayList<T>(input.size());
+        indexes = new HashMap<>();
+        for(T element : input) {
+            if(!indexes.containsKey(element)) {
+                indexes.put(element, distinct.size());
+                distinct.add(element);
+            }
+        }
+        elements = Collections.unmodifiableList(distinct);
+    }
+
+    public List<T> elements() {
+        return elements;
+    }
+
+    /**
+     * Gosper's hack: the next larger long with the same number of bits set
+     * Undefined for 0 and for masks whose set bits are already the highest ones.
+     */
+    public static long nextSubsetOfSameSize(long mask) {
+        long lowest = mask & -mask;
+        long ripple = mask + lowest;
+        return (((ripple ^ mask) >>> 2) / lowest) | ripple;
+    }
+
+    /**
+     * Visits every subset of k elements, smallest mask first
+     * Returns the number of subsets visited.
+     */
+    public long forEachSubsetOfSize(int k, Visitor<T> visitor) {
+        Preconditions.checkArgument(k >= 0, "k can't be negative");
+        Preconditions.checkNotNull(visitor);
+        int n = elements.size();
+        if(k > n) {
+            return 0;
+        }
+        var view = new View<>(this);
+        // The first subset is the lowest k elements
+        for(int i = 0; i < k; i++) {
+            view.words[i >>> 6] |= 1L << i;
+        }
+        view.size = k;
+        long visited = 0;
+        if(n <= 64) {
+            long mask = view.words.length == 0 ? 0 : view.words[0];
+            long last = k == 0 ? 0 : mask << (n - k);
+            while(true) {
+                visited++;
+                if(!visitor.visit(view) || mask == last) {
+                    return visited;
+                }
+                mask = nextSubsetOfSameSize(mask);
+                view.words[0] = mask;
+            }
+        }
+        while(true) {
+            visited++;
+            if(!visitor.visit(view) || !nextSubsetOfSameSize(view.words, n)) {
+                return visited;
+            }
+        }
+    }
+
+    /**
+     * Gosper's hack over an array of words: moves the lowest run of set bits' top bit up by one and packs the rest
+     * of the run down to bit 0. Returns false, leaving the words alone, when the run already ends at bit n - 1.
+     */
+    private static boolean nextSubsetOfSameSize(long[] words, int n) {
+        int low = nextSetBit(words, 0);
+        if(low < 0) {
+            return false;
+        }
+        int high = nextClearBit(words, low);
+        if(high >= n) {
+            return false;
+        }
+        words[high >>> 6] |= 1L << high;
+        for(int i = low; i < high; i++) {
+            words[i >>> 6] &= ~(1L << i);
+        }
+        for(int i = 0; i < high - low - 1; i++) {
+            words[i >>> 6] |= 1L << i;
+        }
+        return true;
+    }
+
+    /**
+     * Visits all 2^n subsets starting from the empty set, each differing from the one before by one element
+     * Returns the number of subsets visited. With 63 or more elements this only ends when the visitor stops it.
+     *
+     * Step i flips the element numbered by the count of trailing zeros in i, which is the reflected binary Gray code.
+     */
+    public long forEachSubsetGrayOrder(Visitor<T> visitor) {
+        Preconditions.checkNotNull(visitor);
+        int n = elements.size();
+        var view = new View<>(this);
+        if(!visitor.visit(view)) {
+            return 1;
+        }
+        long visited = 1;
+        for(long step = 1; ; step++) {
+            int flip = Long.numberOfTrailingZeros(step);
+            if(flip >= n) {
+                return visited;
+            }
+            view.words[flip >>> 6] ^= 1L << flip;
+            view.changed = flip;
+            view.added = (view.words[flip >>> 6] & (1L << flip)) != 0;
+            view.size += view.added ? 1 : -1;
+            visited++;
+            if(!visitor.visit(view)) {
+                return visited;
+            }
+        }
+    }
+
+    private static int nextSetBit(long[] words, int from) {
+        int word = from >>> 6;
+        if(word >= words.length) {
+            return -1;
+        }
+        long bits = words[word] & (-1L << from);
+        while(bits == 0) {
+            if(++word == words.length) {
+                return -1;
+            }
+            bits = words[word];
+        }
+        return word * 64 + Long.numberOfTrailingZeros(bits);
+    }
+
+    private static int nextClearBit(long[] words, int from) {
+        int word = from >>> 6;
+        if(word >= words.length) {
+            return from;
+        }
+        long bits = ~words[word] & (-1L << from);
+        while(bits == 0) {
+            if(++word == words.length) {
+                return words.length * 64;
+            }
+            bits = ~words[word];
+        }
+        return word * 64 + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * The subset being visited, a read-only Set that the enumerator changes between visits
+     *
+     * size() and contains() are O(1). Iterating with nextIndex and element allocates nothing, unlike iterator().
+     */
+    public static class View<T> extends AbstractSet<T> {
+        private final SubsetEnumerator<T> owner;
+        private final long[] words;
+        private int size;
+        private int changed = -1;
+        private boolean added;
+
+        private View(SubsetEnumerator<T> owner) {
+            this.owner = owner;
+            this.words = new long[(owner.elements.size() + 63) >>> 6];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            Integer index = owner.indexes.get(o);
+            return index != null && containsIndex(index);
+        }
+
+        public boolean containsIndex(int index) {
+            Preconditions.checkElementIndex(index, owner.elements.size(), "index");
+            return (words[index >>> 6] & (1L << index)) != 0;
+        }
+
+        /**
+         * The number of the first element at or after from that's in the subset, or -1 if there isn't one
+         */
+        public int nextIndex(int from) {
+            Preconditions.checkArgument(from >= 0, "from can't be negative");
+            return nextSetBit(words, from);
+        }
+
+        /**
+         * The element with the given number
+         */
+        public T element(int index) {
+            return owner.elements.get(index);
+        }
+
+        /**
+         * The subset as a bitmask of element numbers, for enumerators of up to 64 elements
+         */
+        public long mask() {
+            Preconditions.checkState(words.length <= 1, "More than 64 elements, use toBitSet");
+            return words.length == 0 ? 0 : words[0];
+        }
+
+        public BitSet toBitSet() {
+            return BitSet.valueOf(words);
+        }
+
+        /**
+         * In Gray code order, the number of the element added or removed to get this subset from the previous one,
+         * -1 for the first subset and in size order
+         */
+        public int changedIndex() {
+            return changed;
+        }
+
+        /**
+         * Whether the element at changedIndex was added rather than removed
+         */
+        public boolean wasAdded() {
+            return added;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                private int next = nextSetBit(words, 0);
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public T next() {
+                    if(next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    T element = owner.elements.get(next);
+                    next = nextSetBit(words, next + 1);
+                    return element;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.github.sambsnyd.problems;
+
+import com.github.sambsnyd.datastructures.BitGrid;
+import com.google.common.base.Preconditions;
+
+import java.util.stream.IntStream;
+
+/**
+ * Answers many right/down reachability and path queries against one grid, between any pair of cells
+ *
+ * Construction copies the grid into word-aligned rows and precomputes which cells are reachable from the top left
+ * and which can reach the bottom right, one bit each. Queries from the top left or to the bottom right are then a
+ * single bit lookup. Other queries run the row-at-a-time pass from robotHasPath over only the rectangle spanned by
+ * the source and target, 64 cells at a time, so their cost depends on how far apart the cells are rather than on
+ * the size of the grid.
+ *
+ * Cells are numbered row * columns + column as in BitGrid. As with robotTraverseGrid the robot is already standing
+ * on the source cell, so only the passability of the cells it moves onto is checked.
+ *
+ * A router never changes after construction, later changes to the BitGrid aren't seen, and it's safe to query from
+ * any number of threads. The batch methods spread their queries across the common fork-join pool.
+ */
+public class GridRouter {
+
+    private final int rows;
+    private final int columns;
+    private final int wordsPerRow;
+    private final long[] passable;
+    private final long[] fromOrigin;
+    private final long[] toEnd;
+
+    public GridRouter(BitGrid grid) {
+        Preconditions.checkNotNull(grid);
+        rows = grid.rows();
+        columns = grid.columns();
+        wordsPerRow = grid.wordsPerRow();
+        passable = new long[rows * wordsPerRow];
+        var row = new long[wordsPerRow];
+        for(int r = 0; r < rows; r++) {
+            grid.readRow(r, row);
+            System.arraycopy(row, 0, passable, r * wordsPerRow, wordsPerRow);
+        }
+
+        fromOrigin = new long[passable.length];
+        var reach = new long[wordsPerRow];
+        reach[0] = 1;
+        for(int r = 0; r < rows; r++) {
+            System.arraycopy(passable, r * wordsPerRow, row, 0, wordsPerRow);
+            if(r == 0) {
+                row[0] |= 1;
+            }
+            reachAlongRow(row, reach, 0, wordsPerRow);
+            System.arraycopy(reach, 0, fromOrigin, r * wordsPerRow, wordsPerRow);
+        }
+
+        toEnd = new long[passable.length];
+        reach = new long[wordsPerRow];
+        reach[(columns - 1) >>> 6] = 1L << (columns - 1);
+        for(int r = rows - 1; r >= 0; r--) {
+            System.arraycopy(passable, r * wordsPerRow, row, 0, wordsPerRow);
+            reachBackAlongRow(row, reach);
+            System.arraycopy(reach, 0, toEnd, r * wordsPerRow, wordsPerRow);
+        }
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Whether the bottom right can be reached from this cell
+     * Unlike the other queries this includes the cell's own passability
+     */
+    public boolean canReachEnd(int cell) {
+        checkCell(cell);
+        return bit(toEnd, cell / columns, cell % columns);
+    }
+
+    public boolean isReachableFromOrigin(int cell) {
+        checkCell(cell);
+        return bit(fromOrigin, cell / columns, cell % columns);
+    }
+
+    public boolean canReach(int source, int target) {
+        checkCell(source);
+        checkCell(target);
+        int sourceRow = source / columns;
+        int sourceColumn = source % columns;
+        int targetRow = target / columns;
+        int targetColumn = target % columns;
+        if(targetRow < sourceRow || targetColumn < sourceColumn) {
+            return false;
+        }
+        if(source == target) {
+            return true;
+        }
+        if(source == 0) {
+            return bit(fromOrigin, targetRow, targetColumn);
+        }
+        if(target == rows * columns - 1) {
+            return (sourceColumn + 1 < columns && bit(toEnd, sourceRow, sourceColumn + 1)) ||
+                    (sourceRow + 1 < rows && bit(toEnd, sourceRow + 1, sourceColumn));
+        }
+        if(!bit(passable, targetRow, targetColumn)) {
+            return false;
+        }
+        return reachWithin(sourceRow, sourceColumn, targetRow, targetColumn, null);
+    }
+
+    /**
+     * One right/down path from source to target as cells, including both, or an empty array if there is none
+     */
+    public int[] findPath(int source, int target) {
+        checkCell(source);
+        checkCell(target);
+        int sourceRow = source / columns;
+        int sourceColumn = source % columns;
+        int targetRow = target / columns;
+        int targetColumn = target % columns;
+        if(targetRow < sourceRow || targetColumn < sourceColumn) {
+            return new int[0];
+        }
+        int fromWord = sourceColumn >>> 6;
+        var reachByRow = new long[targetRow - sourceRow + 1][];
+        if(!reachWithin(sourceRow, sourceColumn, targetRow, targetColumn, reachByRow)) {
+            return new int[0];
+        }
+
+        int row = targetRow;
+        int column = targetColumn;
+        int[] path = new int[targetRow - sourceRow + targetColumn - sourceColumn + 1];
+        for(int i = path.length - 1; i >= 0; i--) {
+            path[i] = row * columns + column;
+            // Prefer coming from the left when that cell is reachable, otherwise it must have been from above
+            long[] reach = reachByRow[row - sourceRow];
+            int left = column - 1;
+            if(column > sourceColumn && (reach[(left >>> 6) - fromWord] & (1L << left)) != 0) {
+                column--;
+            } else {
+                row--;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * canReach for each pair sources[i], targets[i], run in parallel
+     */
+    public boolean[] canReach(int[] sources, int[] targets) {
+        Preconditions.checkArgument(sources.length == targets.length, "Need as many sources as targets");
+        var result = new boolean[sources.length];
+        IntStream.range(0, sources.length).parallel().forEach(i -> result[i] = canReach(sources[i], targets[i]));
+        return result;
+    }
+
+    /**
+     * findPath for each pair sources[i], targets[i], run in parallel
+     */
+    public int[][] findPaths(int[] sources, int[] targets) {
+        Preconditions.checkArgument(sources.length == targets.length, "Need as many sources as targets");
+        var result = new int[sources.length][];
+        IntStream.range(0, sources.length).parallel().forEach(i -> result[i] = findPath(sources[i], targets[i]));
+        return result;
+    }
+
+    /**
+     * The row-at-a-time pass over the rectangle between two cells, clipped to its columns
+     * When reachByRow isn't null it receives each row's reachable words, indexed from the source's word
+     */
+    private boolean reachWithin(int sourceRow, int sourceColumn, int targetRow, int targetColumn, long[][] reachByRow) {
+        int fromWord = sourceColumn >>> 6;
+        int words = (targetColumn >>> 6) + 1 - fromWord;
+        // Keep only the columns in the rectangle, the masks are relative to fromWord
+        long firstMask = -1L << sourceColumn;
+        long lastMask = -1L >>> (63 - (targetColumn & 63));
+        var row = new long[words];
+        var reach = new long[words];
+        reach[0] = 1L << sourceColumn;
+        for(int r = sourceRow; r <= targetRow; r++) {
+            System.arraycopy(passable, r * wordsPerRow + fromWord, row, 0, words);
+            row[0] &= firstMask;
+            row[words - 1] &= lastMask;
+            if(r == sourceRow) {
+                row[0] |= 1L << sourceColumn;
+            }
+            if(!reachAlongRow(row, reach, 0, words)) {
+                return false;
+            }
+            if(reachByRow != null) {
+                reachByRow[r - sourceRow] = reach.clone();
+            }
+        }
+        return (reach[words - 1] & (1L << targetColumn)) != 0;
+    }
+
+    /**
+     * Takes the cells of a row reachable from above and extends them rightward through passable cells, over words
+     * [fromWord, toWord). Returns whether anything in that range is reachable.
+     *
+     * Adding a reachable cell's bit to the passable bits carries through the run of passable cells to its right,
+     * flipping each of them, so xor-ing the passable bits back out leaves the run. The carry crosses words too.
+     */
+    static boolean reachAlongRow(long[] passable, long[] reach, int fromWord, int toWord) {
+        long carry = 0;
+        long any = 0;
+        for(int i = fromWord; i < toWord; i++) {
+            long p = passable[i];
+            long seeds = reach[i] & p;
+            long sum = p + seeds + carry;
+            carry = ((p & seeds) | ((p | seeds) & ~sum)) >>> 63;
+            reach[i] = ((sum ^ p) | seeds) & p;
+            any |= reach[i];
+        }
+        return any != 0;
+    }
+
+    /**
+     * reachAlongRow in the other direction, extending cells that can reach the end from below leftward
+     * Reversing each word turns leftward into rightward, so the same carry does the work
+     */
+    private static void reachBackAlongRow(long[] passable, long[] reach) {
+        long carry = 0;
+        for(int i = passable.length - 1; i >= 0; i--) {
+            long p = Long.reverse(passable[i]);
+            long seeds = Long.reverse(reach[i]) & p;
+            long sum = p + seeds + carry;
+            carry = ((p & seeds) | ((p | seeds) & ~sum)) >>> 63;
+            reach[i] = Long.reverse(((sum ^ p) | seeds) & p);
+        }
+    }
+
+    private boolean bit(long[] bits, int row, int column) {
+        return (bits[row * wordsPerRow + (column >>> 6)] & (1L << column)) != 0;
+    }
+
+    private void checkCell(int cell) {
+        Preconditions.checkElementIndex(cell, rows * columns, "cell");
+    }
+}
@@ -0,0 +1,614 @@
+package com.github.sambsnyd.problems;
+
+import com.github.sambsnyd.datastructures.BitGrid;
+import com.github.sambsnyd.datastructures.IntMinHeap;
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * Shortest paths on a grid with per-cell costs, moving in 4 or 8 directions
+ *
+ * Moving onto a cell costs 10 times the cell's cost orthogonally and 14 times it diagonally, the usual integer
+ * approximation of 1 and the square root of 2, so path costs are in tenths of a step. A cost of 0 makes a cell
+ * impassable. Diagonal moves can't cut corners: both cells beside the diagonal have to be passable.
+ *
+ * The searches all work on cells numbered row * columns + column with int and long arrays and an IntMinHeap, and
+ * report how many cells they expanded so that strategies can be compared on the same grid:
+ * - aStar with any Heuristic, ZERO making it Dijkstra's algorithm
+ * - bidirectional, A* from both ends at once
+ * - jumpPoint, which skips over the interior of open areas, for grids where every passable cell costs the same
+ *
+ * A GridSearch never changes after construction and can be searched from any number of threads.
+ */
+public class GridSearch {
+
+    public enum Movement { FOUR, EIGHT }
+
+    /**
+     * Lower bounds on the cost between two cells, in the same units as path costs, before scaling by the cheapest
+     * cell's cost
+     */
+    public enum Heuristic {
+        /**
+         * Exact for open 4-connected grids, but overestimates when diagonal moves are allowed so paths found with
+         * it on 8-connected grids may not be the cheapest
+         */
+        MANHATTAN {
+            @Override
+            public long estimate(int rowDistance, int columnDistance) {
+                return STRAIGHT * (long)(rowDistance + columnDistance);
+            }
+        },
+        /**
+         * Exact for open 8-connected grids: diagonal moves until in line with the target, then straight ones
+         */
+        OCTILE {
+            @Override
+            public long estimate(int rowDistance, int columnDistance) {
+                int diagonal = Math.min(rowDistance, columnDistance);
+                int straight = Math.max(rowDistance, columnDistance) - diagonal;
+                return DIAGONAL * (long)diagonal + STRAIGHT * (long)straight;
+            }
+        },
+        ZERO {
+            @Override
+            public long estimate(int rowDistance, int columnDistance) {
+                return 0;
+            }
+        };
+
+        public abstract long estimate(int rowDistance, int columnDistance);
+    }
+
+    /**
+     * The outcome of one search
+     */
+    public static class Result {
+        private final int[] path;
+        private final long cost;
+        private final int expansionCount;
+        private final int generatedCount;
+
+        private Result(int[] path, long cost, int expansionCount, int generatedCount) {
+            this.path = path;
+            this.cost = cost;
+            this.expansionCount = expansionCount;
+            this.generatedCount = generatedCount;
+        }
+
+        public boolean isFound() {
+            return path.length > 0;
+        }
+
+        /**
+         * The cells from source to target inclusive, empty if there's no path
+         */
+        public int[] getPath() {
+            return path.clone();
+        }
+
+        /**
+         * The cost of the path, -1 if there's no path
+         */
+        public long getCost() {
+            return cost;
+        }
+
+        /**
+         * The number of cells taken off the open set and expanded
+         */
+        public int getExpansionCount() {
+            return expansionCount;
+        }
+
+        /**
+         * The number of times a cell was added to the open set with a better cost
+         */
+        public int getGeneratedCount() {
+            return generatedCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{cost=" + cost + ", length=" + path.length + ", expanded=" + expansionCount +
+                    ", generated=" + generatedCount + "}";
+        }
+    }
+
+    static final int STRAIGHT = 10;
+    static final int DIAGONAL = 14;
+    // Right, down, left, up, then the diagonals
+    private static final int[] ROW_STEPS = { 0, 1, 0, -1, 1, 1, -1, -1 };
+    private static final int[] COLUMN_STEPS = { 1, 0, -1, 0, 1, -1, 1, -1 };
+
+    private final int rows;
+    private final int columns;
+    private final int[] costs;
+    private final Movement movement;
+    private final int directions;
+    private final int cheapestCost;
+    private final boolean uniform;
+
+    /**
+     * costs holds each cell's cost in row-major order, 0 for impassable cells
+     */
+    public GridSearch(int rows, int columns, int[] costs, Movement movement) {
+        Preconditions.checkArgument(rows > 0 && columns > 0, "Grid must be non-empty");
+        Preconditions.checkArgument((long)rows * columns == costs.length, "Need one cost per cell");
+        Preconditions.checkNotNull(movement);
+        this.rows = rows;
+        this.columns = columns;
+        this.costs = costs.clone();
+        this.movement = movement;
+        this.directions = movement == Movement.FOUR ? 4 : 8;
+        int cheapest = Integer.MAX_VALUE;
+        int dearest = 0;
+        for(int cost : costs) {
+            Preconditions.checkArgument(cost >= 0, "Costs can't be negative");
+            if(cost > 0) {
+                cheapest = Math.min(cheapest, cost);
+                dearest = Math.max(dearest, cost);
+            }
+        }
+        this.cheapestCost = cheapest == Integer.MAX_VALUE ? 1 : cheapest;
+        this.uniform = dearest == 0 || cheapest == dearest;
+    }
+
+    /**
+     * A grid where every passable cell costs 1
+     */
+    public GridSearch(BitGrid grid, Movement movement) {
+        this(grid.rows(), grid.columns(), unitCosts(grid), movement);
+    }
+
+    private static int[] unitCosts(BitGrid grid) {
+        var costs = new int[grid.cellCount()];
+        for(int cell = 0; cell < costs.length; cell++) {
+            costs[cell] = grid.isPassable(cell) ? 1 : 0;
+        }
+        return costs;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    public Movement getMovement() {
+        return movement;
+    }
+
+    /**
+     * Whether every passable cell has the same cost, which jumpPoint needs
+     */
+    public boolean isUniform() {
+        return uniform;
+    }
+
+    /**
+     * The cheapest path from source to target, both of which have to be passable
+     * The cost of the source cell itself isn't charged.
+     */
+    public Result aStar(int source, int target, Heuristic heuristic) {
+        checkCell(source);
+        checkCell(target);
+        Preconditions.checkNotNull(heuristic);
+        if(costs[source] == 0 || costs[target] == 0) {
+            return notFound(0, 0);
+        }
+        long[] best = new long[costs.length];
+        Arrays.fill(best, Long.MAX_VALUE);
+        int[] parents = new int[costs.length];
+        long[] closed = new long[(costs.length + 63) >>> 6];
+        var open = new IntMinHeap();
+        best[source] = 0;
+        parents[source] = -1;
+        open.add(source, estimate(heuristic, source, target));
+        int expanded = 0;
+        int generated = 1;
+        while(!open.isEmpty()) {
+            int cell = open.poll();
+            if(isSet(closed, cell)) {
+                continue;
+            }
+            set(closed, cell);
+            expanded++;
+            if(cell == target) {
+                return new Result(walkParents(parents, target, false), best[target], expanded, generated);
+            }
+            int row = cell / columns;
+            int column = cell - row * columns;
+            for(int direction = 0; direction < directions; direction++) {
+                int next = step(row, column, direction);
+                if(next < 0 || isSet(closed, next)) {
+                    continue;
+                }
+                long cost = best[cell] + moveCost(next, direction);
+                if(cost < best[next]) {
+                    best[next] = cost;
+                    parents[next] = cell;
+                    open.add(next, cost + estimate(heuristic, next, target));
+                    generated++;
+                }
+            }
+        }
+        return notFound(expanded, generated);
+    }
+
+    /**
+     * A* from the source and from the target at once, stopping when the two can no longer improve on the cheapest
+     * path where they've met
+     *
+     * Each side is ordered by the average of the two heuristics, half the distance to its own goal minus half the
+     * distance back to its own start. That keeps the two searches consistent with each other, so the first point
+     * where their combined frontier costs reach the best meeting cost proves it's the cheapest path. Keys are kept
+     * doubled to stay in whole numbers.
+     */
+    public Result bidirectional(int source, int target, Heuristic heuristic) {
+        checkCell(source);
+        checkCell(target);
+        Preconditions.checkNotNull(heuristic);
+        if(costs[source] == 0 || costs[target] == 0) {
+            return notFound(0, 0);
+        }
+        if(source == target) {
+            return new Result(new int[]{ source }, 0, 0, 0);
+        }
+        long[] forward = new long[costs.length];
+        long[] backward = new long[costs.length];
+        Arrays.fill(forward, Long.MAX_VALUE);
+        Arrays.fill(backward, Long.MAX_VALUE);
+        int[] forwardParents = new int[costs.length];
+        int[] backwardParents = new int[costs.length];
+        long[] forwardClosed = new long[(costs.length + 63) >>> 6];
+        long[] backwardClosed = new long[forwardClosed.length];
+        var forwardOpen = new IntMinHeap();
+        var backwardOpen = new IntMinHeap();
+        forward[source] = 0;
+        backward[target] = 0;
+        forwardParents[source] = -1;
+        backwardParents[target] = -1;
+        forwardOpen.add(source, potential(heuristic, source, source, target));
+        backwardOpen.add(target, potential(heuristic, target, target, source));
+
+        long bestCost = Long.MAX_VALUE;
+        int meeting = -1;
+        int expanded = 0;
+        int generated = 2;
+        while(!forwardOpen.isEmpty() && !backwardOpen.isEmpty()) {
+            long forwardTop = forwardOpen.peekPriority();
+            long backwardTop = backwardOpen.peekPriority();
+            if(bestCost != Long.MAX_VALUE && forwardTop + backwardTop >= 2 * bestCost) {
+                break;
+            }
+            boolean isForward = forwardTop <= backwardTop;
+            var open = isForward ? forwardOpen : backwardOpen;
+            long[] closed = isForward ? forwardClosed : backwardClosed;
+            long[] best = isForward ? forward : backward;
+            long[] other = isForward ? backward : forward;
+            int[] parents = isForward ? forwardParents : backwardParents;
+            int from = isForward ? source : target;
+            int to = isForward ? target : source;
+
+            int cell = open.poll();
+            if(isSet(closed, cell)) {
+                continue;
+            }
+            set(closed, cell);
+            expanded++;
+            int row = cell / columns;
+            int column = cell - row * columns;
+            for(int direction = 0; direction < directions; direction++) {
+                int next = step(row, column, direction);
+                if(next < 0) {
+                    continue;
+                }
+                // Going backwards the move is from next onto cell, so it's cell's cost that's paid
+                long cost = best[cell] + moveCost(isForward ? next : cell, direction);
+                if(cost < best[next]) {
+                    best[next] = cost;
+                    parents[next] = cell;
+                    open.add(next, 2 * cost + potential(heuristic, next, from, to));
+                    generated++;
+                    if(other[next] != Long.MAX_VALUE && cost + other[next] < bestCost) {
+                        bestCost = cost + other[next];
+                        meeting = next;
+                    }
+                }
+            }
+        }
+        if(meeting < 0) {
+            return notFound(expanded, generated);
+        }
+        int[] toMeeting = walkParents(forwardParents, meeting, false);
+        int[] fromMeeting = walkParents(backwardParents, meeting, true);
+        int[] path = Arrays.copyOf(toMeeting, toMeeting.length + fromMeeting.length - 1);
+        System.arraycopy(fromMeeting, 1, path, toMeeting.length, fromMeeting.length - 1);
+        return new Result(path, bestCost, expanded, generated);
+    }
+
+    /**
+     * Jump point search: A* with the octile heuristic that only expands cells where an optimal path might turn
+     *
+     * From each expanded cell the search scans straight and diagonally until it finds a cell with a neighbour that
+     * can't be reached as cheaply any other way, and only those cells go in the open set. Needs 8-connected movement
+     * and the same cost on every passable cell, throws IllegalStateException otherwise.
+     */
+    public Result jumpPoint(int source, int target) {
+        checkCell(source);
+        checkCell(target);
+        Preconditions.checkState(movement == Movement.EIGHT && uniform,
+                "Jump point search needs 8-connected movement and uniform costs");
+        if(costs[source] == 0 || costs[target] == 0) {
+            return notFound(0, 0);
+        }
+        long[] best = new long[costs.length];
+        Arrays.fill(best, Long.MAX_VALUE);
+        int[] parents = new int[costs.length];
+        long[] closed = new long[(costs.length + 63) >>> 6];
+        var open = new IntMinHeap();
+        best[source] = 0;
+        parents[source] = -1;
+        open.add(source, estimate(Heuristic.OCTILE, source, target));
+        int expanded = 0;
+        int generated = 1;
+        int[] successors = new int[8];
+        while(!open.isEmpty()) {
+            int cell = open.poll();
+            if(isSet(closed, cell)) {
+                continue;
+            }
+            set(closed, cell);
+            expanded++;
+            if(cell == target) {
+                return new Result(fillJumps(walkParents(parents, target, false)), best[target], expanded, generated);
+            }
+            int count = jumpSuccessors(cell, parents[cell], target, successors);
+            for(int i = 0; i < count; i++) {
+                int next = successors[i];
+                if(isSet(closed, next)) {
+                    continue;
+                }
+                long cost = best[cell] + estimate(Heuristic.OCTILE, cell, next);
+                if(cost < best[next]) {
+                    best[next] = cost;
+                    parents[next] = cell;
+                    open.add(next, cost + estimate(Heuristic.OCTILE, next, target));
+                    generated++;
+                }
+            }
+        }
+        return notFound(expanded, generated);
+    }
+
+    /**
+     * Finds the jump points reachable from a cell, pruning the directions that a path arriving from parent would
+     * never need to take. Returns how many were written to successors.
+     */
+    private int jumpSuccessors(int cell, int parent, int target, int[] successors) {
+        int row = cell / columns;
+        int column = cell - row * columns;
+        int count = 0;
+        if(parent < 0) {
+            for(int direction = 0; direction < 8; direction++) {
+                if(step(row, column, direction) >= 0) {
+                    count = addJump(row, column, ROW_STEPS[direction], COLUMN_STEPS[direction], target, successors, count);
+                }
+            }
+            return count;
+        }
+        int parentRow = parent / columns;
+        int rowStep = Integer.signum(row - parentRow);
+        int columnStep = Integer.signum(column - (parent - parentRow * columns));
+        if(rowStep != 0 && columnStep != 0) {
+            boolean vertical = passable(row + rowStep, column);
+            boolean horizontal = passable(row, column + columnStep);
+            if(vertical) {
+                count = addJump(row, column, rowStep, 0, target, successors, count);
+            }
+            if(horizontal) {
+                count = addJump(row, column, 0, columnStep, target, successors, count);
+            }
+            if(vertical && horizontal) {
+                count = addJump(row, column, rowStep, columnStep, target, successors, count);
+            }
+        } else if(columnStep != 0) {
+            boolean ahead = passable(row, column + columnStep);
+            boolean below = passable(row + 1, column);
+            boolean above = passable(row - 1, column);
+            if(ahead) {
+                count = addJump(row, column, 0, columnStep, target, successors, count);
+                if(below) {
+                    count = addJump(row, column, 1, columnStep, target, successors, count);
+                }
+                if(above) {
+                    count = addJump(row, column, -1, columnStep, target, successors, count);
+                }
+            }
+            if(below) {
+                count = addJump(row, column, 1, 0, target, successors, count);
+            }
+            if(above) {
+                count = addJump(row, column, -1, 0, target, successors, count);
+            }
+        } else {
+            boolean ahead = passable(row + rowStep, column);
+            boolean right = passable(row, column + 1);
+            boolean left = passable(row, column - 1);
+            if(ahead) {
+                count = addJump(row, column, rowStep, 0, target, successors, count);
+                if(right) {
+                    count = addJump(row, column, rowStep, 1, target, successors, count);
+                }
+                if(left) {
+                    count = addJump(row, column, rowStep, -1, target, successors, count);
+                }
+            }
+            if(right) {
+                count = addJump(row, column, 0, 1, target, successors, count);
+            }
+            if(left) {
+                count = addJump(row, column, 0, -1, target, successors, count);
+            }
+        }
+        return count;
+    }
+
+    private int addJump(int row, int column, int rowStep, int columnStep, int target, int[] successors, int count) {
+        int jump = rowStep != 0 && columnStep != 0 ?
+                jumpDiagonally(row + rowStep, column + columnStep, rowStep, columnStep, target) :
+                jumpStraight(row + rowStep, column + columnStep, rowStep, columnStep, target);
+        if(jump >= 0) {
+            successors[count++] = jump;
+        }
+        return count;
+    }
+
+    /**
+     * Scans from a cell in a straight line for the first jump point, -1 if the line runs into a wall first
+     * A cell is a jump point when it's the target or a cell beside it is open but the cell behind that is blocked,
+     * since that neighbour can't be reached as cheaply without passing through this cell.
+     */
+    private int jumpStraight(int row, int column, int rowStep, int columnStep, int target) {
+        while(passable(row, column)) {
+            int cell = row * columns + column;
+            if(cell == target) {
+                return cell;
+            }
+            if(columnStep != 0) {
+                if((passable(row - 1, column) && !passable(row - 1, column - columnStep)) ||
+                    (passable(row + 1, column) && !passable(row + 1, column - columnStep))) {
+                    return cell;
+                }
+            } else if((passable(row, column - 1) && !passable(row - rowStep, column - 1)) ||
+                (passable(row, column + 1) && !passable(row - rowStep, column + 1))) {
+                return cell;
+            }
+            row += rowStep;
+            column += columnStep;
+        }
+        return -1;
+    }
+
+    /**
+     * Scans diagonally for the first cell that is the target or has a jump point straight ahead of it
+     * in either of the diagonal's two directions
+     */
+    private int jumpDiagonally(int row, int column, int rowStep, int columnStep, int target) {
+        while(passable(row, column)) {
+            int cell = row * columns + column;
+            if(cell == target ||
+                jumpStraight(row, column + columnStep, 0, columnStep, target) >= 0 ||
+                jumpStraight(row + rowStep, column, rowStep, 0, target) >= 0) {
+                return cell;
+            }
+            // No cutting corners
+            if(!passable(row + rowStep, column) || !passable(row, column + columnStep)) {
+                return -1;
+            }
+            row += rowStep;
+            column += columnStep;
+        }
+        return -1;
+    }
+
+    /**
+     * Expands a path of jump points into every cell along it, the cells between two jump points are always in
+     * a straight or diagonal line
+     */
+    private int[] fillJumps(int[] jumps) {
+        int length = 1;
+        for(int i = 1; i < jumps.length; i++) {
+            length += Math.max(Math.abs(jumps[i] / columns - jumps[i - 1] / columns),
+                    Math.abs(jumps[i] % columns - jumps[i - 1] % columns));
+        }
+        int[] path = new int[length];
+        path[0] = jumps[0];
+        int index = 1;
+        for(int i = 1; i < jumps.length; i++) {
+            int rowStep = Integer.signum(jumps[i] / columns - jumps[i - 1] / columns);
+            int columnStep = Integer.signum(jumps[i] % columns - jumps[i - 1] % columns);
+            int cell = jumps[i - 1];
+            while(cell != jumps[i]) {
+                cell += rowStep * columns + columnStep;
+                path[index++] = cell;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * The cell one step from (row, column) in a direction, or -1 if that move isn't allowed
+     */
+    private int step(int row, int column, int direction) {
+        int nextRow = row + ROW_STEPS[direction];
+        int nextColumn = column + COLUMN_STEPS[direction];
+        if(!passable(nextRow, nextColumn)) {
+            return -1;
+        }
+        if(direction >= 4 && (!passable(nextRow, column) || !passable(row, nextColumn))) {
+            return -1;
+        }
+        return nextRow * columns + nextColumn;
+    }
+
+    private long moveCost(int onto, int direction) {
+        return (long)costs[onto] * (direction >= 4 ? DIAGONAL : STRAIGHT);
+    }
+
+    private boolean passable(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns && costs[row * columns + column] != 0;
+    }
+
+    private long estimate(Heuristic heuristic, int from, int to) {
+        int fromRow = from / columns;
+        int toRow = to / columns;
+        return cheapestCost * heuristic.estimate(Math.abs(fromRow - toRow),
+                Math.abs((from - fromRow * columns) - (to - toRow * columns)));
+    }
+
+    /**
+     * Twice the average potential of a cell for the search running from start to goal
+     */
+    private long potential(Heuristic heuristic, int cell, int start, int goal) {
+        return estimate(heuristic, cell, goal) - estimate(heuristic, cell, start);
+    }
+
+    /**
+     * Follows parents back from a cell to the start of the search, returning the cells start first,
+     * or the cell first when reversed
+     */
+    private static int[] walkParents(int[] parents, int cell, boolean reversed) {
+        int length = 0;
+        for(int at = cell; at >= 0; at = parents[at]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int index = reversed ? 0 : length - 1;
+        for(int at = cell; at >= 0; at = parents[at]) {
+            path[index] = at;
+            index += reversed ? 1 : -1;
+        }
+        return path;
+    }
+
+    private static Result notFound(int expanded, int generated) {
+        return new Result(new int[0], -1, expanded, generated);
+    }
+
+    private void checkCell(int cell) {
+        Preconditions.checkElementIndex(cell, costs.length, "cell");
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+}
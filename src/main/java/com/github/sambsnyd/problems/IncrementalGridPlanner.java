@@ -0,0 +1,203 @@
+package com.github.sambsnyd.problems;
+
+import com.github.sambsnyd.datastructures.BitGrid;
+import com.github.sambsnyd.datastructures.IntMinHeap;
+import com.google.common.base.Preconditions;
+
+/**
+ * Plans right/down routes to the bottom right of a grid whose cells keep changing, repairing the plan after each
+ * batch of changes rather than searching the whole grid again
+ *
+ * Like D* Lite the plan is kept backwards from the goal: every cell knows whether the bottom right can be reached
+ * from it and which way to step to get there, so a route can be followed from any cell. When a cell changes only
+ * the cells that route through it can be affected, and for right/down movement those are the cells above and to the
+ * left. Changed cells are queued and repaired in descending cell order, which visits every cell after the cells it
+ * can step to, so each affected cell is expanded once per replan and cells outside the affected region aren't
+ * touched at all.
+ *
+ * As with robotTraverseGrid the cell a route starts from is where the robot already is, so its own passability
+ * isn't checked.
+ */
+public class IncrementalGridPlanner {
+
+    private final BitGrid grid;
+    private final int end;
+    // Whether the bottom right can be reached from each cell, including the cell's own passability
+    private final long[] reachesEnd;
+    // For cells that can reach the end, whether the next step is down rather than right
+    private final long[] stepsDown;
+    private final long[] queued;
+    private final IntMinHeap pending = new IntMinHeap();
+    private int lastExpansionCount;
+    private long totalExpansionCount;
+
+    /**
+     * Copies the grid, later changes have to be made through setPassable
+     */
+    public IncrementalGridPlanner(BitGrid grid) {
+        Preconditions.checkNotNull(grid);
+        this.grid = grid.copy();
+        end = grid.cellCount() - 1;
+        int words = (grid.cellCount() + 63) >>> 6;
+        reachesEnd = new long[words];
+        stepsDown = new long[words];
+        queued = new long[words];
+        for(int cell = end; cell >= 0; cell--) {
+            expand(cell);
+        }
+        lastExpansionCount = grid.cellCount();
+        totalExpansionCount = lastExpansionCount;
+    }
+
+    public boolean isPassable(int cell) {
+        return grid.isPassable(cell);
+    }
+
+    /**
+     * Records a change to a cell, the plan is repaired by the next replan or query
+     */
+    public void setPassable(int cell, boolean passable) {
+        Preconditions.checkElementIndex(cell, grid.cellCount(), "cell");
+        if(grid.isPassable(cell) != passable) {
+            grid.setPassable(cell, passable);
+            enqueue(cell);
+        }
+    }
+
+    public void setPassable(int row, int column, boolean passable) {
+        setPassable(grid.cell(row, column), passable);
+    }
+
+    /**
+     * Repairs the plan after the changes made since the last replan
+     * Returns how many cells had to be expanded, 0 if nothing changed
+     */
+    public int replan() {
+        int expansions = 0;
+        while(!pending.isEmpty()) {
+            int cell = pending.poll();
+            queued[cell >>> 6] &= ~(1L << cell);
+            expansions++;
+            if(expand(cell)) {
+                // Only the cells that can step onto this one depend on it
+                if(grid.column(cell) > 0) {
+                    enqueue(cell - 1);
+                }
+                if(cell >= grid.columns()) {
+                    enqueue(cell - grid.columns());
+                }
+            }
+        }
+        lastExpansionCount = expansions;
+        totalExpansionCount += expansions;
+        return expansions;
+    }
+
+    /**
+     * The number of cells expanded by the most recent replan, or by building the initial plan
+     */
+    public int getLastExpansionCount() {
+        return lastExpansionCount;
+    }
+
+    public long getTotalExpansionCount() {
+        return totalExpansionCount;
+    }
+
+    public boolean hasPath() {
+        return hasPath(0);
+    }
+
+    public boolean hasPath(int from) {
+        Preconditions.checkElementIndex(from, grid.cellCount(), "cell");
+        replanIfPending();
+        return from == end || nextStep(from) >= 0;
+    }
+
+    public int[] path() {
+        return path(0);
+    }
+
+    /**
+     * The planned route from a cell to the bottom right as cells, or an empty array if there is none
+     */
+    public int[] path(int from) {
+        Preconditions.checkElementIndex(from, grid.cellCount(), "cell");
+        replanIfPending();
+        int[] path = new int[grid.rows() - grid.row(from) + grid.columns() - grid.column(from) - 1];
+        path[0] = from;
+        if(from == end) {
+            return path;
+        }
+        int cell = nextStep(from);
+        if(cell < 0) {
+            return new int[0];
+        }
+        for(int i = 1; i < path.length; i++) {
+            path[i] = cell;
+            cell = isSet(stepsDown, cell) ? cell + grid.columns() : cell + 1;
+        }
+        return path;
+    }
+
+    private void replanIfPending() {
+        if(!pending.isEmpty()) {
+            replan();
+        }
+    }
+
+    /**
+     * The first step from a cell towards the end ignoring the cell's own passability, or -1 if there isn't one
+     */
+    private int nextStep(int cell) {
+        if(grid.column(cell) + 1 < grid.columns() && isSet(reachesEnd, cell + 1)) {
+            return cell + 1;
+        }
+        if(cell + grid.columns() <= end && isSet(reachesEnd, cell + grid.columns())) {
+            return cell + grid.columns();
+        }
+        return -1;
+    }
+
+    /**
+     * Recomputes a cell from the cells it can step to, returning whether it can now reach the end when it
+     * couldn't before or the other way around
+     */
+    private boolean expand(int cell) {
+        boolean reaches;
+        boolean down = false;
+        if(!grid.isPassable(cell)) {
+            reaches = false;
+        } else if(cell == end) {
+            reaches = true;
+        } else {
+            boolean right = grid.column(cell) + 1 < grid.columns() && isSet(reachesEnd, cell + 1);
+            down = !right && cell + grid.columns() <= end && isSet(reachesEnd, cell + grid.columns());
+            reaches = right || down;
+        }
+        set(stepsDown, cell, down);
+        boolean changed = isSet(reachesEnd, cell) != reaches;
+        set(reachesEnd, cell, reaches);
+        return changed;
+    }
+
+    private void enqueue(int cell) {
+        if(!isSet(queued, cell)) {
+            queued[cell >>> 6] |= 1L << cell;
+            // Highest cell first, a cell's successors are always after it
+            pending.add(cell, -cell);
+        }
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void set(long[] bits, int index, boolean value) {
+        if(value) {
+            bits[index >>> 6] |= 1L << index;
+        } else {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package com.github.sambsnyd.problems;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * findMagicIndex for batches of sorted arrays, iterative and without data-dependent branches in the inner loops
+ *
+ * Unlike findMagicIndex, which returns whichever magic index its recursion reaches first, these always return the
+ * lowest magic index, or -1 if there is none, so results don't depend on how the search is split up.
+ *
+ * Two cores, chosen by Ordering:
+ * - STRICTLY_INCREASING: A[i] - i never decreases, so the lowest i where it reaches 0 is found by a binary search
+ *   whose loop body is arithmetic on the comparison's sign rather than an if, O(log n)
+ * - NON_DECREASING: duplicates allowed, so A[i] - i can fall. Where A[i] > i no magic index can lie before A[i] and the
+ *   scan jumps straight there. Runs where A[i] < i are scanned 8 elements at a time, OR-ing together the sign bits
+ *   of A[i] - i so a block costs one branch rather than eight.
+ *
+ * A batch is either an array of arrays, or one array holding many arrays back to back with offsets[j] the start of
+ * array j and offsets[count] the end of the last, where indexes are relative to each array's start. Batches are
+ * split across a fork-join pool and results come back as an int[] with one entry per array.
+ *
+ * For every magic index rather than the lowest, magicIndexes walks the same ranges findMagicIndex recurses into, in
+ * order and lazily, and Index keeps one array's magic indexes for repeated range queries.
+ */
+public final class MagicIndexSearch {
+
+    public enum Ordering { STRICTLY_INCREASING, NON_DECREASING }
+
+    // Below this many elements a batch is searched without forking, forking costs more than it saves
+    private static final int PARALLEL_THRESHOLD = 16_384;
+    private static final int BLOCK = 8;
+
+    private MagicIndexSearch() { }
+
+    /**
+     * The lowest i in [0, to - from) with values[from + i] == i, or -1 if there isn't one
+     */
+    public static int lowestMagicIndex(int[] values, int from, int to, Ordering ordering) {
+        Preconditions.checkNotNull(values);
+        Preconditions.checkNotNull(ordering);
+        Preconditions.checkPositionIndexes(from, to, values.length);
+        return ordering == Ordering.STRICTLY_INCREASING ?
+                lowestStrictlyIncreasing(values, from, to) :
+                lowestNonDecreasing(values, from, to);
+    }
+
+    public static int lowestMagicIndex(int[] values, Ordering ordering) {
+        Preconditions.checkNotNull(values);
+        return lowestMagicIndex(values, 0, values.length, ordering);
+    }
+
+    public static int[] lowestMagicIndexes(int[][] arrays, Ordering ordering) {
+        return lowestMagicIndexes(ForkJoinPool.commonPool(), arrays, ordering);
+    }
+
+    public static int[] lowestMagicIndexes(ForkJoinPool pool, int[][] arrays, Ordering ordering) {
+        Preconditions.checkNotNull(pool);
+        Preconditions.checkNotNull(arrays);
+        Preconditions.checkNotNull(ordering);
+        // Prefix sums of the lengths so that tasks can split batches by element count rather than array count
+        long[] ends = new long[arrays.length + 1];
+        for(int i = 0; i < arrays.length; i++) {
+            Preconditions.checkNotNull(arrays[i], "arrays[%s]", i);
+            ends[i + 1] = ends[i] + arrays[i].length;
+        }
+        int[] results = new int[arrays.length];
+        pool.invoke(new BatchTask(0, arrays.length, ends,
+                array -> results[array] = lowestMagicIndex(arrays[array], ordering)));
+        return results;
+    }
+
+    public static int[] lowestMagicIndexes(int[] values, int[] offsets, Ordering ordering) {
+        return lowestMagicIndexes(ForkJoinPool.commonPool(), values, offsets, ordering);
+    }
+
+    public static int[] lowestMagicIndexes(ForkJoinPool pool, int[] values, int[] offsets, Ordering ordering) {
+        Preconditions.checkNotNull(pool);
+        Preconditions.checkNotNull(values);
+        Preconditions.checkNotNull(offsets);
+        Preconditions.checkNotNull(ordering);
+        Preconditions.checkArgument(offsets.length > 0, "offsets needs an entry for the end of the last array");
+        long[] ends = new long[offsets.length];
+        for(int i = 0; i < offsets.length; i++) {
+            Preconditions.checkArgument(i == 0 || offsets[i] >= offsets[i - 1], "offsets must not decrease");
+            ends[i] = offsets[i];
+        }
+        Preconditions.checkPositionIndexes(offsets[0], offsets[offsets.length - 1], values.length);
+        int[] results = new int[offsets.length - 1];
+        pool.invoke(new BatchTask(0, results.length, ends,
+                array -> results[array] = lowestMagicIndex(values, offsets[array], offsets[array + 1], ordering)));
+        return results;
+    }
+
+    /**
+     * Every i in [0, to - from) with values[from + i] == i, lowest first, for non-decreasing values
+     *
+     * Ranges are pruned exactly as findMagicIndex prunes them: with mid the middle of a range and v = values[mid],
+     * nothing in (v, mid) or (mid, v) can be magic, so only [lo, min(mid - 1, v)] and [max(mid + 1, v), hi] are
+     * searched. The two are disjoint and on either side of mid, so visiting them left to right yields indexes in
+     * increasing order. Ranges wait on an explicit stack rather than the call stack and are only opened when the
+     * stream gets to them, so findFirst or limit stop the search early.
+     */
+    public static IntStream magicIndexes(int[] values, int from, int to) {
+        Preconditions.checkNotNull(values);
+        Preconditions.checkPositionIndexes(from, to, values.length);
+        return StreamSupport.intStream(new MagicIndexSpliterator(values, from, to), false);
+    }
+
+    public static IntStream magicIndexes(int[] values) {
+        Preconditions.checkNotNull(values);
+        return magicIndexes(values, 0, values.length);
+    }
+
+    /**
+     * magicIndexes as a BitSet, one bit per magic index
+     */
+    public static BitSet magicIndexBits(int[] values) {
+        var bits = new BitSet();
+        magicIndexes(values).forEach(bits::set);
+        return bits;
+    }
+
+    /**
+     * The magic indexes of one non-decreasing array, found once and kept sorted so that each query is a binary search
+     * Counting the magic indexes in [lo, hi] is O(log n) and listing them is O(log n + k) for k results. An index
+     * holds a copy of the results, later changes to the array aren't seen.
+     */
+    public static final class Index {
+        private final int length;
+        private final int[] fixedPoints;
+
+        private Index(int length, int[] fixedPoints) {
+            this.length = length;
+            this.fixedPoints = fixedPoints;
+        }
+
+        public static Index of(int[] values) {
+            Preconditions.checkNotNull(values);
+            return new Index(values.length, magicIndexes(values).toArray());
+        }
+
+        /**
+         * The length of the array the index was built from
+         */
+        public int length() {
+            return length;
+        }
+
+        public int count() {
+            return fixedPoints.length;
+        }
+
+        public boolean isMagic(int index) {
+            Preconditions.checkElementIndex(index, length, "index");
+            return Arrays.binarySearch(fixedPoints, index) >= 0;
+        }
+
+        /**
+         * The number of magic indexes i with lo <= i <= hi
+         */
+        public int count(int lo, int hi) {
+            checkRange(lo, hi);
+            return firstAtLeast(hi + 1) - firstAtLeast(lo);
+        }
+
+        /**
+         * The magic indexes i with lo <= i <= hi, lowest first
+         */
+        public IntStream between(int lo, int hi) {
+            checkRange(lo, hi);
+            return Arrays.stream(fixedPoints, firstAtLeast(lo), firstAtLeast(hi + 1));
+        }
+
+        /**
+         * The lowest magic index at or after from, or -1 if there isn't one
+         */
+        public int next(int from) {
+            Preconditions.checkArgument(from >= 0, "from can't be negative");
+            int position = firstAtLeast(from);
+            return position < fixedPoints.length ? fixedPoints[position] : -1;
+        }
+
+        public int[] toArray() {
+            return fixedPoints.clone();
+        }
+
+        private void checkRange(int lo, int hi) {
+            Preconditions.checkElementIndex(lo, length, "lo");
+            Preconditions.checkElementIndex(hi, length, "hi");
+            Preconditions.checkArgument(lo <= hi, "lo %s is after hi %s", lo, hi);
+        }
+
+        /**
+         * The position of the first fixed point >= index, fixedPoints.length if there isn't one
+         */
+        private int firstAtLeast(int index) {
+            int low = 0;
+            int high = fixedPoints.length;
+            while(low < high) {
+                int mid = (low + high) >>> 1;
+                if(fixedPoints[mid] < index) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Branch-free lower bound: the first i with values[from + i] >= i, then a check that it's equal
+     * The comparison's sign bit decides whether base moves, which compiles to arithmetic or a conditional move.
+     */
+    private static int lowestStrictlyIncreasing(int[] values, int from, int to) {
+        int length = to - from;
+        if(length == 0) {
+            return -1;
+        }
+        int base = 0;
+        while(length > 1) {
+            int half = length >>> 1;
+            int probe = base + half - 1;
+            // All ones when values[from + probe] < probe, so the answer is past probe
+            int below = (int)(((long)values[from + probe] - probe) >> 63);
+            base += half & below;
+            length -= half;
+        }
+        // The answer is base, or the index after it when values[from + base] is still below base
+        int candidate = base - (int)(((long)values[from + base] - base) >> 63);
+        return candidate < to - from && values[from + candidate] == candidate ? candidate : -1;
+    }
+
+    private static int lowestNonDecreasing(int[] values, int from, int to) {
+        int length = to - from;
+        int i = 0;
+        while(i < length) {
+            long difference = (long)values[from + i] - i;
+            if(difference == 0) {
+                return i;
+            }
+            if(difference > 0) {
+                // values[from + j] >= values[from + i] > j for every j before values[from + i]
+                i = Math.min(length, values[from + i]);
+                continue;
+            }
+            i++;
+            // Skip whole blocks where every values[from + j] < j
+            while(i + BLOCK <= length) {
+                long anyAtLeast = 0;
+                for(int j = i; j < i + BLOCK; j++) {
+                    anyAtLeast |= ~((long)values[from + j] - j);
+                }
+                if(anyAtLeast < 0) {
+                    break;
+                }
+                i += BLOCK;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The in-order walk behind magicIndexes
+     * The stack holds pairs: a range [lo, hi] still to be searched, or an index known to be magic as (index, EMIT).
+     * Ranges are relative to from so that the indexes handed out are too.
+     */
+    private static class MagicIndexSpliterator extends Spliterators.AbstractIntSpliterator {
+        private static final int EMIT = Integer.MIN_VALUE;
+
+        private final int[] values;
+        private final int from;
+        private int[] stack = new int[16];
+        private int size;
+
+        MagicIndexSpliterator(int[] values, int from, int to) {
+            super(to - from, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL);
+            this.values = values;
+            this.from = from;
+            pushRange(0, to - from - 1);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            Preconditions.checkNotNull(action);
+            while(size > 0) {
+                int second = stack[--size];
+                int first = stack[--size];
+                if(second == EMIT) {
+                    action.accept(first);
+                    return true;
+                }
+                int lo = first;
+                int hi = second;
+                int mid = (lo + hi) >>> 1;
+                int value = values[from + mid];
+                // Pushed in reverse so the left side comes off the stack first
+                pushRange(Math.max(mid + 1, value), hi);
+                if(value == mid) {
+                    push(mid, EMIT);
+                }
+                pushRange(lo, Math.min(mid - 1, value));
+            }
+            return false;
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return null;
+        }
+
+        /**
+         * Empty ranges are never pushed, so a range's hi is never mistaken for EMIT
+         */
+        private void pushRange(int lo, int hi) {
+            if(lo <= hi) {
+                push(lo, hi);
+            }
+        }
+
+        private void push(int first, int second) {
+            if(size + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[size++] = first;
+            stack[size++] = second;
+        }
+    }
+
+    /**
+     * Searches arrays [from, to) of a batch, splitting at the array that halves the number of elements
+     * until fewer than PARALLEL_THRESHOLD elements are left
+     */
+    private static class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        // ends[j] is where array j starts, so ends[to] - ends[from] is the number of elements in the task
+        private final long[] ends;
+        private final IntConsumer search;
+
+        BatchTask(int from, int to, long[] ends, IntConsumer search) {
+            this.from = from;
+            this.to = to;
+            this.ends = ends;
+            this.search = search;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= 1 || ends[to] - ends[from] < PARALLEL_THRESHOLD) {
+                for(int array = from; array < to; array++) {
+                    search.accept(array);
+                }
+                return;
+            }
+            // The first array that starts at or after halfway through the task's elements, kept strictly inside
+            long halfway = (ends[from] + ends[to]) >>> 1;
+            int low = from + 1;
+            int high = to - 1;
+            while(low < high) {
+                int mid = (low + high) >>> 1;
+                if(ends[mid] < halfway) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            invokeAll(new BatchTask(from, low, ends, search), new BatchTask(low, to, ends, search));
+        }
+    }
+}
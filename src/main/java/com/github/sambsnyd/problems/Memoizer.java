@@ -0,0 +1,76 @@
+package com.github.sambsnyd.problems;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.function.Function;
+
+/**
+ * A thread-safe memo table with a maximum size, for recursive methods to share across calls and threads
+ *
+ * Backed by a Guava cache, so once it holds maximumSize entries the least recently used ones are evicted.
+ * Hits and misses are counted for lookups made through computeIfAbsent, internal lookups through peek are not.
+ */
+public class Memoizer<K, V> {
+
+    private final Cache<K, V> cache;
+
+    public Memoizer(long maximumSize) {
+        Preconditions.checkArgument(maximumSize > 0, "Maximum size must be positive");
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the memoized value for key, computing and remembering it first if it's absent
+     *
+     * compute may call back into this memoizer for other keys, which is how recursive methods plug in.
+     * No lock is held while computing, so two threads that miss on the same key at the same time may both
+     * compute it. Memoized functions are deterministic, so whichever value is stored last is as good as the other.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> compute) {
+        Preconditions.checkNotNull(key);
+        Preconditions.checkNotNull(compute);
+        V value = cache.getIfPresent(key);
+        if(value == null) {
+            value = compute.apply(key);
+            Preconditions.checkNotNull(value, "Memoized functions must not return null");
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the memoized value for key or null, without counting it as a hit or a miss
+     */
+    public V peek(K key) {
+        return cache.asMap().get(key);
+    }
+
+    public void put(K key, V value) {
+        cache.put(key, value);
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    public long evictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
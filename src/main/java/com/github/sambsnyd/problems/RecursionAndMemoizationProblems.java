@@ -1,16 +1,36 @@
 package com.github.sambsnyd.problems;
 
+import com.github.sambsnyd.datastructures.BitGrid;
+import com.github.sambsnyd.datastructures.IntMinHeap;
+import com.github.sambsnyd.datastructures.PowerSet;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayTable;
-import com.google.common.collect.MinMaxPriorityQueue;
 
+import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
 
 /**
  * From Cracking the Coding Interview 6th edition, chapter 8, page 134
  * Example solutions begin on page 342
  */
 public class RecursionAndMemoizationProblems {
+
+    // Shared by every call on this instance, so request threads sharing an instance share the work too
+    private final Memoizer<Integer, Long> stairMemo;
+    // The largest step count whose combinations have been computed, the place to resume from
+    private final AtomicInteger largestStairComputed = new AtomicInteger(3);
+
+    public RecursionAndMemoizationProblems() {
+        this(new Memoizer<>(1_024));
+    }
+
+    public RecursionAndMemoizationProblems(Memoizer<Integer, Long> stairMemo) {
+        Preconditions.checkNotNull(stairMemo);
+        this.stairMemo = stairMemo;
+    }
+
     /**
      * A child is running up a staircase with n steps and can hop either 1 step, 2 steps or 3 steps at a time
      * Implement a method to count how many possible ways a child can run up the stairs
@@ -52,6 +72,119 @@ public class RecursionAndMemoizationProblems {
         return memo[stepsRemaining];
     }
 
+    /**
+     * Counts stair climbs using the memo table shared by every call on this instance
+     * A step count that's been seen before is a single lookup. Otherwise counting resumes upward from the largest
+     * step count computed so far, remembering every count along the way, so a series of calls with growing step
+     * counts costs O(1) each on average. If eviction has removed the counts it needs it starts again from 3 steps.
+     *
+     * Throws ArithmeticException once the count no longer fits in a long, which happens past 72 steps
+     */
+    public long stairTraversalCombinationsCached(int stepCount) {
+        Preconditions.checkArgument(stepCount >= 0, "Step count must not be negative");
+        if(stepCount <= 3) {
+            return stairTraversalCombinationsBrute(stepCount);
+        }
+        return stairMemo.computeIfAbsent(stepCount, this::extendStairMemo);
+    }
+    private long extendStairMemo(int stepCount) {
+        int from = Math.min(largestStairComputed.get(), stepCount - 1);
+        Long threeBelow = stairMemo.peek(from - 2);
+        Long twoBelow = stairMemo.peek(from - 1);
+        Long oneBelow = stairMemo.peek(from);
+        if(from <= 3 || threeBelow == null || twoBelow == null || oneBelow == null) {
+            from = 3;
+            threeBelow = 1L;
+            twoBelow = 2L;
+            oneBelow = 4L;
+        }
+        long previous3 = threeBelow;
+        long previous2 = twoBelow;
+        long previous1 = oneBelow;
+        for(int step = from + 1; step < stepCount; step++) {
+            long current = Math.addExact(Math.addExact(previous1, previous2), previous3);
+            stairMemo.put(step, current);
+            previous3 = previous2;
+            previous2 = previous1;
+            previous1 = current;
+        }
+        largestStairComputed.accumulateAndGet(stepCount, Math::max);
+        return Math.addExact(Math.addExact(previous1, previous2), previous3);
+    }
+
+    /**
+     * The stair climbing counts for 1 up to maxSteps steps, O(1) each and in constant memory
+     * maxSteps can be at most 72, the last count that fits in a long. See StairCombinationSequence for more.
+     */
+    public LongStream stairTraversalCombinationsUpTo(int maxSteps) {
+        Preconditions.checkArgument(maxSteps >= 0 && maxSteps <= 72, "Step count must be between 0 and 72");
+        return new StairCombinationSequence().stream().limit(maxSteps);
+    }
+
+    /**
+     * Counts stair climbs in O(log n) with 64-bit arithmetic, see stepCombinations
+     * Throws ArithmeticException once the count no longer fits in a long, which happens past 72 steps
+     */
+    public long stairTraversalCombinationsMatrix(int stepCount) {
+        return stepCombinations(stepCount, 1, 2, 3);
+    }
+
+    /**
+     * Counts stair climbs modulo the given modulus in O(log n), so it works for any number of steps
+     * The modulus must fit in an int so that products of two residues can't overflow a long
+     */
+    public long stairTraversalCombinationsModular(int stepCount, long modulus) {
+        return stepCombinationsModular(stepCount, modulus, 1, 2, 3);
+    }
+
+    /**
+     * Counts stair climbs exactly in O(log n) matrix multiplications, however large the count gets
+     */
+    public BigInteger stairTraversalCombinationsExact(int stepCount) {
+        return stepCombinationsExact(stepCount, 1, 2, 3);
+    }
+
+    /**
+     * Generalizes the staircase problem to any set of allowed hop sizes
+     * The number of ways to climb n stairs is the sum over each allowed hop h of the ways to climb n-h stairs.
+     * That recurrence is a k*k "companion" matrix where k is the largest hop, so the nth count is found by raising
+     * the matrix to the nth power with repeated squaring: O(k^3 log n) rather than O(n) or worse.
+     *
+     * For consistency with stairTraversalCombinationsBrute a staircase of 0 steps has 0 ways to climb it.
+     * Throws ArithmeticException if the count doesn't fit in a long
+     */
+    public long stepCombinations(int stepCount, int... allowedSteps) {
+        return stepCombinations(stepCount, 0, allowedSteps);
+    }
+
+    public long stepCombinationsModular(int stepCount, long modulus, int... allowedSteps) {
+        Preconditions.checkArgument(modulus > 0 && modulus <= Integer.MAX_VALUE,
+                "Modulus must be positive and fit in an int");
+        return stepCombinations(stepCount, modulus, allowedSteps);
+    }
+
+    public BigInteger stepCombinationsExact(int stepCount, int... allowedSteps) {
+        Preconditions.checkArgument(stepCount >= 0, "Step count must not be negative");
+        long[] companion = StepMatrices.companion(allowedSteps);
+        if(stepCount == 0) {
+            return BigInteger.ZERO;
+        }
+        return StepMatrices.powerExact(companion, stepCount)[0];
+    }
+
+    /**
+     * Starting from ways(0) = 1 (the empty climb) and ways(negative) = 0, ways(n) is the top-left entry of M^n
+     * A modulus of 0 counts exactly in a long
+     */
+    private long stepCombinations(int stepCount, long modulus, int[] allowedSteps) {
+        Preconditions.checkArgument(stepCount >= 0, "Step count must not be negative");
+        long[] companion = StepMatrices.companion(allowedSteps);
+        if(stepCount == 0) {
+            return 0;
+        }
+        return StepMatrices.power(companion, stepCount, modulus)[0];
+    }
+
     public static class GridPoint {
         public GridPoint(int row, int column) {
             this.row = row; this.column = column;
@@ -105,72 +238,205 @@ public class RecursionAndMemoizationProblems {
      * Implements A* even though that's overkill for a traversal that has so many constraints
      *
      * Returns an empty list if there is no valid path to the end
+     *
+     * Copies the grid into a BitGrid and searches that, callers with large grids should build a BitGrid directly
      */
     public List<GridPoint> robotTraverseGrid(ArrayTable<Integer, Integer, Boolean> grid) {
         Preconditions.checkNotNull(grid);
         Preconditions.checkArgument(grid.size() > 0, "Grid must be non-empty");
+        return robotTraverseGrid(BitGrid.copyOf(grid));
+    }
 
-        List<GridPoint> result = new ArrayList<>();
-
-        int gridWidth = grid.columnKeyList().size();
-        int gridHeight = grid.rowKeyList().size();
+    public List<GridPoint> robotTraverseGrid(BitGrid grid) {
+        int[] cells = robotTraverseGridCells(grid);
+        List<GridPoint> result = new ArrayList<>(cells.length);
+        for(int cell : cells) {
+            result.add(new GridPoint(grid.row(cell), grid.column(cell)));
+        }
+        return result;
+    }
 
-        GridPoint startingPosition = new GridPoint(0, 0);
-        GridPoint endingPosition = new GridPoint(gridHeight-1, gridWidth-1);
-        // Points that have been discovered but not evaluated
-        // Kept in a heap weakly ordered according to their distance from the endingPosition
-        MinMaxPriorityQueue<GridPoint> toEvaluate =  MinMaxPriorityQueue
-                .orderedBy(Comparator.comparing((GridPoint g) -> g.distance(endingPosition)))
-                .create();
-        toEvaluate.add(startingPosition);
+    /**
+     * The same search as robotTraverseGrid but on primitives throughout, returning the path as cells numbered
+     * row * columns + column, or an empty array if there is no path
+     *
+     * Points are ints rather than GridPoints, the open set is an IntMinHeap ordered by distance to the end, and the
+     * evaluated set is a bitset. The robot only moves right or down, so the only thing worth remembering about how
+     * a cell was reached is whether it was from above, which is a second bitset rather than a map of parents.
+     */
+    public int[] robotTraverseGridCells(BitGrid grid) {
+        Preconditions.checkNotNull(grid);
+        int rows = grid.rows();
+        int columns = grid.columns();
+        int end = grid.cellCount() - 1;
+        long[] evaluated = new long[(grid.cellCount() + 63) >>> 6];
+        long[] reachedFromAbove = new long[evaluated.length];
 
-        // Points that have been discovered and evaluated fully
-        Set<GridPoint> evaluated = new HashSet<>();
+        IntMinHeap toEvaluate = new IntMinHeap();
+        toEvaluate.add(0, rows - 1 + columns - 1);
+        while(!toEvaluate.isEmpty()) {
+            // Take the point with the shortest heuristic distance to the end
+            int cell = toEvaluate.poll();
+            if((evaluated[cell >>> 6] & (1L << cell)) != 0) {
+                // A stale duplicate, the same cell can be discovered from the left and from above
+                continue;
+            }
+            evaluated[cell >>> 6] |= 1L << cell;
+            if(cell == end) {
+                return pathToOrigin(grid, reachedFromAbove, end);
+            }
 
-        // Points that have been evaluated mapped to the smallest known number of steps from the starting position
-        Map<GridPoint, Integer> stepsFromStart = new HashMap<>();
-        stepsFromStart.put(startingPosition, 0);
+            int row = cell / columns;
+            int column = cell - row * columns;
+            int distanceToEnd = (rows - 1 - row) + (columns - 1 - column);
+            int right = cell + 1;
+            if(column + 1 < columns &&
+                (evaluated[right >>> 6] & (1L << right)) == 0 &&
+                grid.isPassable(right)) {
+                toEvaluate.add(right, distanceToEnd - 1);
+                reachedFromAbove[right >>> 6] &= ~(1L << right);
+            }
+            int down = cell + columns;
+            if(row + 1 < rows &&
+                (evaluated[down >>> 6] & (1L << down)) == 0 &&
+                grid.isPassable(down)) {
+                toEvaluate.add(down, distanceToEnd - 1);
+                reachedFromAbove[down >>> 6] |= 1L << down;
+            }
+        }
+        return new int[0];
+    }
+    private int[] pathToOrigin(BitGrid grid, long[] reachedFromAbove, int endCell) {
+        // Every right/down path to a cell visits exactly row + column + 1 cells, so the path is filled back to front
+        int[] path = new int[grid.row(endCell) + grid.column(endCell) + 1];
+        int cell = endCell;
+        for(int i = path.length - 1; i >= 0; i--) {
+            path[i] = cell;
+            cell = (reachedFromAbove[cell >>> 6] & (1L << cell)) != 0 ? cell - grid.columns() : cell - 1;
+        }
+        return path;
+    }
 
-        // Map of a GridPoint to the GridPoint it was discovered from.
-        Map<GridPoint, GridPoint> pathToOrigin = new HashMap<>();
+    /**
+     * Whether the robot can get from the top left to the bottom right of the grid moving only right or down
+     *
+     * Right/down movement means no search is needed: a cell is reachable if it's passable and the cell above or to the
+     * left of it is reachable, so one pass over the rows decides it. Each row is handled 64 cells at a time, using
+     * addition to carry reachability rightward along runs of passable cells. O(rows * columns / 64) time and a
+     * couple of rows of memory.
+     *
+     * As with robotTraverseGrid the robot starts out on the top left cell, so that cell's own passability isn't checked
+     */
+    public boolean robotHasPath(BitGrid grid) {
+        Preconditions.checkNotNull(grid);
+        long[] passable = new long[grid.wordsPerRow()];
+        long[] reach = new long[grid.wordsPerRow()];
+        reach[0] = 1;
+        for(int row = 0; row < grid.rows(); row++) {
+            grid.readRow(row, passable);
+            if(row == 0) {
+                passable[0] |= 1;
+            }
+            if(!GridRouter.reachAlongRow(passable, reach, 0, passable.length)) {
+                return false;
+            }
+        }
+        int lastColumn = grid.columns() - 1;
+        return (reach[lastColumn >>> 6] & (1L << lastColumn)) != 0;
+    }
 
-        while(toEvaluate.size() > 0) {
-            // Take the point with the shortest heuristic distance to the end
-            GridPoint point = toEvaluate.pollFirst();
-            evaluated.add(point);
-            if(point.equals(endingPosition)) {
-                result = findPathToOrigin(pathToOrigin, point);
-                break;
+    /**
+     * One right/down path from the top left to the bottom right as cells numbered row * columns + column,
+     * or an empty array if there is none
+     *
+     * The same row-at-a-time pass as robotHasPath, keeping every row's reachable set, then walking back from
+     * the end through reachable cells. O(rows * columns / 64) time, memory about the size of the grid itself.
+     */
+    public int[] robotFindPath(BitGrid grid) {
+        Preconditions.checkNotNull(grid);
+        int words = grid.wordsPerRow();
+        long[] passable = new long[words];
+        long[][] reach = new long[grid.rows()][words];
+        long[] previous = new long[words];
+        previous[0] = 1;
+        for(int row = 0; row < grid.rows(); row++) {
+            grid.readRow(row, passable);
+            if(row == 0) {
+                passable[0] |= 1;
+            }
+            System.arraycopy(previous, 0, reach[row], 0, words);
+            if(!GridRouter.reachAlongRow(passable, reach[row], 0, passable.length)) {
+                return new int[0];
             }
+            previous = reach[row];
+        }
 
-            GridPoint rightCandidate = point.right();
-            if(!evaluated.contains(rightCandidate) &&
-                rightCandidate.column <= endingPosition.column &&
-                grid.at(rightCandidate.row, rightCandidate.column)) {
-                toEvaluate.add(rightCandidate);
-                pathToOrigin.put(rightCandidate, point);
+        int row = grid.rows() - 1;
+        int column = grid.columns() - 1;
+        if((reach[row][column >>> 6] & (1L << column)) == 0) {
+            return new int[0];
+        }
+        int[] path = new int[row + column + 1];
+        for(int i = path.length - 1; i >= 0; i--) {
+            path[i] = row * grid.columns() + column;
+            // A reachable cell was reached from the left or from above, prefer whichever is reachable on the left
+            if(column > 0 && (reach[row][(column - 1) >>> 6] & (1L << (column - 1))) != 0) {
+                column--;
+            } else {
+                row--;
             }
+        }
+        return path;
+    }
 
-            GridPoint downCandidate = point.down();
-            if(!evaluated.contains(downCandidate) &&
-                downCandidate.row <= endingPosition.row &&
-                grid.at(downCandidate.row, downCandidate.column)) {
-                toEvaluate.add(downCandidate);
-                pathToOrigin.put(downCandidate, point);
+    /**
+     * How many distinct right/down paths there are from the top left to the bottom right of the grid
+     *
+     * Each cell's count is the count above it plus the count to its left, kept in a single row buffer that's
+     * overwritten in place as the pass moves down the grid. O(rows * columns) time and O(columns) memory.
+     * Throws ArithmeticException if the count doesn't fit in a long, use robotCountPathsExact for those grids.
+     */
+    public long robotCountPaths(BitGrid grid) {
+        Preconditions.checkNotNull(grid);
+        long[] counts = new long[grid.columns()];
+        counts[0] = 1;
+        int cell = 0;
+        for(int row = 0; row < grid.rows(); row++) {
+            long left = 0;
+            for(int column = 0; column < grid.columns(); column++, cell++) {
+                if(cell == 0 || grid.isPassable(cell)) {
+                    counts[column] = Math.addExact(counts[column], left);
+                } else {
+                    counts[column] = 0;
+                }
+                left = counts[column];
             }
         }
-        return result;
+        return counts[grid.columns() - 1];
     }
-    private List<GridPoint> findPathToOrigin(Map<GridPoint, GridPoint> stepsFromStart, GridPoint endPoint) {
-        List<GridPoint> result = new ArrayList<>();
-        result.add(endPoint);
-
-        GridPoint next = stepsFromStart.get(endPoint);
-        while(next != null) {
-            result.add(0, next);
-            next = stepsFromStart.get(next);
+
+    /**
+     * robotCountPaths without a limit on the size of the count
+     * An open n x n grid already has C(2n - 2, n - 1) paths, which passes Long.MAX_VALUE at n = 35
+     */
+    public BigInteger robotCountPathsExact(BitGrid grid) {
+        Preconditions.checkNotNull(grid);
+        var counts = new BigInteger[grid.columns()];
+        Arrays.fill(counts, BigInteger.ZERO);
+        counts[0] = BigInteger.ONE;
+        int cell = 0;
+        for(int row = 0; row < grid.rows(); row++) {
+            var left = BigInteger.ZERO;
+            for(int column = 0; column < grid.columns(); column++, cell++) {
+                if(cell == 0 || grid.isPassable(cell)) {
+                    counts[column] = counts[column].add(left);
+                } else {
+                    counts[column] = BigInteger.ZERO;
+                }
+                left = counts[column];
+            }
         }
-        return result;
+        return counts[grid.columns() - 1];
     }
 
     /**
@@ -231,26 +497,13 @@ public class RecursionAndMemoizationProblems {
      * powerSet({1}) -> {{1},{}}
      * powerSet({1,2}) -> {{1,2},{1},[2},{}}
      * powerSet({1,2,3}) -> {{1,2,3},{1,2},{1,3},{2,3},{1},{2},{3},{}}
+     *
+     * Returns a lazy, read-only PowerSet view, so the input can have at most 62 elements
      */
     public <T> Set<Set<T>> powerSet(Set<T> input) {
         Preconditions.checkNotNull(input);
-
-        // Defensive copy so we can mutate the input without concern for side-effects
-        return powerSet(new HashSet<>(), new HashSet<>(input));
-    }
-    private <T> Set<Set<T>> powerSet(Set<Set<T>> aggregator, Set<T> input) {
-        if(input.size() == 0) {
-            // The powerset of any set contains the empty set
-            aggregator.add(new HashSet<>());
-            return aggregator;
-        }
-
-        aggregator.add(new HashSet<>(input));
-        for(T item : input) {
-            Set<T> withoutItem = new HashSet<>(input);
-            withoutItem.remove(item);
-            powerSet(aggregator, withoutItem);
-        }
-        return aggregator;
+        // Subset i is the input elements whose bits are set in i, so every subset is produced exactly once and only
+        // when it's asked for, rather than all 2^n at once through every "input minus one item" path to them
+        return new PowerSet<>(input);
     }
 }
@@ -0,0 +1,104 @@
+package com.github.sambsnyd.problems;
+
+import com.google.common.base.Preconditions;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Produces the stair climbing counts from RecursionAndMemoizationProblems for 1, 2, 3, ... steps in sequence
+ *
+ * Each count is the sum of the previous three, so only those three are kept: every element is O(1) work and
+ * the sequence uses constant memory however far it runs. jumpTo seeks to any step count in O(log n) by raising
+ * the recurrence's 3x3 matrix to a power.
+ *
+ * By default counts are exact and the sequence ends after 72 steps, the last count that fits in a long.
+ * A sequence created with modulo(m) reports counts modulo m and never ends.
+ */
+public class StairCombinationSequence implements PrimitiveIterator.OfLong {
+
+    // The recurrence's 3x3 companion matrix, see StepMatrices
+    private static final long[] COMPANION = StepMatrices.companion(new int[]{ 1, 2, 3 });
+
+    // Zero means exact arithmetic
+    private final long modulus;
+    // The counts for the three step counts before nextStep, treating 0 steps as 1 way for the recurrence's sake
+    private long oneBefore = 1;
+    private long twoBefore = 0;
+    private long threeBefore = 0;
+    private int nextStep = 1;
+
+    public StairCombinationSequence() {
+        this(0);
+    }
+
+    private StairCombinationSequence(long modulus) {
+        this.modulus = modulus;
+    }
+
+    /**
+     * The modulus must fit in an int so that products of two residues can't overflow a long
+     */
+    public static StairCombinationSequence modulo(long modulus) {
+        Preconditions.checkArgument(modulus > 0 && modulus <= Integer.MAX_VALUE,
+                "Modulus must be positive and fit in an int");
+        return new StairCombinationSequence(modulus);
+    }
+
+    /**
+     * The step count whose climbing combinations the next call to nextLong() returns
+     */
+    public int nextStep() {
+        return nextStep;
+    }
+
+    @Override
+    public boolean hasNext() {
+        // twoBefore + threeBefore never exceeds oneBefore, so that sum can't overflow
+        return modulus != 0 || twoBefore + threeBefore <= Long.MAX_VALUE - oneBefore;
+    }
+
+    @Override
+    public long nextLong() {
+        if(!hasNext()) {
+            throw new NoSuchElementException("The count for " + nextStep + " steps doesn't fit in a long");
+        }
+        long next = oneBefore + twoBefore + threeBefore;
+        if(modulus != 0) {
+            next %= modulus;
+        }
+        threeBefore = twoBefore;
+        twoBefore = oneBefore;
+        oneBefore = next;
+        nextStep++;
+        return next;
+    }
+
+    /**
+     * Seeks so that the next count returned is the one for stepCount steps, in O(log stepCount)
+     * Seeking backwards is allowed. In exact mode throws ArithmeticException if stepCount is more than 73,
+     * since the counts leading up to it wouldn't fit in a long.
+     */
+    public void jumpTo(int stepCount) {
+        Preconditions.checkArgument(stepCount >= 1, "Step count must be at least 1");
+        // M^k applied to [1,0,0] gives [ways(k), ways(k-1), ways(k-2)], which is the first column of M^k
+        long[] power = StepMatrices.power(COMPANION, stepCount - 1, modulus);
+        oneBefore = power[0];
+        twoBefore = power[3];
+        threeBefore = power[6];
+        nextStep = stepCount;
+    }
+
+    /**
+     * The remaining counts as a stream, which consumes this sequence as it's read
+     */
+    public LongStream stream() {
+        return StreamSupport.longStream(
+                Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+}
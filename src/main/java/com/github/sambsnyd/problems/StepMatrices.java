@@ -0,0 +1,135 @@
+package com.github.sambsnyd.problems;
+
+import com.google.common.base.Preconditions;
+
+import java.math.BigInteger;
+
+/**
+ * The k x k matrix powers behind the O(log n) stair counts, shared by RecursionAndMemoizationProblems and
+ * StairCombinationSequence
+ *
+ * Matrices are row-major long[]s of size * size entries, so a multiply allocates one array and boxes nothing.
+ * A modulus of 0 means exact arithmetic, which throws ArithmeticException on overflow. Otherwise every entry is
+ * reduced modulo the modulus, which must fit in an int so that the product of two residues fits in a long.
+ */
+final class StepMatrices {
+
+    private StepMatrices() { }
+
+    /**
+     * The companion matrix of "ways(n) is the sum of ways(n - h) over each allowed hop h", with k the largest hop
+     * The state [ways(n), ways(n-1), ..., ways(n-k+1)] advances one stair when multiplied by it: the first row sums
+     * the allowed hops, the rest shift every entry down one place.
+     */
+    static long[] companion(int[] allowedSteps) {
+        Preconditions.checkNotNull(allowedSteps);
+        Preconditions.checkArgument(allowedSteps.length > 0, "At least one step size must be allowed");
+        int size = 0;
+        for(int step : allowedSteps) {
+            Preconditions.checkArgument(step > 0, "Step sizes must be positive");
+            size = Math.max(size, step);
+        }
+        long[] matrix = new long[size * size];
+        for(int step : allowedSteps) {
+            matrix[step - 1] = 1;
+        }
+        for(int row = 1; row < size; row++) {
+            matrix[row * size + row - 1] = 1;
+        }
+        return matrix;
+    }
+
+    /**
+     * The number of rows of a square matrix
+     */
+    static int size(long[] matrix) {
+        int size = (int)Math.sqrt(matrix.length);
+        Preconditions.checkArgument(size * size == matrix.length, "Not a square matrix");
+        return size;
+    }
+
+    /**
+     * matrix to the given power by repeated squaring, O(k^3 log exponent)
+     */
+    static long[] power(long[] matrix, int exponent, long modulus) {
+        Preconditions.checkArgument(exponent >= 0, "Exponent must not be negative");
+        Preconditions.checkArgument(modulus >= 0 && modulus <= Integer.MAX_VALUE,
+                "Modulus must be 0 for exact arithmetic or fit in an int");
+        int size = size(matrix);
+        long[] result = new long[matrix.length];
+        long[] base = new long[matrix.length];
+        for(int i = 0; i < matrix.length; i++) {
+            base[i] = modulus == 0 ? matrix[i] : Math.floorMod(matrix[i], modulus);
+        }
+        for(int i = 0; i < size; i++) {
+            result[i * size + i] = modulus == 1 ? 0 : 1;
+        }
+        for(int remaining = exponent; remaining > 0; remaining >>= 1) {
+            if((remaining & 1) == 1) {
+                result = multiply(result, base, size, modulus);
+            }
+            if(remaining > 1) {
+                base = multiply(base, base, size, modulus);
+            }
+        }
+        return result;
+    }
+
+    private static long[] multiply(long[] a, long[] b, int size, long modulus) {
+        long[] product = new long[size * size];
+        for(int row = 0; row < size; row++) {
+            for(int k = 0; k < size; k++) {
+                long left = a[row * size + k];
+                if(left == 0) {
+                    continue;
+                }
+                for(int column = 0; column < size; column++) {
+                    int index = row * size + column;
+                    if(modulus == 0) {
+                        product[index] = Math.addExact(product[index], Math.multiplyExact(left, b[k * size + column]));
+                    } else {
+                        product[index] = (product[index] + left * b[k * size + column]) % modulus;
+                    }
+                }
+            }
+        }
+        return product;
+    }
+
+    /**
+     * power without a bound on the entries, for counts too large for a long
+     */
+    static BigInteger[] powerExact(long[] matrix, int exponent) {
+        Preconditions.checkArgument(exponent >= 0, "Exponent must not be negative");
+        int size = size(matrix);
+        var result = new BigInteger[matrix.length];
+        var base = new BigInteger[matrix.length];
+        for(int i = 0; i < matrix.length; i++) {
+            result[i] = i / size == i % size ? BigInteger.ONE : BigInteger.ZERO;
+            base[i] = BigInteger.valueOf(matrix[i]);
+        }
+        for(int remaining = exponent; remaining > 0; remaining >>= 1) {
+            if((remaining & 1) == 1) {
+                result = multiply(result, base, size);
+            }
+            if(remaining > 1) {
+                base = multiply(base, base, size);
+            }
+        }
+        return result;
+    }
+
+    private static BigInteger[] multiply(BigInteger[] a, BigInteger[] b, int size) {
+        var product = new BigInteger[size * size];
+        for(int row = 0; row < size; row++) {
+            for(int column = 0; column < size; column++) {
+                var sum = BigInteger.ZERO;
+                for(int k = 0; k < size; k++) {
+                    sum = sum.add(a[row * size + k].multiply(b[k * size + column]));
+                }
+                product[row * size + column] = sum;
+            }
+        }
+        return product;
+    }
+}
@@ -0,0 +1,214 @@
+package com.github.sambsnyd.problems;
+
+import com.github.sambsnyd.datastructures.MappedTileGrid;
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * robotHasPath and robotFindPath for grids kept in a MappedTileGrid, working one tile at a time in parallel
+ *
+ * The robot only moves right or down, so a tile's reachable cells depend only on the reachable cells along the
+ * bottom edge of the tile above it and the right edge of the tile to its left. Tiles are solved in anti-diagonal
+ * waves from the top left: every tile in a wave has both of its inputs from the previous waves, so a wave's tiles
+ * run in parallel on a fork-join pool. Each tile keeps only its two output edges, so the heap used is a few bits
+ * per edge cell, and tiles that nothing reaches are never read at all.
+ *
+ * Finding a path walks back from the bottom right, solving again only the tiles the path passes through.
+ *
+ * As with robotTraverseGrid the robot starts out on the top left cell, so that cell's own passability isn't checked.
+ * A solver solves its grid once, the first time it's asked, so changes to the grid after that aren't seen.
+ */
+public class TiledGridSolver {
+
+    private final MappedTileGrid grid;
+    private final ForkJoinPool pool;
+    private final int tileSize;
+    private final int words;
+    // Indexed by tileRow * tileColumns + tileColumn, null where nothing on the edge is reachable
+    // The reachable cells in each tile's last row, and in its last column as bits by row
+    private final long[][] bottomEdges;
+    private final long[][] rightEdges;
+    private final AtomicInteger tilesSolved = new AtomicInteger();
+    private boolean solved;
+
+    public TiledGridSolver(MappedTileGrid grid) {
+        this(grid, ForkJoinPool.commonPool());
+    }
+
+    public TiledGridSolver(MappedTileGrid grid, ForkJoinPool pool) {
+        Preconditions.checkNotNull(grid);
+        Preconditions.checkNotNull(pool);
+        this.grid = grid;
+        this.pool = pool;
+        this.tileSize = grid.tileSize();
+        this.words = grid.wordsPerTileRow();
+        this.bottomEdges = new long[grid.tileRows() * grid.tileColumns()][];
+        this.rightEdges = new long[bottomEdges.length][];
+    }
+
+    public boolean hasPath() {
+        solve();
+        long[] lastEdge = bottomEdges[bottomEdges.length - 1];
+        int lastColumn = (grid.columns() - 1) % tileSize;
+        return lastEdge != null && (lastEdge[lastColumn >>> 6] & (1L << lastColumn)) != 0;
+    }
+
+    /**
+     * One right/down path from the top left to the bottom right as cells numbered row * columns + column,
+     * or an empty array if there is none
+     */
+    public long[] findPath() {
+        if(!hasPath()) {
+            return new long[0];
+        }
+        var path = new long[Math.toIntExact((long)grid.rows() + grid.columns() - 1)];
+        int index = path.length - 1;
+        int tileRow = grid.tileRows() - 1;
+        int tileColumn = grid.tileColumns() - 1;
+        int row = grid.rows() - 1 - tileRow * tileSize;
+        int column = grid.columns() - 1 - tileColumn * tileSize;
+        while(true) {
+            long[][] reach = solveTile(tileRow, tileColumn, true);
+            long[] above = tileRow > 0 ? bottomEdges[tile(tileRow - 1, tileColumn)] : null;
+            while(true) {
+                path[index--] = (long)(tileRow * tileSize + row) * grid.columns() + tileColumn * tileSize + column;
+                if(index < 0) {
+                    return path;
+                }
+                if(column > 0 && isSet(reach[row], column - 1)) {
+                    column--;
+                } else if(row > 0 && isSet(reach[row - 1], column)) {
+                    row--;
+                } else if(row == 0 && above != null && isSet(above, column)) {
+                    tileRow--;
+                    row = tileSize - 1;
+                    break;
+                } else {
+                    tileColumn--;
+                    column = tileSize - 1;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * The number of tiles the reachability pass read, tiles that nothing reaches are skipped
+     */
+    public int getTilesSolved() {
+        solve();
+        return tilesSolved.get();
+    }
+
+    private synchronized void solve() {
+        if(solved) {
+            return;
+        }
+        int tileRows = grid.tileRows();
+        int tileColumns = grid.tileColumns();
+        for(int wave = 0; wave < tileRows + tileColumns - 1; wave++) {
+            int firstRow = Math.max(0, wave - (tileColumns - 1));
+            int lastRow = Math.min(wave, tileRows - 1);
+            if(!pool.invoke(new WaveTask(wave, firstRow, lastRow + 1))) {
+                // Nothing in this wave was reached, so nothing after it can be either
+                break;
+            }
+        }
+        solved = true;
+    }
+
+    /**
+     * Solves the tiles of one anti-diagonal wave whose tile rows are in [fromRow, toRow), splitting the range in half
+     * until it's a single tile. Returns whether anything on the tiles' outer edges was reached.
+     */
+    private class WaveTask extends RecursiveTask<Boolean> {
+        private static final long serialVersionUID = 1L;
+
+        private final int wave;
+        private final int fromRow;
+        private final int toRow;
+
+        WaveTask(int wave, int fromRow, int toRow) {
+            this.wave = wave;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected Boolean compute() {
+            if(toRow - fromRow == 1) {
+                solveTile(fromRow, wave - fromRow, false);
+                int index = tile(fromRow, wave - fromRow);
+                return bottomEdges[index] != null || rightEdges[index] != null;
+            }
+            int middle = (fromRow + toRow) >>> 1;
+            var upper = new WaveTask(wave, fromRow, middle);
+            upper.fork();
+            boolean lowerReached = new WaveTask(wave, middle, toRow).compute();
+            return upper.join() | lowerReached;
+        }
+    }
+
+    /**
+     * Runs the row-at-a-time pass over one tile, seeded from the edges of the tiles above and to the left, and
+     * records the tile's own edges. Returns every row's reachable cells when keepRows is set, otherwise null.
+     */
+    private long[][] solveTile(int tileRow, int tileColumn, boolean keepRows) {
+        long[] above = tileRow > 0 ? bottomEdges[tile(tileRow - 1, tileColumn)] : null;
+        long[] left = tileColumn > 0 ? rightEdges[tile(tileRow, tileColumn - 1)] : null;
+        boolean origin = tileRow == 0 && tileColumn == 0;
+        if(above == null && left == null && !origin) {
+            return null;
+        }
+        if(!keepRows) {
+            tilesSolved.incrementAndGet();
+        }
+        int rowsInTile = Math.min(tileSize, grid.rows() - tileRow * tileSize);
+        var reachByRow = keepRows ? new long[rowsInTile][] : null;
+        var passable = new long[words];
+        var reach = above != null ? above.clone() : new long[words];
+        var rightEdge = new long[words];
+        for(int row = 0; row < rowsInTile; row++) {
+            grid.readTileRow(tileRow, tileColumn, row, passable);
+            if(origin && row == 0) {
+                passable[0] |= 1;
+                reach[0] |= 1;
+            }
+            if(left != null && isSet(left, row)) {
+                reach[0] |= 1;
+            }
+            GridRouter.reachAlongRow(passable, reach, 0, words);
+            if(isSet(reach, tileSize - 1)) {
+                rightEdge[row >>> 6] |= 1L << row;
+            }
+            if(keepRows) {
+                reachByRow[row] = reach.clone();
+            }
+        }
+        // Edges nothing crosses are left null so the tiles beyond them are skipped
+        int index = tile(tileRow, tileColumn);
+        bottomEdges[index] = isEmpty(reach) ? null : reach;
+        rightEdges[index] = isEmpty(rightEdge) ? null : rightEdge;
+        return reachByRow;
+    }
+
+    private int tile(int tileRow, int tileColumn) {
+        return tileRow * grid.tileColumns() + tileColumn;
+    }
+
+    private static boolean isEmpty(long[] bits) {
+        for(long word : bits) {
+            if(word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+}
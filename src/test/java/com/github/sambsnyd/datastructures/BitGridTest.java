@@ -0,0 +1,83 @@
+package com.github.sambsnyd.datastructures;
+
+import com.google.common.collect.ArrayTable;
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BitGridTest {
+
+    @Test
+    void cellsStartImpassable() {
+        var grid = new BitGrid(3, 70);
+        Assertions.assertEquals(0, grid.passableCount());
+        grid.setPassable(2, 69, true);
+        grid.setPassable(0, 0, true);
+        Assertions.assertTrue(grid.isPassable(2, 69));
+        Assertions.assertTrue(grid.isPassable(grid.cell(0, 0)));
+        Assertions.assertFalse(grid.isPassable(1, 5));
+        Assertions.assertEquals(2, grid.passableCount());
+
+        grid.setPassable(2, 69, false);
+        Assertions.assertFalse(grid.isPassable(2, 69));
+        Assertions.assertEquals(1, grid.passableCount());
+    }
+
+    @Test
+    void cellNumbering() {
+        var grid = new BitGrid(4, 5);
+        Assertions.assertEquals(20, grid.cellCount());
+        Assertions.assertEquals(13, grid.cell(2, 3));
+        Assertions.assertEquals(2, grid.row(13));
+        Assertions.assertEquals(3, grid.column(13));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> grid.cell(4, 0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> grid.cell(0, 5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BitGrid(0, 5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BitGrid(100_000, 100_000));
+    }
+
+    @Test
+    void fillIgnoresUnusedBits() {
+        var grid = new BitGrid(3, 3);
+        grid.fill(true);
+        Assertions.assertEquals(9, grid.passableCount());
+        grid.fill(false);
+        Assertions.assertEquals(0, grid.passableCount());
+    }
+
+    @Test
+    void copyOfArrayTable() {
+        ArrayTable<Integer, Integer, Boolean> table =
+                ArrayTable.create(Lists.newArrayList(0,1), Lists.newArrayList(0,1,2));
+        table.put(0, 0, true);
+        table.put(0, 1, false);
+        table.put(1, 2, true);
+
+        var grid = BitGrid.copyOf(table);
+        Assertions.assertEquals(2, grid.rows());
+        Assertions.assertEquals(3, grid.columns());
+        Assertions.assertTrue(grid.isPassable(0, 0));
+        Assertions.assertFalse(grid.isPassable(0, 1));
+        Assertions.assertFalse(grid.isPassable(1, 0), "Missing cells should be impassable");
+        Assertions.assertTrue(grid.isPassable(1, 2));
+    }
+
+    @Test
+    void readRowAlignsToColumnZero() {
+        var grid = new BitGrid(3, 100);
+        grid.fill(true);
+        grid.setPassable(1, 0, false);
+        grid.setPassable(1, 64, false);
+        long[] words = new long[grid.wordsPerRow()];
+        Assertions.assertEquals(2, words.length);
+
+        grid.readRow(1, words);
+        Assertions.assertEquals(~1L, words[0]);
+        Assertions.assertEquals((1L << 36) - 2, words[1]);
+
+        grid.readRow(2, words);
+        Assertions.assertEquals(-1L, words[0]);
+        Assertions.assertEquals((1L << 36) - 1, words[1], "Bits past the last column should be cleared");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> grid.readRow(0, new long[1]));
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.sambsnyd.datastructures;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ConcurrentSBinaryTreeTest {
+
+    @Test
+    void singleThreadedBehavesLikeSBinaryTree() {
+        //      (1)
+        //     /   \
+        //   (3)    (2)
+        //   /
+        // (4)
+        var source = new SBinaryTree<>(1);
+        source.setRight(2);
+        source.setLeft(3);
+        source.getLeft().setLeft(4);
+        var tree = ConcurrentSBinaryTree.copyOf(source);
+
+        Assertions.assertEquals(source.traverseInorder(), tree.traverseInorder());
+        Assertions.assertEquals(3, tree.getHeight());
+        Assertions.assertEquals(4, tree.size());
+        Assertions.assertEquals(2, (int)tree.breadthFirstSearch(it -> it % 2 == 0));
+        Assertions.assertEquals(4, (int)tree.depthFirstSearch(it -> it % 2 == 0));
+        Assertions.assertNull(tree.depthFirstSearch(it -> it == 5));
+    }
+
+    @Test
+    void compareAndSet() {
+        var tree = new ConcurrentSBinaryTree<>(1);
+        var left = tree.setLeftIfAbsent(2);
+        Assertions.assertSame(left, tree.setLeftIfAbsent(3), "The existing child should win");
+        Assertions.assertFalse(tree.compareAndSetLeft(null, new ConcurrentSBinaryTree<>(4)));
+        Assertions.assertTrue(tree.compareAndSetLeft(left, null));
+        Assertions.assertNull(tree.getLeft());
+        Assertions.assertTrue(tree.compareAndSetValue(tree.getValue(), 5));
+        Assertions.assertEquals(6, (int)tree.updateValue(it -> it + 1));
+    }
+
+    @Test
+    void concurrentUpdatesAreNotLost() throws Exception {
+        var tree = new ConcurrentSBinaryTree<>(0L);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for(int thread = 0; thread < 8; thread++) {
+                futures.add(pool.submit(() -> {
+                    for(int i = 0; i < 10_000; i++) {
+                        tree.updateValue(it -> it + 1);
+                    }
+                }));
+            }
+            for(var future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        Assertions.assertEquals(80_000L, (long)tree.getValue());
+    }
+
+    @Test
+    void concurrentInsertsWithConcurrentReaders() throws Exception {
+        // Writers build a binary search tree by racing to claim empty child slots, readers traverse throughout
+        var root = new ConcurrentSBinaryTree<>(50_000);
+        int writers = 4;
+        int perWriter = 5_000;
+        var done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 2);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for(int reader = 0; reader < 2; reader++) {
+                readers.add(pool.submit(() -> {
+                    while(!done.get()) {
+                        var seen = root.traverseInorder();
+                        for(int i = 1; i < seen.size(); i++) {
+                            Assertions.assertTrue(seen.get(i - 1) < seen.get(i),
+                                    "Readers should only ever see an ordered tree");
+                        }
+                    }
+                }));
+            }
+            List<Future<?>> futures = new ArrayList<>();
+            for(int writer = 0; writer < writers; writer++) {
+                int offset = writer;
+                futures.add(pool.submit(() -> {
+                    // Spread values out so the tree isn't a linked list
+                    for(int i = 0; i < perWriter; i++) {
+                        insert(root, (int)((i * 2_654_435_761L + offset) % 100_000) * writers + offset);
+                    }
+                }));
+            }
+            for(var future : futures) {
+                future.get();
+            }
+            done.set(true);
+            for(var reader : readers) {
+                reader.get();
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        var values = root.traverseInorder();
+        Assertions.assertEquals(values.stream().sorted().distinct().collect(Collectors.toList()), values);
+        var expected = IntStream.range(0, writers)
+                .flatMap(writer -> IntStream.range(0, perWriter)
+                        .map(i -> (int)((i * 2_654_435_761L + writer) % 100_000) * writers + writer))
+                .filter(it -> it != 50_000)
+                .distinct()
+                .count();
+        Assertions.assertEquals(expected + 1, values.size(), "No insert should be lost");
+    }
+
+    private static void insert(ConcurrentSBinaryTree<Integer> root, int value) {
+        var node = root;
+        while(true) {
+            int comparison = Integer.compare(value, node.getValue());
+            if(comparison == 0) {
+                return;
+            }
+            var next = comparison < 0 ? node.setLeftIfAbsent(value) : node.setRightIfAbsent(value);
+            if(next.getValue() == value) {
+                return;
+            }
+            node = next;
+        }
+    }
+}
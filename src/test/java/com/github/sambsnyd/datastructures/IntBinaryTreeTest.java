@@ -0,0 +1,103 @@
+package com.github.sambsnyd.datastructures;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class IntBinaryTreeTest {
+
+    /**
+     *       (1)
+     *     /    \
+     *   (3)     (2)
+     *   / \     /
+     * (4) (5) (6)
+     */
+    private static IntBinaryTree sampleTree() {
+        var tree = new IntBinaryTree(2);
+        int root = tree.addNode(1);
+        int three = tree.addLeft(root, 3);
+        int two = tree.addRight(root, 2);
+        tree.addLeft(three, 4);
+        tree.addRight(three, 5);
+        tree.addLeft(two, 6);
+        return tree;
+    }
+
+    @Test
+    void traversals() {
+        var tree = sampleTree();
+        Assertions.assertArrayEquals(new int[]{4,3,5,1,6,2}, tree.traverseInorder());
+        Assertions.assertArrayEquals(new int[]{1,3,4,5,2,6}, tree.traversePreorder());
+        Assertions.assertArrayEquals(new int[]{4,5,3,6,2,1}, tree.traversePostorder());
+        Assertions.assertArrayEquals(new int[]{1,3,2,4,5,6}, tree.traverseLevelOrder());
+        Assertions.assertArrayEquals(new int[0], new IntBinaryTree().traverseInorder());
+    }
+
+    @Test
+    void heightAndBalance() {
+        var tree = new IntBinaryTree();
+        Assertions.assertEquals(0, tree.getHeight());
+        Assertions.assertTrue(tree.isBalanced());
+
+        int root = tree.addNode(1);
+        Assertions.assertEquals(1, tree.getHeight());
+        int left = tree.addLeft(root, 2);
+        Assertions.assertTrue(tree.isBalanced());
+        tree.addLeft(left, 3);
+        Assertions.assertEquals(3, tree.getHeight());
+        Assertions.assertFalse(tree.isBalanced());
+        Assertions.assertTrue(tree.isBalanced(left));
+        tree.addRight(root, 4);
+        Assertions.assertTrue(tree.isBalanced());
+    }
+
+    @Test
+    void searches() {
+        var tree = sampleTree();
+        int bfsMatch = tree.breadthFirstSearch(it -> it % 2 == 0);
+        Assertions.assertEquals(2, tree.getValue(bfsMatch));
+        int dfsMatch = tree.depthFirstSearch(it -> it % 2 == 0);
+        Assertions.assertEquals(4, tree.getValue(dfsMatch));
+        Assertions.assertEquals(IntBinaryTree.NONE, tree.breadthFirstSearch(it -> it > 100));
+        Assertions.assertEquals(IntBinaryTree.NONE, tree.depthFirstSearch(it -> it > 100));
+    }
+
+    @Test
+    void compactRenumbersInPreorder() {
+        var tree = sampleTree();
+        // Detach the subtree rooted at 3, leaving 3, 4 and 5 unreachable
+        tree.setLeft(tree.getRoot(), IntBinaryTree.NONE);
+        tree.compact();
+        Assertions.assertEquals(3, tree.size());
+        Assertions.assertEquals(0, tree.getRoot());
+        for(int node = 0; node < tree.size(); node++) {
+            Assertions.assertEquals(tree.traversePreorder()[node], tree.getValue(node),
+                    "After compacting, node indices follow pre-order");
+        }
+        Assertions.assertArrayEquals(new int[]{1,6,2}, tree.traverseInorder());
+        tree.addLeft(tree.getRoot(), 7);
+        Assertions.assertArrayEquals(new int[]{7,1,6,2}, tree.traverseInorder());
+    }
+
+    @Test
+    void rejectsUnknownNodes() {
+        var tree = sampleTree();
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> tree.getValue(6));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> tree.setLeft(0, 42));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> tree.addRight(-1, 1));
+    }
+
+    @Test
+    void degenerateTree() {
+        int depth = 1_000_000;
+        var tree = new IntBinaryTree(depth);
+        int node = tree.addNode(0);
+        for(int i = 1; i < depth; i++) {
+            node = tree.addRight(node, i);
+        }
+        Assertions.assertEquals(depth, tree.getHeight());
+        Assertions.assertFalse(tree.isBalanced());
+        Assertions.assertEquals(depth - 1, tree.traversePostorder()[0]);
+        Assertions.assertEquals(depth - 1, tree.getValue(tree.depthFirstSearch(it -> it == depth - 1)));
+    }
+}
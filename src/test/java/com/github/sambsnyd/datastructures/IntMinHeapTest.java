@@ -0,0 +1,53 @@
+package com.github.sambsnyd.datastructures;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+public class IntMinHeapTest {
+
+    @Test
+    void pollsInPriorityOrder() {
+        var heap = new IntMinHeap(1);
+        heap.add(30, 3);
+        heap.add(10, 1);
+        heap.add(20, 2);
+        Assertions.assertEquals(3, heap.size());
+        Assertions.assertEquals(10, heap.peek());
+        Assertions.assertEquals(1, heap.peekPriority());
+        Assertions.assertEquals(10, heap.poll());
+        Assertions.assertEquals(20, heap.poll());
+        Assertions.assertEquals(30, heap.poll());
+        Assertions.assertTrue(heap.isEmpty());
+        Assertions.assertThrows(NoSuchElementException.class, heap::poll);
+        Assertions.assertThrows(NoSuchElementException.class, heap::peek);
+    }
+
+    @Test
+    void matchesPriorityQueue() {
+        var random = new Random(15);
+        var heap = new IntMinHeap();
+        var expected = new PriorityQueue<Integer>();
+        for(int i = 0; i < 10_000; i++) {
+            if(random.nextInt(3) == 0 && !expected.isEmpty()) {
+                Assertions.assertEquals(expected.poll().intValue(), heap.peekPriority());
+                heap.poll();
+            } else {
+                int priority = random.nextInt(1_000);
+                heap.add(priority * 2, priority);
+                expected.add(priority);
+            }
+            Assertions.assertEquals(expected.size(), heap.size());
+        }
+        while(!expected.isEmpty()) {
+            Assertions.assertEquals(expected.poll() * 2, heap.poll());
+        }
+
+        heap.add(1, 1);
+        heap.clear();
+        Assertions.assertTrue(heap.isEmpty());
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.sambsnyd.datastructures;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LongBinaryTreeTest {
+
+    @Test
+    void holdsValuesBeyondIntRange() {
+        //          (2^40)
+        //          /    \
+        //      (2^35)  (2^45)
+        var tree = new LongBinaryTree();
+        int root = tree.addNode(1L << 40);
+        tree.addLeft(root, 1L << 35);
+        tree.addRight(root, 1L << 45);
+
+        Assertions.assertArrayEquals(new long[]{1L << 35, 1L << 40, 1L << 45}, tree.traverseInorder());
+        Assertions.assertArrayEquals(new long[]{1L << 40, 1L << 35, 1L << 45}, tree.traversePreorder());
+        Assertions.assertEquals(2, tree.getHeight());
+        Assertions.assertTrue(tree.isBalanced());
+
+        int match = tree.breadthFirstSearch(it -> it > Integer.MAX_VALUE);
+        Assertions.assertEquals(root, match);
+        Assertions.assertEquals(1L << 35, tree.getValue(tree.depthFirstSearch(it -> it < (1L << 40))));
+
+        tree.setValue(root, -1L);
+        Assertions.assertArrayEquals(new long[]{1L << 35, 1L << 45, -1L}, tree.traversePostorder());
+    }
+}
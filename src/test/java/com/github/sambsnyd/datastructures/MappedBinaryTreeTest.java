@@ -0,0 +1,102 @@
+package com.github.sambsnyd.datastructures;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.sambsnyd.datastructures.MappedBinaryTree.Codec;
+
+public class MappedBinaryTreeTest {
+
+    private Path file;
+
+    @BeforeEach
+    void createFile() throws IOException {
+        file = Files.createTempFile("sbinarytree", ".bin");
+    }
+
+    @AfterEach
+    void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        //       (1)
+        //     /    \
+        //   (3)     (2)
+        //   / \     /
+        // (4) (5) (6)
+        var tree = new SBinaryTree<>(1);
+        tree.setRight(2);
+        tree.setLeft(3);
+        tree.getLeft().setLeft(4);
+        tree.getLeft().setRight(5);
+        tree.getRight().setLeft(6);
+
+        MappedBinaryTree.write(tree, file, Codec.ints());
+        var mapped = MappedBinaryTree.open(file, Codec.ints());
+
+        Assertions.assertEquals(6, mapped.size());
+        Assertions.assertEquals(3, mapped.getHeight());
+        Assertions.assertEquals(tree.traverseInorder(), mapped.traverseInorder());
+        Assertions.assertEquals(tree.traversePreorder(), mapped.traversePreorder());
+        Assertions.assertEquals(2, (int)mapped.breadthFirstSearch(it -> it % 2 == 0));
+        Assertions.assertEquals(4, (int)mapped.depthFirstSearch(it -> it % 2 == 0));
+        Assertions.assertNull(mapped.breadthFirstSearch(it -> it > 6));
+
+        int root = mapped.getRoot();
+        Assertions.assertEquals(1, (int)mapped.getValue(root));
+        Assertions.assertEquals(3, (int)mapped.getValue(mapped.getLeft(root)));
+        Assertions.assertEquals(6, (int)mapped.getValue(mapped.getLeft(mapped.getRight(root))));
+        Assertions.assertEquals(MappedBinaryTree.NONE, mapped.getRight(mapped.getRight(root)));
+
+        var copy = mapped.toTree();
+        Assertions.assertEquals(tree.traverseLevelOrder(), copy.traverseLevelOrder());
+    }
+
+    @Test
+    void variableLengthValues() throws IOException {
+        var tree = new SBinaryTree<>(new SBinaryTree<>("a"), "m\u00e9dium", new SBinaryTree<>("a much longer value"));
+        MappedBinaryTree.write(tree, file, Codec.utf8());
+        var mapped = MappedBinaryTree.open(file, Codec.utf8());
+        var inorder = new ArrayList<String>();
+        mapped.forEach(inorder::add);
+        Assertions.assertEquals(List.of("a", "m\u00e9dium", "a much longer value"), inorder);
+    }
+
+    @Test
+    void degenerateTree() throws IOException {
+        int depth = 100_000;
+        var root = new SBinaryTree<>(0L);
+        var node = root;
+        for(long i = 1; i < depth; i++) {
+            // Alternate sides so both the left and right child paths get exercised
+            if(i % 2 == 0) {
+                node.setLeft(i);
+                node = node.getLeft();
+            } else {
+                node.setRight(i);
+                node = node.getRight();
+            }
+        }
+        MappedBinaryTree.write(root, file, Codec.longs());
+        var mapped = MappedBinaryTree.open(file, Codec.longs());
+        Assertions.assertEquals(depth, mapped.getHeight());
+        Assertions.assertEquals(root.traverseInorder(), mapped.traverseInorder());
+        Assertions.assertEquals(depth - 1L, (long)mapped.breadthFirstSearch(it -> it == depth - 1));
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        Assertions.assertThrows(IOException.class, () -> MappedBinaryTree.open(file, Codec.ints()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.sambsnyd.datastructures;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+public class MappedTileGridTest {
+
+    private Path file;
+
+    @BeforeEach
+    void createFile() throws IOException {
+        file = Files.createTempFile("tilegrid", ".bin");
+    }
+
+    @AfterEach
+    void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        var random = new Random(20);
+        var grid = new BitGrid(150, 200);
+        for(int cell = 0; cell < grid.cellCount(); cell++) {
+            grid.setPassable(cell, random.nextBoolean());
+        }
+        MappedTileGrid.write(grid, file, 64);
+
+        var mapped = MappedTileGrid.open(file);
+        Assertions.assertEquals(150, mapped.rows());
+        Assertions.assertEquals(200, mapped.columns());
+        Assertions.assertEquals(30_000, mapped.cellCount());
+        Assertions.assertEquals(3, mapped.tileRows());
+        Assertions.assertEquals(4, mapped.tileColumns());
+        for(int row = 0; row < grid.rows(); row++) {
+            for(int column = 0; column < grid.columns(); column++) {
+                Assertions.assertEquals(grid.isPassable(row, column), mapped.isPassable(row, column));
+            }
+        }
+        Assertions.assertThrows(ReadOnlyBufferException.class, () -> mapped.setPassable(0, 0, true));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> mapped.isPassable(150, 0));
+    }
+
+    @Test
+    void tileRowsArePaddedWithImpassableCells() throws IOException {
+        var mapped = MappedTileGrid.create(file, 70, 70, 128);
+        Assertions.assertEquals(2, mapped.wordsPerTileRow());
+        mapped.setPassable(69, 69, true);
+        mapped.setPassable(69, 3, true);
+        mapped.setPassable(69, 3, false);
+        mapped.setPassable(0, 64, true);
+
+        long[] words = new long[2];
+        mapped.readTileRow(0, 0, 69, words);
+        Assertions.assertArrayEquals(new long[]{ 0, 1L << 5 }, words);
+        mapped.readTileRow(0, 0, 100, words);
+        Assertions.assertArrayEquals(new long[]{ 0, 0 }, words);
+        mapped.force();
+
+        var reopened = MappedTileGrid.open(file);
+        Assertions.assertTrue(reopened.isPassable(69, 69));
+        Assertions.assertTrue(reopened.isPassable(0, 64));
+        Assertions.assertFalse(reopened.isPassable(69, 3));
+    }
+
+    @Test
+    void rejectsBadFiles() throws IOException {
+        Files.write(file, new byte[]{ 1, 2, 3 });
+        Assertions.assertThrows(IOException.class, () -> MappedTileGrid.open(file));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MappedTileGrid.create(file, 10, 10, 100));
+
+        MappedTileGrid.create(file, 100, 100, 64);
+        try(var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(100);
+        }
+        Assertions.assertThrows(IOException.class, () -> MappedTileGrid.open(file));
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.sambsnyd.datastructures;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class PowerSetTest {
+
+    @Test
+    void subsetsByIndex() {
+        var powerSet = new PowerSet<>(List.of("a", "b", "c"));
+        Assertions.assertEquals(8, powerSet.size());
+        Assertions.assertEquals(Set.of(), powerSet.get(0));
+        Assertions.assertEquals(Set.of("a", "c"), powerSet.get(0b101));
+        Assertions.assertEquals(Set.of("a", "b", "c"), powerSet.get(7));
+        Assertions.assertEquals(2, powerSet.get(0b101).size());
+        Assertions.assertTrue(powerSet.get(0b101).contains("c"));
+        Assertions.assertFalse(powerSet.get(0b101).contains("b"));
+        Assertions.assertFalse(powerSet.get(0b101).contains("z"));
+        Assertions.assertEquals(0b110, powerSet.indexOf(Set.of("b", "c")));
+        Assertions.assertEquals(-1, powerSet.indexOf(Set.of("b", "z")));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> powerSet.get(8));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> powerSet.get(1).add("b"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> powerSet.add(Set.of()));
+    }
+
+    @Test
+    void equalToEagerPowerSet() {
+        var powerSet = new PowerSet<>(Set.of(1, 2, 3, 4));
+        var eager = new HashSet<Set<Integer>>();
+        for(var subset : powerSet) {
+            eager.add(new HashSet<>(subset));
+        }
+        Assertions.assertEquals(16, eager.size());
+        Assertions.assertEquals(eager, powerSet);
+        Assertions.assertEquals(powerSet, eager);
+        Assertions.assertEquals(eager.hashCode(), powerSet.hashCode());
+        Assertions.assertTrue(powerSet.contains(Set.of(2, 4)));
+        Assertions.assertFalse(powerSet.contains(Set.of(5)));
+        Assertions.assertFalse(powerSet.contains(List.of(1)));
+    }
+
+    @Test
+    void largeSetsAreLazy() {
+        var elements = IntStream.range(0, 62).boxed().collect(Collectors.toList());
+        var powerSet = new PowerSet<>(elements);
+        Assertions.assertEquals(1L << 62, powerSet.longSize());
+        Assertions.assertEquals(Integer.MAX_VALUE, powerSet.size());
+        Assertions.assertEquals(Set.of(61), powerSet.get(1L << 61));
+        Assertions.assertEquals(62, powerSet.get((1L << 62) - 1).size());
+        Assertions.assertEquals(1L << 62, powerSet.spliterator().estimateSize());
+
+        elements.add(62);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PowerSet<>(elements));
+    }
+
+    @Test
+    void splitsEvenly() {
+        var powerSet = new PowerSet<>(IntStream.range(0, 20).boxed().collect(Collectors.toList()));
+        Spliterator<Set<Integer>> spliterator = powerSet.spliterator();
+        Spliterator<Set<Integer>> prefix = spliterator.trySplit();
+        Assertions.assertEquals(1L << 19, prefix.estimateSize());
+        Assertions.assertEquals(1L << 19, spliterator.estimateSize());
+        Assertions.assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+
+        // Every element is in half of the subsets
+        Assertions.assertEquals(1L << 19, powerSet.parallelStream().filter(subset -> subset.contains(7)).count());
+        Assertions.assertEquals(20L << 19, powerSet.parallelStream().mapToLong(Set::size).sum());
+        Assertions.assertEquals(powerSet.stream().map(powerSet::indexOf).collect(Collectors.toList()),
+                powerSet.parallelStream().map(powerSet::indexOf).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.sambsnyd.datastructures;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static com.github.sambsnyd.datastructures.SAggregateTree.Aggregation;
+
+public class SAggregateTreeTest {
+
+    @Test
+    void rangeSum() {
+        var tree = new SAggregateTree<Integer, Long>(Comparator.naturalOrder(), Aggregation.summingLong(it -> it));
+        Assertions.assertEquals(0L, (long)tree.aggregate());
+        for(int i = 1; i <= 100; i++) {
+            tree.insert(i);
+        }
+        Assertions.assertEquals(5050L, (long)tree.aggregate());
+        Assertions.assertEquals(1L + 2 + 3, (long)tree.rangeAggregate(-5, 3));
+        Assertions.assertEquals(10L + 11 + 12, (long)tree.rangeAggregate(10, 12));
+        Assertions.assertEquals(0L, (long)tree.rangeAggregate(200, 300));
+
+        tree.remove(11);
+        Assertions.assertEquals(10L + 12, (long)tree.rangeAggregate(10, 12));
+        Assertions.assertEquals(5050L - 11, (long)tree.aggregate());
+    }
+
+    @Test
+    void rangeMinAndMax() {
+        // Ordered by natural string order but aggregated by length
+        Comparator<String> byLength = Comparator.comparing(String::length);
+        var tree = new SAggregateTree<String, String>(Comparator.naturalOrder(), Aggregation.max(byLength));
+        tree.insert("apple");
+        tree.insert("bat");
+        tree.insert("coconut");
+        tree.insert("dog");
+        Assertions.assertEquals("coconut", tree.aggregate());
+        Assertions.assertEquals("apple", tree.rangeAggregate("a", "bz"));
+        Assertions.assertNull(tree.rangeAggregate("x", "z"));
+
+        var minTree = new SAggregateTree<Integer, Integer>(
+                Comparator.reverseOrder(), Aggregation.min(Comparator.naturalOrder()));
+        minTree.insert(5);
+        minTree.insert(1);
+        minTree.insert(9);
+        Assertions.assertEquals(5, (int)minTree.rangeAggregate(9, 5), "Bounds follow the tree's own ordering");
+    }
+
+    @Test
+    void nonCommutativeAggregateCombinesInOrder() {
+        var tree = new SAggregateTree<String, String>(
+                Comparator.naturalOrder(), Aggregation.of("", it -> it, String::concat));
+        for(var letter : "hgfedcba".split("")) {
+            tree.insert(letter);
+        }
+        Assertions.assertEquals("abcdefgh", tree.aggregate());
+        Assertions.assertEquals("cdef", tree.rangeAggregate("c", "f"));
+    }
+
+    @Test
+    void matchesBruteForceUnderRandomOperations() {
+        var random = new Random(7);
+        var tree = new SAggregateTree<Integer, Long>(Comparator.naturalOrder(), Aggregation.summingLong(it -> it));
+        var expected = new TreeSet<Integer>();
+        for(int i = 0; i < 5_000; i++) {
+            int value = random.nextInt(1_000);
+            if(random.nextInt(3) > 0) {
+                expected.add(value);
+                tree.insert(value);
+            } else {
+                expected.remove(value);
+                tree.remove(value);
+            }
+            if(i % 50 == 0) {
+                int low = random.nextInt(1_000);
+                int high = low + random.nextInt(1_000 - low);
+                long expectedSum = expected.subSet(low, true, high, true).stream().mapToLong(it -> it).sum();
+                Assertions.assertEquals(expectedSum, (long)tree.rangeAggregate(low, high));
+                Assertions.assertEquals(expected.subSet(low, true, high, true).size(), tree.countInRange(low, high));
+            }
+        }
+    }
+}
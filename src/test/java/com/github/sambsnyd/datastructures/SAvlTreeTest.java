@@ -0,0 +1,136 @@
+package com.github.sambsnyd.datastructures;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class SAvlTreeTest {
+
+    @Test
+    void staysBalancedOnSortedInput() {
+        // Inserting in ascending order would turn an unbalanced BST into a linked list
+        var tree = new SAvlTree<Integer>(Comparator.naturalOrder());
+        int count = 100_000;
+        for(int i = 0; i < count; i++) {
+            Assertions.assertTrue(tree.insert(i));
+        }
+        Assertions.assertEquals(count, tree.size());
+        Assertions.assertTrue(tree.getRoot().isBalanced());
+        Assertions.assertTrue(tree.getHeight() <= 1.44 * (Math.log(count) / Math.log(2)),
+                "AVL trees are never taller than about 1.44 * log2(n)");
+        Assertions.assertTrue(tree.getRotationCount() > 0);
+        Assertions.assertEquals(
+                IntStream.range(0, count).boxed().collect(Collectors.toList()),
+                tree.getRoot().traverseInorder());
+    }
+
+    @Test
+    void insertRejectsDuplicates() {
+        var tree = new SAvlTree<Integer>(Comparator.naturalOrder());
+        Assertions.assertTrue(tree.insert(1));
+        Assertions.assertFalse(tree.insert(1));
+        Assertions.assertEquals(1, tree.size());
+    }
+
+    @Test
+    void floorCeilingAndRange() {
+        var tree = new SAvlTree<Integer>(Comparator.naturalOrder());
+        for(int i = 0; i <= 100; i += 10) {
+            tree.insert(i);
+        }
+        Assertions.assertEquals(20, (int)tree.floor(25));
+        Assertions.assertEquals(30, (int)tree.floor(30));
+        Assertions.assertNull(tree.floor(-1));
+        Assertions.assertEquals(30, (int)tree.ceiling(25));
+        Assertions.assertEquals(30, (int)tree.ceiling(30));
+        Assertions.assertNull(tree.ceiling(101));
+        Assertions.assertEquals(0, (int)tree.first());
+        Assertions.assertEquals(100, (int)tree.last());
+
+        Assertions.assertIterableEquals(List.of(30, 40, 50), tree.range(25, 55));
+        Assertions.assertIterableEquals(List.of(0, 10), tree.range(-50, 10));
+        Assertions.assertIterableEquals(List.of(), tree.range(41, 49));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tree.range(10, 0));
+    }
+
+    @Test
+    void honorsComparator() {
+        var tree = new SAvlTree<String>(Comparator.comparing(String::length));
+        tree.insert("ccc");
+        tree.insert("a");
+        tree.insert("bb");
+        Assertions.assertFalse(tree.insert("z"), "Equal according to the comparator means already present");
+        Assertions.assertIterableEquals(List.of("a", "bb", "ccc"), tree);
+    }
+
+    @Test
+    void matchesTreeSetUnderRandomOperations() {
+        var random = new Random(42);
+        var tree = new SAvlTree<Integer>(Comparator.naturalOrder());
+        var expected = new TreeSet<Integer>();
+        for(int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(2_000);
+            if(random.nextBoolean()) {
+                Assertions.assertEquals(expected.add(value), tree.insert(value));
+            } else {
+                Assertions.assertEquals(expected.remove(value), tree.remove(value));
+            }
+        }
+        Assertions.assertEquals(expected.size(), tree.size());
+        Assertions.assertTrue(tree.getRoot().isBalanced());
+        var actual = new ArrayList<Integer>();
+        tree.forEach(actual::add);
+        Assertions.assertIterableEquals(expected, actual);
+        for(int probe = -10; probe < 2_010; probe += 7) {
+            Assertions.assertEquals(expected.floor(probe), tree.floor(probe));
+            Assertions.assertEquals(expected.ceiling(probe), tree.ceiling(probe));
+            Assertions.assertEquals(expected.contains(probe), tree.contains(probe));
+        }
+    }
+
+    @Test
+    void rankSelectAndCount() {
+        var tree = new SAvlTree<Integer>(Comparator.naturalOrder());
+        for(int i = 0; i < 100; i++) {
+            tree.insert(i * 2);
+        }
+        Assertions.assertEquals(0, tree.rank(0));
+        Assertions.assertEquals(5, tree.rank(10));
+        Assertions.assertEquals(6, tree.rank(11), "Absent values rank where they would be inserted");
+        Assertions.assertEquals(100, tree.rank(1_000));
+        Assertions.assertEquals(0, (int)tree.select(0));
+        Assertions.assertEquals(84, (int)tree.select(42));
+        Assertions.assertEquals(198, (int)tree.select(99));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> tree.select(100));
+        Assertions.assertEquals(6, tree.countInRange(10, 20));
+        Assertions.assertEquals(5, tree.countInRange(11, 21));
+        Assertions.assertEquals(0, tree.countInRange(11, 11));
+
+        tree.remove(10);
+        Assertions.assertEquals(5, tree.rank(12));
+        Assertions.assertEquals(12, (int)tree.select(5));
+    }
+
+    @Test
+    void removeEverything() {
+        var tree = new SAvlTree<Integer>(Comparator.naturalOrder());
+        for(int i = 0; i < 1_000; i++) {
+            tree.insert(i);
+        }
+        for(int i = 0; i < 1_000; i++) {
+            Assertions.assertTrue(tree.remove(i));
+            Assertions.assertEquals(999 - i, tree.size());
+        }
+        Assertions.assertTrue(tree.isEmpty());
+        Assertions.assertNull(tree.getRoot());
+        Assertions.assertFalse(tree.remove(0));
+        Assertions.assertFalse(tree.iterator().hasNext());
+    }
+}
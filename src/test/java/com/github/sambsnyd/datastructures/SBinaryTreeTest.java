@@ -4,7 +4,13 @@ package com.github.sambsnyd.datastructures;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class SBinaryTreeTest {
 
@@ -69,6 +75,7 @@ public class SBinaryTreeTest {
     }
 
     @Test
+    @SuppressWarnings("deprecation")
     void testBfsRecursive() {
         //      (1)
         //     /   \
@@ -90,6 +97,7 @@ public class SBinaryTreeTest {
     }
 
     @Test
+    @SuppressWarnings("deprecation")
     void testDfsRecursive() {
         //      (1)
         //     /   \
@@ -110,6 +118,108 @@ public class SBinaryTreeTest {
                 "Should find the number '4' because of the depth first traversal");
     }
 
+    @Test
+    void testBfs() {
+        //      (1)
+        //     /   \
+        //   (3)    (2)
+        //   /
+        // (4)
+        var tree = new SBinaryTree<>(1);
+        tree.setRight(2);
+        tree.setLeft(3);
+        tree.getLeft().setLeft(4);
+
+        var notFound = tree.breadthFirstSearch(it -> it == 5);
+        Assertions.assertNull(notFound, "5 isn't in the tree so a search for it should return null");
+
+        var match = tree.breadthFirstSearch(it -> it % 2 == 0);
+        Assertions.assertNotNull(match, "Should find a matching item");
+        Assertions.assertEquals(2, (int)match,
+                "Should find the number '2' because of the breadth first traversal");
+    }
+
+    @Test
+    void testDfs() {
+        //      (1)
+        //     /   \
+        //   (3)    (2)
+        //   /
+        // (4)
+        var tree = new SBinaryTree<>(1);
+        tree.setRight(2);
+        tree.setLeft(3);
+        tree.getLeft().setLeft(4);
+
+        var notFound = tree.depthFirstSearch(it -> it == 5);
+        Assertions.assertNull(notFound, "5 isn't in the tree so a search for it should return null");
+
+        var match = tree.depthFirstSearch(it -> it % 2 == 0);
+        Assertions.assertNotNull(match, "Should find a matching item");
+        Assertions.assertEquals(4, (int)match,
+                "Should find the number '4' because of the depth first traversal");
+    }
+
+    @Test
+    void searchesReportDepthAndRespectLimit() {
+        //      (1)
+        //     /   \
+        //   (3)    (2)
+        //   /
+        // (4)
+        var tree = new SBinaryTree<>(1);
+        tree.setRight(2);
+        tree.setLeft(3);
+        tree.getLeft().setLeft(4);
+
+        var bfsMatch = tree.breadthFirstSearchWithDepth(it -> it % 2 == 0, Integer.MAX_VALUE);
+        Assertions.assertEquals(2, (int)bfsMatch.getValue());
+        Assertions.assertEquals(1, bfsMatch.getDepth());
+        Assertions.assertEquals(0, tree.breadthFirstSearchWithDepth(it -> it == 1, 0).getDepth());
+        Assertions.assertNull(tree.breadthFirstSearchWithDepth(it -> it == 4, 1),
+                "4 is at depth 2 so a search limited to depth 1 shouldn't find it");
+
+        var dfsMatch = tree.depthFirstSearchWithDepth(it -> it % 2 == 0, Integer.MAX_VALUE);
+        Assertions.assertEquals(4, (int)dfsMatch.getValue());
+        Assertions.assertEquals(2, dfsMatch.getDepth());
+        var limitedDfsMatch = tree.depthFirstSearchWithDepth(it -> it % 2 == 0, 1);
+        Assertions.assertEquals(2, (int)limitedDfsMatch.getValue(),
+                "With 4 out of reach the depth-first search should fall back to 2");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tree.depthFirstSearchWithDepth(it -> true, -1));
+    }
+
+    @Test
+    void searchesStopAtFirstMatch() {
+        var tree = balancedTree(0, 1_000);
+        var tested = new ArrayList<Integer>();
+        tree.breadthFirstSearch(it -> {
+            tested.add(it);
+            return it == 500;
+        });
+        Assertions.assertEquals(List.of(500), tested, "The root matches, so nothing else should be tested");
+
+        tested.clear();
+        tree.depthFirstSearch(it -> {
+            tested.add(it);
+            return it == 249;
+        });
+        Assertions.assertEquals(List.of(500, 249), tested);
+    }
+
+    @Test
+    void searchDegenerateTree() {
+        int depth = 200_000;
+        var root = new SBinaryTree<>(0);
+        var node = root;
+        for(int i = 1; i < depth; i++) {
+            node.setLeft(i);
+            node = node.getLeft();
+        }
+        Assertions.assertEquals(depth - 1, root.depthFirstSearchWithDepth(it -> it == depth - 1, depth).getDepth());
+        Assertions.assertEquals(depth - 1, (int)root.breadthFirstSearch(it -> it == depth - 1));
+        Assertions.assertNull(root.depthFirstSearch(it -> it < 0));
+    }
+
     @Test
     void traverseInorder() {
         //       (1)
@@ -127,4 +237,258 @@ public class SBinaryTreeTest {
         var traversed = tree.traverseInorder();
         Assertions.assertIterableEquals(List.of(4,3,5,1,6,2), traversed);
     }
+
+    @Test
+    void traversePreorderPostorderAndLevelOrder() {
+        //       (1)
+        //     /    \
+        //   (3)     (2)
+        //   / \     /
+        // (4) (5) (6)
+        var tree = new SBinaryTree<>(1);
+        tree.setRight(2);
+        tree.setLeft(3);
+        tree.getLeft().setLeft(4);
+        tree.getLeft().setRight(5);
+        tree.getRight().setLeft(6);
+
+        Assertions.assertIterableEquals(List.of(1,3,4,5,2,6), tree.traversePreorder());
+        Assertions.assertIterableEquals(List.of(4,5,3,6,2,1), tree.traversePostorder());
+        Assertions.assertIterableEquals(List.of(1,3,2,4,5,6), tree.traverseLevelOrder());
+        Assertions.assertIterableEquals(tree.traverseInorder(), tree,
+                "Iterating over the tree directly should be an in-order traversal");
+        Assertions.assertEquals(tree.traversePostorder(), tree.streamPostorder().collect(Collectors.toList()));
+    }
+
+    @Test
+    void iteratorsStopEarly() {
+        var tree = new SBinaryTree<>(1);
+        tree.setLeft(2);
+        tree.setRight(3);
+        tree.getLeft().setLeft(4);
+
+        var inorder = tree.inorderIterator();
+        Assertions.assertEquals(4, (int)inorder.next());
+        Assertions.assertEquals(2, (int)inorder.next());
+
+        var visited = new ArrayList<Integer>();
+        var firstEven = tree.streamPreorder()
+                .peek(visited::add)
+                .filter(it -> it % 2 == 0)
+                .findFirst();
+        Assertions.assertEquals(Optional.of(2), firstEven);
+        Assertions.assertIterableEquals(List.of(1,2), visited,
+                "Nodes after the first match should never be visited");
+
+        var levelOrder = new SBinaryTree<>(1).levelOrderIterator();
+        levelOrder.next();
+        Assertions.assertThrows(NoSuchElementException.class, levelOrder::next);
+    }
+
+    @Test
+    void traverseDegenerateTree() {
+        // A tree shaped like a linked list is tall enough to overflow the call stack if traversed recursively
+        int depth = 200_000;
+        var root = new SBinaryTree<>(0);
+        var node = root;
+        for(int i = 1; i < depth; i++) {
+            node.setRight(i);
+            node = node.getRight();
+        }
+
+        Assertions.assertEquals(depth, root.traverseInorder().size());
+        Assertions.assertEquals(0, (int)root.traversePreorder().get(0));
+        Assertions.assertEquals(depth - 1, (int)root.traversePostorder().get(0));
+        Assertions.assertEquals(depth, root.streamLevelOrder().count());
+    }
+
+    @Test
+    void spliteratorCountsSizeOnlyWhenAsked() {
+        var tree = new SBinaryTree<>(new SBinaryTree<>(1), 2, null);
+        var spliterator = tree.spliterator();
+        // Creating the spliterator didn't count the nodes, so one added afterwards is included once it does
+        tree.setRight(3);
+        Assertions.assertEquals(3, spliterator.estimateSize());
+        Assertions.assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+        Assertions.assertEquals(List.of(1, 2, 3), tree.stream().collect(Collectors.toList()));
+
+        var cached = new SBinaryTree<>(new SBinaryTree<>(1), 2, null).enableMetadataCache();
+        Assertions.assertEquals(2, cached.spliterator().estimateSize());
+    }
+
+    @Test
+    void parallelStreamAndAggregation() {
+        var balanced = balancedTree(0, 9_999);
+        var expected = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+        Assertions.assertEquals(10_000, balanced.size());
+        Assertions.assertEquals(expected, balanced.parallelStream().collect(Collectors.toList()),
+                "Parallel streams must still respect in-order encounter order");
+        Assertions.assertEquals(expected, balanced.parallelCollect(Collectors.toList()));
+        Assertions.assertEquals(49_995_000L,
+                (long)balanced.parallelReduce(0L, (sum, it) -> sum + it, Long::sum));
+
+        // Concatenation isn't commutative, so this only passes if subtree results are combined in order
+        var letters = new SBinaryTree<>(new SBinaryTree<>("a"), "b", new SBinaryTree<>("c"));
+        letters.getRight().setRight("d");
+        Assertions.assertEquals("abcd", letters.parallelReduce("", String::concat, String::concat));
+        Assertions.assertEquals("abcd", letters.parallelStream().collect(Collectors.joining()));
+    }
+
+    @Test
+    void parallelStreamOnDegenerateTrees() {
+        int depth = 50_000;
+        var leftChain = new SBinaryTree<>(depth - 1);
+        var rightChain = new SBinaryTree<>(0);
+        var leftNode = leftChain;
+        var rightNode = rightChain;
+        for(int i = 1; i < depth; i++) {
+            leftNode.setLeft(depth - 1 - i);
+            leftNode = leftNode.getLeft();
+            rightNode.setRight(i);
+            rightNode = rightNode.getRight();
+        }
+        var expected = IntStream.range(0, depth).boxed().collect(Collectors.toList());
+        for(var tree : List.of(leftChain, rightChain)) {
+            Assertions.assertEquals(expected, tree.parallelStream().collect(Collectors.toList()));
+            Assertions.assertEquals(expected, tree.parallelCollect(Collectors.toList()));
+            Assertions.assertEquals((long)depth * (depth - 1) / 2,
+                    (long)tree.parallelReduce(0L, (sum, it) -> sum + it, Long::sum));
+        }
+    }
+
+    @Test
+    void spliteratorSplitsOffLeftSubtree() {
+        //     (2)
+        //     / \
+        //   (1) (3)
+        var tree = new SBinaryTree<>(new SBinaryTree<>(1), 2, new SBinaryTree<>(3));
+        var suffix = tree.spliterator();
+        Assertions.assertEquals(3, suffix.estimateSize());
+        var prefix = suffix.trySplit();
+        Assertions.assertNotNull(prefix);
+
+        var seen = new ArrayList<Integer>();
+        prefix.forEachRemaining(seen::add);
+        Assertions.assertIterableEquals(List.of(1), seen);
+        suffix.forEachRemaining(seen::add);
+        Assertions.assertIterableEquals(List.of(1,2,3), seen);
+    }
+
+    @Test
+    void cachedMetadataTracksMutations() {
+        var tree = new SBinaryTree<>(1).enableMetadataCache();
+        Assertions.assertTrue(tree.isMetadataCached());
+        Assertions.assertEquals(1, tree.getHeight());
+        Assertions.assertEquals(1, tree.size());
+
+        //     (1)
+        //     /
+        //   (2)
+        //   /
+        // (3)
+        tree.setLeft(2);
+        tree.getLeft().setLeft(3);
+        Assertions.assertTrue(tree.getLeft().isMetadataCached(), "Children created by a cached node are cached");
+        Assertions.assertEquals(3, tree.getHeight());
+        Assertions.assertEquals(3, tree.size());
+        Assertions.assertFalse(tree.isBalanced());
+
+        //     (1)
+        //     / \
+        //   (2) (4)
+        //   /
+        // (3)
+        tree.setRight(4);
+        Assertions.assertEquals(3, tree.getHeight());
+        Assertions.assertEquals(4, tree.size());
+        Assertions.assertTrue(tree.isBalanced());
+
+        // Attaching an uncached subtree deep in the tree updates every ancestor
+        var uncached = new SBinaryTree<>(new SBinaryTree<>(6), 5, null);
+        tree.getLeft().getLeft().setRight(uncached);
+        Assertions.assertTrue(uncached.isMetadataCached());
+        Assertions.assertEquals(5, tree.getHeight());
+        Assertions.assertEquals(6, tree.size());
+        Assertions.assertFalse(tree.isBalanced());
+
+        // Detaching shrinks it back down and frees the detached node to be attached elsewhere
+        tree.getLeft().getLeft().setRight((SBinaryTree<Integer>)null);
+        Assertions.assertEquals(3, tree.getHeight());
+        Assertions.assertEquals(4, tree.size());
+        Assertions.assertTrue(tree.isBalanced());
+        tree.getRight().setLeft(uncached);
+        Assertions.assertEquals(4, tree.getHeight());
+        Assertions.assertEquals(6, tree.size());
+        Assertions.assertFalse(tree.isBalanced());
+    }
+
+    @Test
+    void cachedMetadataMatchesUncached() {
+        var cached = balancedTree(0, 1_000).enableMetadataCache();
+        var uncached = balancedTree(0, 1_000);
+        Assertions.assertEquals(uncached.getHeight(), cached.getHeight());
+        Assertions.assertEquals(uncached.size(), cached.size());
+        Assertions.assertEquals(uncached.isBalanced(), cached.isBalanced());
+        Assertions.assertTrue(cached.isBalanced());
+    }
+
+    @Test
+    void cachedNodesHaveOneParent() {
+        var tree = new SBinaryTree<>(1).enableMetadataCache();
+        tree.setLeft(2);
+        var other = new SBinaryTree<>(3).enableMetadataCache();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> other.setLeft(tree.getLeft()));
+    }
+
+    @Test
+    void failedCacheLeavesTreeUncached() {
+        //      (1)
+        //     /   \
+        //   (2)   (3)
+        //     \   /
+        //      (4)      shared by 2 and 3
+        var shared = new SBinaryTree<>(4);
+        var tree = new SBinaryTree<>(new SBinaryTree<>(null, 2, shared), 1, new SBinaryTree<>(shared, 3, null));
+        Assertions.assertThrows(IllegalArgumentException.class, tree::enableMetadataCache);
+        Assertions.assertFalse(tree.isMetadataCached());
+        Assertions.assertFalse(tree.getLeft().isMetadataCached());
+        Assertions.assertFalse(shared.isMetadataCached(), "Nodes visited before the failure must not be cached either");
+
+        // Once the sharing is gone the whole tree can be cached, so no stale parent pointers were left behind
+        tree.getRight().setLeft(5);
+        tree.enableMetadataCache();
+        Assertions.assertTrue(shared.isMetadataCached());
+        Assertions.assertEquals(5, tree.size());
+        Assertions.assertEquals(3, tree.getHeight());
+    }
+
+    @Test
+    void heightAndBalanceOfDegenerateTree() {
+        // Without the cache these are single passes rather than O(n^2) recursion, so a tall tree is no problem
+        int depth = 200_000;
+        var root = new SBinaryTree<>(0);
+        var node = root;
+        for(int i = 1; i < depth; i++) {
+            node.setLeft(i);
+            node = node.getLeft();
+        }
+        Assertions.assertEquals(depth, root.getHeight());
+        Assertions.assertFalse(root.isBalanced());
+
+        root.enableMetadataCache();
+        Assertions.assertEquals(depth, root.getHeight());
+        Assertions.assertEquals(depth, root.size());
+        Assertions.assertFalse(root.isBalanced());
+    }
+
+    /**
+     * Builds a balanced tree holding every integer in [low, high] such that an in-order traversal is ascending
+     */
+    private static SBinaryTree<Integer> balancedTree(int low, int high) {
+        if(low > high) {
+            return null;
+        }
+        int mid = (low + high) >>> 1;
+        return new SBinaryTree<>(balancedTree(low, mid - 1), mid, balancedTree(mid + 1, high));
+    }
 }
@@ -0,0 +1,67 @@
+package com.github.sambsnyd.datastructures;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class SBinaryTreesTest {
+
+    /**
+     * The shortest possible binary tree holding n values
+     */
+    private static int minimumHeight(int n) {
+        return 32 - Integer.numberOfLeadingZeros(n);
+    }
+
+    @Test
+    void fromSortedArrayAndList() {
+        var tree = SBinaryTrees.fromSorted(1, 2, 3, 4, 5, 6, 7);
+        //         (4)
+        //       /     \
+        //     (2)     (6)
+        //     / \     / \
+        //   (1) (3) (5) (7)
+        Assertions.assertEquals(List.of(4, 2, 6, 1, 3, 5, 7), tree.traverseLevelOrder());
+        Assertions.assertNull(SBinaryTrees.fromSorted(List.of()));
+
+        for(int n = 1; n <= 300; n++) {
+            var values = IntStream.range(0, n).boxed().collect(Collectors.toList());
+            var built = SBinaryTrees.fromSorted(values);
+            Assertions.assertEquals(values, built.traverseInorder());
+            Assertions.assertEquals(minimumHeight(n), built.getHeight());
+            Assertions.assertTrue(built.isBalanced());
+        }
+    }
+
+    @Test
+    void fromSortedIteratorAndStream() {
+        Assertions.assertNull(SBinaryTrees.fromSorted(List.<Integer>of().iterator()));
+        for(int n = 1; n <= 300; n++) {
+            var built = SBinaryTrees.fromSorted(IntStream.range(0, n).boxed());
+            Assertions.assertEquals(IntStream.range(0, n).boxed().collect(Collectors.toList()), built.traverseInorder());
+            Assertions.assertEquals(minimumHeight(n), built.getHeight(), "Wrong height for " + n + " values");
+            Assertions.assertTrue(built.isBalanced());
+        }
+        var linked = new LinkedList<>(List.of("a", "b", "c", "d"));
+        Assertions.assertEquals(linked, SBinaryTrees.fromSorted(linked).traverseInorder());
+    }
+
+    @Test
+    void fromSortedParallel() {
+        var values = new ArrayList<Integer>();
+        for(int i = 0; i < 1_000_000; i++) {
+            values.add(i);
+        }
+        var built = SBinaryTrees.fromSortedParallel(values);
+        Assertions.assertEquals(values.size(), built.size());
+        Assertions.assertEquals(minimumHeight(values.size()), built.getHeight());
+        Assertions.assertEquals(values, built.traverseInorder());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> SBinaryTrees.fromSortedParallel(new LinkedList<>(values)));
+    }
+}
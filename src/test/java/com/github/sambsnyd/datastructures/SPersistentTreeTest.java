@@ -0,0 +1,76 @@
+package com.github.sambsnyd.datastructures;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class SPersistentTreeTest {
+
+    @Test
+    void oldVersionsAreUnchanged() {
+        var empty = SPersistentTree.<Integer>empty(Comparator.naturalOrder());
+        var one = empty.insert(1);
+        var three = one.insert(3).insert(2);
+        var withoutOne = three.remove(1);
+
+        Assertions.assertTrue(empty.isEmpty());
+        Assertions.assertEquals(List.of(1), one.traverseInorder());
+        Assertions.assertEquals(List.of(1, 2, 3), three.traverseInorder());
+        Assertions.assertEquals(List.of(2, 3), withoutOne.traverseInorder());
+        Assertions.assertFalse(withoutOne.contains(1));
+        Assertions.assertTrue(three.contains(1));
+    }
+
+    @Test
+    void unchangedVersionsAreReused() {
+        var tree = SPersistentTree.<Integer>empty(Comparator.naturalOrder()).insert(1).insert(2);
+        Assertions.assertSame(tree, tree.insert(1), "Inserting an existing value shouldn't create a new version");
+        Assertions.assertSame(tree, tree.remove(3), "Removing a missing value shouldn't create a new version");
+    }
+
+    @Test
+    void staysBalancedOnSortedInput() {
+        var tree = SPersistentTree.<Integer>empty(Comparator.naturalOrder());
+        for(int i = 0; i < 100_000; i++) {
+            tree = tree.insert(i);
+        }
+        Assertions.assertEquals(100_000, tree.size());
+        Assertions.assertTrue(tree.getHeight() <= 1.44 * (Math.log(100_000) / Math.log(2)));
+        var copy = tree.toSBinaryTree();
+        Assertions.assertTrue(copy.isBalanced());
+        Assertions.assertEquals(tree.traverseInorder(), copy.traverseInorder());
+    }
+
+    @Test
+    void everyVersionMatchesTreeSet() {
+        var random = new Random(11);
+        var versions = new ArrayList<SPersistentTree<Integer>>();
+        var expectedVersions = new ArrayList<TreeSet<Integer>>();
+        var tree = SPersistentTree.<Integer>empty(Comparator.naturalOrder());
+        var expected = new TreeSet<Integer>();
+        for(int i = 0; i < 2_000; i++) {
+            int value = random.nextInt(500);
+            if(random.nextBoolean()) {
+                tree = tree.insert(value);
+                expected.add(value);
+            } else {
+                tree = tree.remove(value);
+                expected.remove(value);
+            }
+            versions.add(tree);
+            expectedVersions.add(new TreeSet<>(expected));
+        }
+        for(int i = 0; i < versions.size(); i++) {
+            Assertions.assertEquals(new ArrayList<>(expectedVersions.get(i)), versions.get(i).traverseInorder());
+        }
+        for(int probe = -5; probe < 505; probe += 3) {
+            Assertions.assertEquals(expected.floor(probe), tree.floor(probe));
+            Assertions.assertEquals(expected.ceiling(probe), tree.ceiling(probe));
+        }
+    }
+}
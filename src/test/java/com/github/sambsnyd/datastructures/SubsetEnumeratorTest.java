@@ -0,0 +1,120 @@
+package com.github.sambsnyd.datastructures;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class SubsetEnumeratorTest {
+
+    @Test
+    void subsetsOfSize() {
+        var enumerator = new SubsetEnumerator<>(List.of("a", "b", "c", "d"));
+        var seen = new ArrayList<Set<String>>();
+        Assertions.assertEquals(6, enumerator.forEachSubsetOfSize(2, subset -> seen.add(new HashSet<>(subset))));
+        Assertions.assertEquals(List.of(Set.of("a", "b"), Set.of("a", "c"), Set.of("b", "c"),
+                Set.of("a", "d"), Set.of("b", "d"), Set.of("c", "d")), seen);
+
+        Assertions.assertEquals(1, enumerator.forEachSubsetOfSize(0, subset -> subset.isEmpty()));
+        Assertions.assertEquals(1, enumerator.forEachSubsetOfSize(4, subset -> subset.mask() == 0b1111));
+        Assertions.assertEquals(0, enumerator.forEachSubsetOfSize(5, subset -> true));
+        Assertions.assertEquals(3, enumerator.forEachSubsetOfSize(1, subset -> !subset.contains("c")),
+                "Stops once the visitor returns false");
+        Assertions.assertEquals(0b10011, SubsetEnumerator.nextSubsetOfSameSize(0b01110));
+    }
+
+    @Test
+    void countsMatchBinomials() {
+        for(int n : new int[]{ 10, 64 }) {
+            var enumerator = new SubsetEnumerator<>(IntStream.range(0, n).boxed().collect(Collectors.toList()));
+            for(int k : new int[]{ 0, 1, 2, 3, n - 1, n }) {
+                long[] previous = { -1 };
+                long count = enumerator.forEachSubsetOfSize(k, subset -> {
+                    Assertions.assertEquals(k, Long.bitCount(subset.mask()));
+                    Assertions.assertEquals(k, subset.size());
+                    Assertions.assertTrue(Long.compareUnsigned(previous[0], subset.mask()) < 0 || previous[0] == -1,
+                            "Masks should increase");
+                    previous[0] = subset.mask();
+                    return true;
+                });
+                Assertions.assertEquals(binomial(n, k), count);
+            }
+        }
+    }
+
+    @Test
+    void moreThan64Elements() {
+        var enumerator = new SubsetEnumerator<>(IntStream.range(0, 100).boxed().collect(Collectors.toList()));
+        var distinct = new HashSet<BitSet>();
+        long count = enumerator.forEachSubsetOfSize(2, subset -> {
+            Assertions.assertEquals(2, subset.toBitSet().cardinality());
+            distinct.add(subset.toBitSet());
+            return true;
+        });
+        Assertions.assertEquals(4_950, count);
+        Assertions.assertEquals(4_950, distinct.size());
+        enumerator.forEachSubsetOfSize(99, subset -> {
+            Assertions.assertThrows(IllegalStateException.class, subset::mask);
+            return false;
+        });
+
+        var sums = new ArrayList<Integer>();
+        enumerator.forEachSubsetOfSize(3, subset -> {
+            int sum = 0;
+            for(int i = subset.nextIndex(0); i >= 0; i = subset.nextIndex(i + 1)) {
+                sum += subset.element(i);
+            }
+            sums.add(sum);
+            return sums.size() < 3;
+        });
+        Assertions.assertEquals(List.of(0 + 1 + 2, 0 + 1 + 3, 0 + 2 + 3), sums);
+    }
+
+    @Test
+    void grayOrderChangesOneElementAtATime() {
+        var enumerator = new SubsetEnumerator<>(IntStream.range(0, 16).boxed().collect(Collectors.toList()));
+        var seen = new HashSet<Long>();
+        long[] previous = { 0 };
+        // Keeps a running sum of the subset's elements, updated from the one element that changed
+        int[] sum = { 0 };
+        long count = enumerator.forEachSubsetGrayOrder(subset -> {
+            Assertions.assertTrue(seen.add(subset.mask()), "Each subset should be visited once");
+            if(subset.changedIndex() < 0) {
+                Assertions.assertTrue(subset.isEmpty());
+            } else {
+                Assertions.assertEquals(1L << subset.changedIndex(), previous[0] ^ subset.mask());
+                Assertions.assertEquals(subset.wasAdded(), subset.containsIndex(subset.changedIndex()));
+                sum[0] += subset.wasAdded() ? subset.element(subset.changedIndex()) : -subset.element(subset.changedIndex());
+            }
+            Assertions.assertEquals(subset.stream().mapToInt(Integer::intValue).sum(), sum[0]);
+            Assertions.assertEquals(Long.bitCount(subset.mask()), subset.size());
+            previous[0] = subset.mask();
+            return true;
+        });
+        Assertions.assertEquals(1 << 16, count);
+        Assertions.assertEquals(1 << 16, seen.size());
+    }
+
+    @Test
+    void grayOrderCanBeStopped() {
+        var enumerator = new SubsetEnumerator<>(IntStream.range(0, 200).boxed().collect(Collectors.toList()));
+        int[] visits = { 0 };
+        Assertions.assertEquals(1_000, enumerator.forEachSubsetGrayOrder(subset -> ++visits[0] < 1_000));
+        Assertions.assertEquals(1, new SubsetEnumerator<>(List.of()).forEachSubsetGrayOrder(subset -> true));
+    }
+
+    private static long binomial(int n, int k) {
+        var result = BigInteger.ONE;
+        for(int i = 0; i < k; i++) {
+            result = result.multiply(BigInteger.valueOf(n - i)).divide(BigInteger.valueOf(i + 1));
+        }
+        return result.longValueExact();
+    }
+}
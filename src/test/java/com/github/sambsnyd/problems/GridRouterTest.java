@@ -0,0 +1,122 @@
+package com.github.sambsnyd.problems;
+
+import com.github.sambsnyd.datastructures.BitGrid;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class GridRouterTest {
+
+    private RecursionAndMemoizationProblems problems = new RecursionAndMemoizationProblems();
+
+    @Test
+    void queriesFromAndToCorners() {
+        // [ _ _ _ _ _
+        //   _ X _ X _
+        //   _ X _ X X
+        //   _ X _ _ _ ]
+        var grid = new BitGrid(4, 5);
+        grid.fill(true);
+        for(int[] blocked : new int[][]{ {1,1}, {2,1}, {3,1}, {1,3}, {2,3}, {2,4} }) {
+            grid.setPassable(blocked[0], blocked[1], false);
+        }
+        var router = new GridRouter(grid);
+        int end = grid.cellCount() - 1;
+
+        Assertions.assertTrue(router.canReach(0, end));
+        Assertions.assertTrue(router.isReachableFromOrigin(grid.cell(3, 0)));
+        Assertions.assertFalse(router.isReachableFromOrigin(grid.cell(1, 1)));
+        Assertions.assertTrue(router.canReachEnd(grid.cell(0, 2)));
+        Assertions.assertFalse(router.canReachEnd(grid.cell(1, 4)), "(1,4) only leads into the wall below it");
+        Assertions.assertFalse(router.canReach(grid.cell(3, 0), end));
+        Assertions.assertFalse(router.canReach(grid.cell(1, 2), grid.cell(0, 4)), "Can't move up");
+        Assertions.assertTrue(router.canReach(grid.cell(1, 1), grid.cell(1, 1)));
+        Assertions.assertArrayEquals(problems.robotFindPath(grid), router.findPath(0, end));
+        Assertions.assertArrayEquals(new int[]{ 2, 7, 12, 17, 18 }, router.findPath(2, 18));
+        Assertions.assertArrayEquals(new int[0], router.findPath(grid.cell(3, 0), end));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> router.canReach(0, 20));
+    }
+
+    @Test
+    void matchesSearchFromEachSource() {
+        var random = new Random(17);
+        for(int trial = 0; trial < 50; trial++) {
+            int rows = 1 + random.nextInt(12);
+            int columns = 1 + random.nextInt(150);
+            var grid = new BitGrid(rows, columns);
+            for(int cell = 0; cell < grid.cellCount(); cell++) {
+                grid.setPassable(cell, random.nextInt(8) != 0);
+            }
+            var router = new GridRouter(grid);
+            for(int query = 0; query < 50; query++) {
+                int source = random.nextInt(grid.cellCount());
+                int target = random.nextInt(grid.cellCount());
+                boolean expected = reachable(grid, source, target);
+                Assertions.assertEquals(expected, router.canReach(source, target));
+
+                int[] path = router.findPath(source, target);
+                Assertions.assertEquals(expected, path.length > 0);
+                if(expected) {
+                    Assertions.assertEquals(source, path[0]);
+                    Assertions.assertEquals(target, path[path.length - 1]);
+                    for(int i = 1; i < path.length; i++) {
+                        int step = path[i] - path[i - 1];
+                        Assertions.assertTrue(step == 1 || step == columns);
+                        Assertions.assertTrue(grid.isPassable(path[i]));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void batchQueries() {
+        var grid = new BitGrid(200, 300);
+        grid.fill(true);
+        var random = new Random(1017);
+        for(int i = 0; i < 6_000; i++) {
+            grid.setPassable(random.nextInt(grid.cellCount()), false);
+        }
+        var router = new GridRouter(grid);
+        int[] sources = new int[5_000];
+        int[] targets = new int[5_000];
+        for(int i = 0; i < sources.length; i++) {
+            sources[i] = random.nextInt(grid.cellCount());
+            targets[i] = random.nextInt(grid.cellCount());
+        }
+
+        boolean[] reachable = router.canReach(sources, targets);
+        int[][] paths = router.findPaths(sources, targets);
+        for(int i = 0; i < sources.length; i++) {
+            Assertions.assertEquals(router.canReach(sources[i], targets[i]), reachable[i]);
+            Assertions.assertArrayEquals(router.findPath(sources[i], targets[i]), paths[i]);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> router.canReach(new int[1], new int[2]));
+    }
+
+    /**
+     * Plain cell-by-cell reachability to check the router against
+     */
+    private static boolean reachable(BitGrid grid, int source, int target) {
+        int sourceRow = grid.row(source);
+        int sourceColumn = grid.column(source);
+        int targetRow = grid.row(target);
+        int targetColumn = grid.column(target);
+        if(targetRow < sourceRow || targetColumn < sourceColumn) {
+            return false;
+        }
+        var reach = new boolean[targetRow - sourceRow + 1][targetColumn - sourceColumn + 1];
+        for(int r = 0; r < reach.length; r++) {
+            for(int c = 0; c < reach[r].length; c++) {
+                if(r == 0 && c == 0) {
+                    reach[r][c] = true;
+                } else {
+                    reach[r][c] = grid.isPassable(sourceRow + r, sourceColumn + c) &&
+                            ((r > 0 && reach[r - 1][c]) || (c > 0 && reach[r][c - 1]));
+                }
+            }
+        }
+        return reach[reach.length - 1][reach[0].length - 1];
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.sambsnyd.problems;
+
+import com.github.sambsnyd.datastructures.BitGrid;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.github.sambsnyd.problems.GridSearch.Heuristic;
+import static com.github.sambsnyd.problems.GridSearch.Movement;
+import static com.github.sambsnyd.problems.GridSearch.Result;
+
+public class GridSearchTest {
+
+    @Test
+    void openGrid() {
+        var grid = new BitGrid(5, 8);
+        grid.fill(true);
+        var four = new GridSearch(grid, Movement.FOUR);
+        var eight = new GridSearch(grid, Movement.EIGHT);
+        int end = grid.cellCount() - 1;
+
+        Assertions.assertEquals(10 * (4 + 7), four.aStar(0, end, Heuristic.MANHATTAN).getCost());
+        Assertions.assertEquals(14 * 4 + 10 * 3, eight.aStar(0, end, Heuristic.OCTILE).getCost());
+        Assertions.assertEquals(14 * 4 + 10 * 3, eight.jumpPoint(0, end).getCost());
+        Assertions.assertEquals(8, eight.jumpPoint(0, end).getPath().length);
+        Assertions.assertArrayEquals(new int[]{ 3 }, eight.aStar(3, 3, Heuristic.ZERO).getPath());
+        Assertions.assertArrayEquals(new int[]{ 3 }, eight.bidirectional(3, 3, Heuristic.ZERO).getPath());
+        Assertions.assertArrayEquals(new int[]{ 3 }, eight.jumpPoint(3, 3).getPath());
+        Assertions.assertThrows(IllegalStateException.class, () -> four.jumpPoint(0, end));
+    }
+
+    @Test
+    void diagonalsCantCutCorners() {
+        // [ _ X
+        //   _ _ ]
+        var grid = new BitGrid(2, 2);
+        grid.fill(true);
+        grid.setPassable(0, 1, false);
+        var search = new GridSearch(grid, Movement.EIGHT);
+        Assertions.assertArrayEquals(new int[]{ 0, 2, 3 }, search.aStar(0, 3, Heuristic.OCTILE).getPath());
+        Assertions.assertEquals(20, search.jumpPoint(0, 3).getCost());
+
+        grid.setPassable(1, 0, false);
+        search = new GridSearch(grid, Movement.EIGHT);
+        Assertions.assertFalse(search.aStar(0, 3, Heuristic.OCTILE).isFound());
+        Assertions.assertEquals(-1, search.bidirectional(0, 3, Heuristic.OCTILE).getCost());
+        Assertions.assertFalse(search.jumpPoint(0, 3).isFound());
+        Assertions.assertFalse(search.aStar(0, 1, Heuristic.OCTILE).isFound(), "Blocked targets can't be reached");
+    }
+
+    @Test
+    void weightedCellsAreAvoided() {
+        // A band of expensive cells across the middle row except at the far right
+        int[] costs = new int[3 * 5];
+        Arrays.fill(costs, 1);
+        for(int column = 0; column < 4; column++) {
+            costs[5 + column] = 20;
+        }
+        var search = new GridSearch(3, 5, costs, Movement.FOUR);
+        Assertions.assertFalse(search.isUniform());
+        Result result = search.aStar(0, 10, Heuristic.MANHATTAN);
+        Assertions.assertArrayEquals(new int[]{ 0, 1, 2, 3, 4, 9, 14, 13, 12, 11, 10 }, result.getPath());
+        Assertions.assertEquals(100, result.getCost());
+        Assertions.assertEquals(100, search.bidirectional(0, 10, Heuristic.MANHATTAN).getCost());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new GridSearch(2, 2, new int[3], Movement.FOUR));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new GridSearch(1, 1, new int[]{ -1 }, Movement.FOUR));
+    }
+
+    @Test
+    void strategiesAgreeOnCost() {
+        var random = new Random(19);
+        for(int trial = 0; trial < 150; trial++) {
+            int rows = 1 + random.nextInt(25);
+            int columns = 1 + random.nextInt(25);
+            boolean weighted = trial % 2 == 0;
+            int[] costs = new int[rows * columns];
+            for(int cell = 0; cell < costs.length; cell++) {
+                costs[cell] = random.nextInt(4) == 0 ? 0 : weighted ? 1 + random.nextInt(9) : 3;
+            }
+            for(var movement : Movement.values()) {
+                var search = new GridSearch(rows, columns, costs, movement);
+                var admissible = movement == Movement.FOUR ? Heuristic.MANHATTAN : Heuristic.OCTILE;
+                for(int query = 0; query < 10; query++) {
+                    int source = random.nextInt(costs.length);
+                    int target = random.nextInt(costs.length);
+                    Result dijkstra = search.aStar(source, target, Heuristic.ZERO);
+                    Result aStar = search.aStar(source, target, admissible);
+                    Result bidirectional = search.bidirectional(source, target, admissible);
+                    Assertions.assertEquals(dijkstra.getCost(), aStar.getCost());
+                    Assertions.assertEquals(dijkstra.getCost(), bidirectional.getCost());
+                    Assertions.assertEquals(dijkstra.getCost(), search.bidirectional(source, target, Heuristic.ZERO).getCost());
+                    checkPath(search, costs, aStar, source, target);
+                    checkPath(search, costs, bidirectional, source, target);
+                    if(search.isUniform() && movement == Movement.EIGHT) {
+                        Result jumpPoint = search.jumpPoint(source, target);
+                        Assertions.assertEquals(dijkstra.getCost(), jumpPoint.getCost());
+                        checkPath(search, costs, jumpPoint, source, target);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void betterStrategiesExpandLess() {
+        var grid = new BitGrid(300, 300);
+        grid.fill(true);
+        var random = new Random(1019);
+        for(int i = 0; i < 9_000; i++) {
+            grid.setPassable(random.nextInt(grid.cellCount()), false);
+        }
+        grid.setPassable(0, true);
+        grid.setPassable(grid.cellCount() - 1, true);
+        var search = new GridSearch(grid, Movement.EIGHT);
+        int end = grid.cellCount() - 1;
+
+        Result dijkstra = search.aStar(0, end, Heuristic.ZERO);
+        Result aStar = search.aStar(0, end, Heuristic.OCTILE);
+        Result jumpPoint = search.jumpPoint(0, end);
+        Assertions.assertTrue(dijkstra.isFound());
+        Assertions.assertEquals(dijkstra.getCost(), aStar.getCost());
+        Assertions.assertEquals(dijkstra.getCost(), jumpPoint.getCost());
+        Assertions.assertTrue(aStar.getExpansionCount() < dijkstra.getExpansionCount());
+        Assertions.assertTrue(jumpPoint.getExpansionCount() < aStar.getExpansionCount());
+        Assertions.assertTrue(search.bidirectional(0, end, Heuristic.ZERO).getExpansionCount() < dijkstra.getExpansionCount());
+    }
+
+    /**
+     * Checks that a path is made of allowed moves between passable cells and that it costs what the result says
+     */
+    private static void checkPath(GridSearch search, int[] costs, Result result, int source, int target) {
+        int[] path = result.getPath();
+        if(!result.isFound()) {
+            Assertions.assertEquals(-1, result.getCost());
+            return;
+        }
+        Assertions.assertEquals(source, path[0]);
+        Assertions.assertEquals(target, path[path.length - 1]);
+        int columns = search.columns();
+        long cost = 0;
+        for(int i = 1; i < path.length; i++) {
+            int rowStep = Math.abs(path[i] / columns - path[i - 1] / columns);
+            int columnStep = Math.abs(path[i] % columns - path[i - 1] % columns);
+            Assertions.assertTrue(rowStep <= 1 && columnStep <= 1 && rowStep + columnStep > 0);
+            Assertions.assertTrue(costs[path[i]] > 0);
+            if(rowStep + columnStep == 2) {
+                Assertions.assertEquals(Movement.EIGHT, search.getMovement());
+                Assertions.assertTrue(costs[path[i - 1] / columns * columns + path[i] % columns] > 0, "Cut a corner");
+                Assertions.assertTrue(costs[path[i] / columns * columns + path[i - 1] % columns] > 0, "Cut a corner");
+                cost += 14L * costs[path[i]];
+            } else {
+                cost += 10L * costs[path[i]];
+            }
+        }
+        Assertions.assertEquals(result.getCost(), cost);
+    }
+}
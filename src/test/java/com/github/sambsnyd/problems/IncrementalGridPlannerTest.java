@@ -0,0 +1,99 @@
+package com.github.sambsnyd.problems;
+
+import com.github.sambsnyd.datastructures.BitGrid;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class IncrementalGridPlannerTest {
+
+    @Test
+    void repairsAroundBlockedCells() {
+        var grid = new BitGrid(3, 3);
+        grid.fill(true);
+        var planner = new IncrementalGridPlanner(grid);
+        Assertions.assertEquals(9, planner.getLastExpansionCount());
+        Assertions.assertArrayEquals(new int[]{ 0, 1, 2, 5, 8 }, planner.path());
+
+        planner.setPassable(0, 2, false);
+        Assertions.assertTrue(grid.isPassable(0, 2), "The planner works on its own copy");
+        Assertions.assertArrayEquals(new int[]{ 0, 1, 4, 5, 8 }, planner.path());
+        Assertions.assertTrue(planner.getLastExpansionCount() > 0);
+
+        planner.setPassable(1, 1, false);
+        planner.setPassable(1, 0, false);
+        Assertions.assertFalse(planner.hasPath());
+        Assertions.assertArrayEquals(new int[0], planner.path());
+        Assertions.assertTrue(planner.hasPath(3), "The starting cell's own passability isn't checked");
+        Assertions.assertArrayEquals(new int[]{ 3, 6, 7, 8 }, planner.path(3));
+
+        planner.setPassable(1, 1, true);
+        Assertions.assertArrayEquals(new int[]{ 0, 1, 4, 5, 8 }, planner.path());
+        Assertions.assertArrayEquals(new int[]{ 8 }, planner.path(8));
+        Assertions.assertEquals(0, planner.replan(), "Nothing changed since the last replan");
+    }
+
+    @Test
+    void singleColumn() {
+        var grid = new BitGrid(4, 1);
+        grid.fill(true);
+        var planner = new IncrementalGridPlanner(grid);
+        Assertions.assertArrayEquals(new int[]{ 0, 1, 2, 3 }, planner.path());
+        planner.setPassable(2, false);
+        Assertions.assertFalse(planner.hasPath());
+    }
+
+    @Test
+    void localChangesExpandLocally() {
+        var grid = new BitGrid(1_000, 1_000);
+        grid.fill(true);
+        var planner = new IncrementalGridPlanner(grid);
+        Assertions.assertEquals(1_000_000, planner.getLastExpansionCount());
+
+        // Cells near the top left only affect the few cells above and to the left of them
+        planner.setPassable(2, 2, false);
+        planner.setPassable(3, 1, false);
+        Assertions.assertTrue(planner.replan() < 20);
+        Assertions.assertTrue(planner.hasPath());
+
+        // Walling off the bottom right corner makes every cell unreachable, so every cell is expanded
+        planner.setPassable(998, 999, false);
+        planner.setPassable(999, 998, false);
+        planner.replan();
+        Assertions.assertFalse(planner.hasPath());
+        Assertions.assertTrue(planner.getLastExpansionCount() > 900_000);
+    }
+
+    @Test
+    void matchesFullReplanning() {
+        var problems = new RecursionAndMemoizationProblems();
+        var random = new Random(18);
+        var grid = new BitGrid(30, 90);
+        for(int cell = 0; cell < grid.cellCount(); cell++) {
+            grid.setPassable(cell, random.nextInt(6) != 0);
+        }
+        var planner = new IncrementalGridPlanner(grid);
+        for(int update = 0; update < 300; update++) {
+            for(int i = random.nextInt(5); i >= 0; i--) {
+                int cell = random.nextInt(grid.cellCount());
+                boolean passable = random.nextInt(6) != 0;
+                grid.setPassable(cell, passable);
+                planner.setPassable(cell, passable);
+            }
+            planner.replan();
+            var router = new GridRouter(grid);
+            int from = random.nextInt(grid.cellCount());
+            Assertions.assertEquals(problems.robotHasPath(grid), planner.hasPath());
+            Assertions.assertEquals(router.canReach(from, grid.cellCount() - 1), planner.hasPath(from));
+
+            int[] path = planner.path(from);
+            Assertions.assertEquals(planner.hasPath(from), path.length > 0);
+            for(int i = 1; i < path.length; i++) {
+                int step = path[i] - path[i - 1];
+                Assertions.assertTrue(step == 1 || step == grid.columns());
+                Assertions.assertTrue(grid.isPassable(path[i]));
+            }
+        }
+    }
+}
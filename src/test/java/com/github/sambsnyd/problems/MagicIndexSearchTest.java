@@ -0,0 +1,159 @@
+package com.github.sambsnyd.problems;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static com.github.sambsnyd.problems.MagicIndexSearch.Ordering;
+
+public class MagicIndexSearchTest {
+
+    private RecursionAndMemoizationProblems problems = new RecursionAndMemoizationProblems();
+
+    @Test
+    void lowestMagicIndex() {
+        Assertions.assertEquals(0, MagicIndexSearch.lowestMagicIndex(new int[]{ 0 }, Ordering.STRICTLY_INCREASING));
+        Assertions.assertEquals(2, MagicIndexSearch.lowestMagicIndex(new int[]{ -10, 0, 2, 3, 4 }, Ordering.STRICTLY_INCREASING));
+        Assertions.assertEquals(-1, MagicIndexSearch.lowestMagicIndex(new int[]{ 1, 2, 3, 4, 5 }, Ordering.STRICTLY_INCREASING));
+        Assertions.assertEquals(-1, MagicIndexSearch.lowestMagicIndex(new int[]{}, Ordering.STRICTLY_INCREASING));
+        Assertions.assertEquals(-1, MagicIndexSearch.lowestMagicIndex(new int[]{}, Ordering.NON_DECREASING));
+        Assertions.assertEquals(1, MagicIndexSearch.lowestMagicIndex(new int[]{ 1, 1, 1, 1, 2, 10, 10, 10, 10 }, Ordering.NON_DECREASING));
+        // findMagicIndex finds 2 here, the lowest is 0
+        Assertions.assertEquals(0, MagicIndexSearch.lowestMagicIndex(new int[]{ 0, 0, 2, 2, 3, 3 }, Ordering.NON_DECREASING));
+        Assertions.assertEquals(4, MagicIndexSearch.lowestMagicIndex(new int[]{ -1, -1, -1, -1, 4 }, Ordering.NON_DECREASING));
+        Assertions.assertEquals(-1, MagicIndexSearch.lowestMagicIndex(
+                new int[]{ Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE }, Ordering.NON_DECREASING));
+        Assertions.assertEquals(-1, MagicIndexSearch.lowestMagicIndex(
+                new int[]{ Integer.MIN_VALUE, Integer.MIN_VALUE + 1, Integer.MAX_VALUE }, Ordering.STRICTLY_INCREASING));
+        Assertions.assertEquals(1, MagicIndexSearch.lowestMagicIndex(new int[]{ 9, 9, -1, 1, 9 }, 2, 5, Ordering.STRICTLY_INCREASING),
+                "Indexes are relative to the start of the range");
+    }
+
+    @Test
+    void matchesLinearScan() {
+        var random = new Random(23);
+        for(int trial = 0; trial < 2_000; trial++) {
+            boolean strict = trial % 2 == 0;
+            int[] values = randomSorted(random, random.nextInt(200), strict);
+            int expected = lowestByScan(values, 0, values.length);
+            var ordering = strict ? Ordering.STRICTLY_INCREASING : Ordering.NON_DECREASING;
+            Assertions.assertEquals(expected, MagicIndexSearch.lowestMagicIndex(values, ordering), Arrays.toString(values));
+            Assertions.assertEquals(expected, MagicIndexSearch.lowestMagicIndex(values, Ordering.NON_DECREASING));
+
+            int found = problems.findMagicIndex(values);
+            Assertions.assertEquals(expected >= 0, found >= 0);
+        }
+    }
+
+    @Test
+    void batches() {
+        var random = new Random(1023);
+        var pool = new ForkJoinPool(4);
+        try {
+            int[][] arrays = new int[3_000][];
+            for(int i = 0; i < arrays.length; i++) {
+                arrays[i] = randomSorted(random, random.nextInt(i % 100 == 0 ? 50_000 : 100), false);
+            }
+            int[] results = MagicIndexSearch.lowestMagicIndexes(pool, arrays, Ordering.NON_DECREASING);
+            Assertions.assertEquals(arrays.length, results.length);
+
+            int[] offsets = new int[arrays.length + 1];
+            for(int i = 0; i < arrays.length; i++) {
+                offsets[i + 1] = offsets[i] + arrays[i].length;
+            }
+            int[] values = new int[offsets[arrays.length]];
+            for(int i = 0; i < arrays.length; i++) {
+                System.arraycopy(arrays[i], 0, values, offsets[i], arrays[i].length);
+            }
+            int[] packedResults = MagicIndexSearch.lowestMagicIndexes(values, offsets, Ordering.NON_DECREASING);
+
+            for(int i = 0; i < arrays.length; i++) {
+                Assertions.assertEquals(lowestByScan(arrays[i], 0, arrays[i].length), results[i]);
+                Assertions.assertEquals(results[i], packedResults[i]);
+            }
+            Assertions.assertArrayEquals(new int[0], MagicIndexSearch.lowestMagicIndexes(new int[0][], Ordering.NON_DECREASING));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> MagicIndexSearch.lowestMagicIndexes(values, new int[]{ 5, 3 }, Ordering.NON_DECREASING));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void magicIndexes() {
+        Assertions.assertArrayEquals(new int[]{ 0, 2, 3 },
+                MagicIndexSearch.magicIndexes(new int[]{ 0, 0, 2, 3, 3, 3 }).toArray());
+        Assertions.assertArrayEquals(new int[]{ 1, 2, 3, 4 },
+                MagicIndexSearch.magicIndexes(new int[]{ 1, 1, 2, 3, 4, 9, 9 }).toArray());
+        Assertions.assertArrayEquals(new int[0], MagicIndexSearch.magicIndexes(new int[0]).toArray());
+        Assertions.assertArrayEquals(new int[0], MagicIndexSearch.magicIndexes(
+                new int[]{ Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE }).toArray());
+        Assertions.assertArrayEquals(new int[]{ 0, 1 },
+                MagicIndexSearch.magicIndexes(new int[]{ 7, 0, 1, 7 }, 1, 3).toArray());
+
+        var random = new Random(24);
+        for(int trial = 0; trial < 2_000; trial++) {
+            int[] values = randomSorted(random, random.nextInt(300), trial % 2 == 0);
+            int[] expected = IntStream.range(0, values.length).filter(i -> values[i] == i).toArray();
+            Assertions.assertArrayEquals(expected, MagicIndexSearch.magicIndexes(values).toArray(), Arrays.toString(values));
+            var bits = new BitSet();
+            Arrays.stream(expected).forEach(bits::set);
+            Assertions.assertEquals(bits, MagicIndexSearch.magicIndexBits(values));
+            Assertions.assertEquals(lowestByScan(values, 0, values.length),
+                    MagicIndexSearch.magicIndexes(values).findFirst().orElse(-1));
+        }
+    }
+
+    @Test
+    void index() {
+        var random = new Random(240);
+        for(int trial = 0; trial < 200; trial++) {
+            int[] values = randomSorted(random, 1 + random.nextInt(500), false);
+            var index = MagicIndexSearch.Index.of(values);
+            Assertions.assertEquals(values.length, index.length());
+            Assertions.assertArrayEquals(MagicIndexSearch.magicIndexes(values).toArray(), index.toArray());
+            Assertions.assertEquals(index.toArray().length, index.count());
+            for(int query = 0; query < 50; query++) {
+                int lo = random.nextInt(values.length);
+                int hi = lo + random.nextInt(values.length - lo);
+                int[] expected = IntStream.rangeClosed(lo, hi).filter(i -> values[i] == i).toArray();
+                Assertions.assertArrayEquals(expected, index.between(lo, hi).toArray());
+                Assertions.assertEquals(expected.length, index.count(lo, hi));
+                Assertions.assertEquals(values[lo] == lo, index.isMagic(lo));
+                int next = IntStream.range(lo, values.length).filter(i -> values[i] == i).findFirst().orElse(-1);
+                Assertions.assertEquals(next, index.next(lo));
+            }
+        }
+        var index = MagicIndexSearch.Index.of(new int[]{ 0, 1, 2 });
+        Assertions.assertEquals(-1, index.next(3));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> index.count(2, 1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> index.between(0, 3));
+    }
+
+    /**
+     * Sorted values around their own indexes, so that magic indexes are common but not certain
+     */
+    private static int[] randomSorted(Random random, int length, boolean strict) {
+        int[] values = new int[length];
+        int value = random.nextInt(20) - 15;
+        for(int i = 0; i < length; i++) {
+            values[i] = value;
+            value += strict ? 1 + (random.nextInt(4) == 0 ? random.nextInt(3) : 0) : random.nextInt(3) == 0 ? 0 : random.nextInt(3);
+        }
+        return values;
+    }
+
+    private static int lowestByScan(int[] values, int from, int to) {
+        for(int i = from; i < to; i++) {
+            if(values[i] == i - from) {
+                return i - from;
+            }
+        }
+        return -1;
+    }
+}
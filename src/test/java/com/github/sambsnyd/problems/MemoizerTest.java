@@ -0,0 +1,57 @@
+package com.github.sambsnyd.problems;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class MemoizerTest {
+
+    @Test
+    void countsHitsAndMisses() {
+        var memo = new Memoizer<Integer, Integer>(10);
+        var computations = new AtomicInteger();
+        Function<Integer, Integer> square = it -> {
+            computations.incrementAndGet();
+            return it * it;
+        };
+        Assertions.assertEquals(9, (int)memo.computeIfAbsent(3, square));
+        Assertions.assertEquals(9, (int)memo.computeIfAbsent(3, square));
+        Assertions.assertEquals(16, (int)memo.computeIfAbsent(4, square));
+        Assertions.assertEquals(2, computations.get());
+        Assertions.assertEquals(1, memo.hitCount());
+        Assertions.assertEquals(2, memo.missCount());
+
+        Assertions.assertEquals(9, (int)memo.peek(3));
+        Assertions.assertNull(memo.peek(5));
+        Assertions.assertEquals(1, memo.hitCount(), "Peeking doesn't count as a hit");
+    }
+
+    @Test
+    void evictsBeyondMaximumSize() {
+        var memo = new Memoizer<Integer, Integer>(5);
+        for(int i = 0; i < 100; i++) {
+            memo.computeIfAbsent(i, it -> it);
+        }
+        Assertions.assertTrue(memo.size() <= 5);
+        Assertions.assertTrue(memo.evictionCount() >= 95);
+        memo.clear();
+        Assertions.assertEquals(0, memo.size());
+    }
+
+    @Test
+    void supportsRecursiveFunctions() {
+        var memo = new Memoizer<Integer, BigInteger>(1_000);
+        Assertions.assertEquals(new BigInteger("354224848179261915075"), fibonacci(memo, 100));
+        Assertions.assertEquals(99, memo.missCount(), "Every value from 2 to 100 is computed exactly once");
+    }
+
+    private static BigInteger fibonacci(Memoizer<Integer, BigInteger> memo, int n) {
+        if(n <= 1) {
+            return BigInteger.valueOf(n);
+        }
+        return memo.computeIfAbsent(n, it -> fibonacci(memo, it - 1).add(fibonacci(memo, it - 2)));
+    }
+}
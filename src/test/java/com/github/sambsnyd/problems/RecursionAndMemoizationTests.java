@@ -1,13 +1,17 @@
 package com.github.sambsnyd.problems;
 
+import com.github.sambsnyd.datastructures.BitGrid;
 import com.google.common.collect.ArrayTable;
 import com.google.common.collect.Lists;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import static com.github.sambsnyd.problems.RecursionAndMemoizationProblems.GridPoint;
 
+import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 public class RecursionAndMemoizationTests {
@@ -37,6 +41,72 @@ public class RecursionAndMemoizationTests {
                 "3+1, 1+3, 2+2, 2+1+1, 1+2+1, 1+1+2, 1+1+1+1");
     }
 
+    @Test
+    void stairTraversalCombinationsMatrix() {
+        for(int steps = 0; steps <= 20; steps++) {
+            long expected = problems.stairTraversalCombinationsBrute(steps);
+            Assertions.assertEquals(expected, problems.stairTraversalCombinationsMemoized(steps));
+            Assertions.assertEquals(expected, problems.stairTraversalCombinationsMatrix(steps));
+            Assertions.assertEquals(BigInteger.valueOf(expected), problems.stairTraversalCombinationsExact(steps));
+            Assertions.assertEquals(expected % 1_000, problems.stairTraversalCombinationsModular(steps, 1_000));
+        }
+        // Past 36 steps the count no longer fits in an int
+        Assertions.assertEquals(3_831_006_429L, problems.stairTraversalCombinationsMatrix(37));
+        Assertions.assertEquals(7_046_319_384L, problems.stairTraversalCombinationsMatrix(38));
+
+        long largestLong = problems.stairTraversalCombinationsMatrix(72);
+        Assertions.assertEquals(BigInteger.valueOf(largestLong), problems.stairTraversalCombinationsExact(72));
+        Assertions.assertThrows(ArithmeticException.class, () -> problems.stairTraversalCombinationsMatrix(73));
+
+        var exact = problems.stairTraversalCombinationsExact(1_000);
+        Assertions.assertEquals(exact.mod(BigInteger.valueOf(1_000_000_007)).longValue(),
+                problems.stairTraversalCombinationsModular(1_000, 1_000_000_007));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> problems.stairTraversalCombinationsModular(10, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> problems.stairTraversalCombinationsMatrix(-1));
+    }
+
+    @Test
+    void stairTraversalCombinationsCached() {
+        var memo = new Memoizer<Integer, Long>(100);
+        var cachedProblems = new RecursionAndMemoizationProblems(memo);
+        for(int steps = 0; steps <= 72; steps++) {
+            Assertions.assertEquals(problems.stairTraversalCombinationsMatrix(steps),
+                    cachedProblems.stairTraversalCombinationsCached(steps));
+        }
+        Assertions.assertEquals(0, memo.hitCount());
+        Assertions.assertEquals(cachedProblems.stairTraversalCombinationsMatrix(50),
+                cachedProblems.stairTraversalCombinationsCached(50));
+        Assertions.assertEquals(1, memo.hitCount(), "Counts computed before are looked up, not recomputed");
+        Assertions.assertThrows(ArithmeticException.class, () -> cachedProblems.stairTraversalCombinationsCached(73));
+
+        // Going straight to a large step count fills in the counts below it on the way
+        var fresh = new Memoizer<Integer, Long>(100);
+        new RecursionAndMemoizationProblems(fresh).stairTraversalCombinationsCached(40);
+        Assertions.assertEquals(problems.stairTraversalCombinationsMatrix(20), (long)fresh.peek(20));
+
+        // Even if eviction drops everything it needs, the answer is still right
+        var tiny = new RecursionAndMemoizationProblems(new Memoizer<>(1));
+        Assertions.assertEquals(problems.stairTraversalCombinationsMatrix(30), tiny.stairTraversalCombinationsCached(30));
+        Assertions.assertEquals(problems.stairTraversalCombinationsMatrix(60), tiny.stairTraversalCombinationsCached(60));
+    }
+
+    @Test
+    void stepCombinationsWithCustomSteps() {
+        // With hops of 1 or 2 the counts are the Fibonacci numbers
+        Assertions.assertEquals(1, problems.stepCombinations(1, 1, 2));
+        Assertions.assertEquals(89, problems.stepCombinations(10, 1, 2));
+        Assertions.assertEquals(BigInteger.valueOf(1_836_311_903), problems.stepCombinationsExact(45, 2, 1));
+        // Only even staircases can be climbed two at a time
+        Assertions.assertEquals(0, problems.stepCombinations(7, 2));
+        Assertions.assertEquals(1, problems.stepCombinations(8, 2));
+        // 5 = 5 = 1+4 = 4+1 = 1+1+1+1+1 with hops of 1, 4 and 5
+        Assertions.assertEquals(4, problems.stepCombinations(5, 1, 4, 5));
+        Assertions.assertEquals(4, problems.stepCombinationsModular(5, 1_000, 5, 4, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> problems.stepCombinations(5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> problems.stepCombinations(5, 1, 0));
+    }
+
     @Test
     void robotTraverseGridTest() {
         // A 2x2 grid where the upper-right corner is impassable
@@ -79,6 +149,114 @@ public class RecursionAndMemoizationTests {
 //                ArrayTable.create(Lists.newArrayList(0,1,2,3,4), Lists.newArrayList(0,1,2,3,4));
     }
 
+    @Test
+    void robotTraverseBitGridTest() {
+        // [ _ _ _ _ _
+        //   _ X _ X _
+        //   _ X _ X X
+        //   _ X _ _ _ ]
+        var trapGrid = new BitGrid(4, 5);
+        trapGrid.fill(true);
+        trapGrid.setPassable(1, 1, false);
+        trapGrid.setPassable(2, 1, false);
+        trapGrid.setPassable(3, 1, false);
+        trapGrid.setPassable(1, 3, false);
+        trapGrid.setPassable(2, 3, false);
+        trapGrid.setPassable(2, 4, false);
+        Assertions.assertIterableEquals(
+                List.of(new GridPoint(0,0), new GridPoint(0,1), new GridPoint(0,2), new GridPoint(1,2),
+                        new GridPoint(2,2), new GridPoint(3,2), new GridPoint(3,3), new GridPoint(3,4)),
+                problems.robotTraverseGrid(trapGrid));
+
+        var openGrid = new BitGrid(2_000, 3_000);
+        openGrid.fill(true);
+        int[] path = problems.robotTraverseGridCells(openGrid);
+        Assertions.assertEquals(2_000 + 3_000 - 1, path.length);
+        Assertions.assertEquals(0, path[0]);
+        Assertions.assertEquals(openGrid.cellCount() - 1, path[path.length - 1]);
+        for(int i = 1; i < path.length; i++) {
+            int step = path[i] - path[i - 1];
+            Assertions.assertTrue(step == 1 || step == openGrid.columns(), "Each step should be right or down");
+        }
+
+        // A wall across the whole grid apart from one gap
+        var walledGrid = new BitGrid(300, 300);
+        walledGrid.fill(true);
+        for(int column = 0; column < 300; column++) {
+            walledGrid.setPassable(150, column, column == 7);
+        }
+        int[] walledPath = problems.robotTraverseGridCells(walledGrid);
+        Assertions.assertEquals(599, walledPath.length);
+        Assertions.assertTrue(Arrays.stream(walledPath).anyMatch(cell -> cell == walledGrid.cell(150, 7)));
+        for(int cell : walledPath) {
+            Assertions.assertTrue(walledGrid.isPassable(cell));
+        }
+
+        walledGrid.setPassable(150, 7, false);
+        Assertions.assertEquals(0, problems.robotTraverseGridCells(walledGrid).length);
+        Assertions.assertEquals(List.of(), problems.robotTraverseGrid(walledGrid));
+    }
+
+    @Test
+    void robotGridDynamicProgrammingTest() {
+        var trapGrid = new BitGrid(4, 5);
+        trapGrid.fill(true);
+        for(int[] blocked : new int[][]{ {1,1}, {2,1}, {3,1}, {1,3}, {2,3}, {2,4} }) {
+            trapGrid.setPassable(blocked[0], blocked[1], false);
+        }
+        Assertions.assertTrue(problems.robotHasPath(trapGrid));
+        Assertions.assertArrayEquals(problems.robotTraverseGridCells(trapGrid), problems.robotFindPath(trapGrid));
+        Assertions.assertEquals(1, problems.robotCountPaths(trapGrid));
+
+        // Rows wider than a word, so reachability has to carry from one long to the next
+        var random = new Random(16);
+        for(int trial = 0; trial < 200; trial++) {
+            var grid = new BitGrid(1 + random.nextInt(20), 1 + random.nextInt(200));
+            for(int cell = 0; cell < grid.cellCount(); cell++) {
+                grid.setPassable(cell, random.nextInt(10) != 0);
+            }
+            boolean expected = problems.robotTraverseGridCells(grid).length > 0;
+            Assertions.assertEquals(expected, problems.robotHasPath(grid));
+            int[] path = problems.robotFindPath(grid);
+            Assertions.assertEquals(expected, path.length > 0);
+            if(expected) {
+                Assertions.assertEquals(grid.rows() + grid.columns() - 1, path.length);
+                for(int i = 1; i < path.length; i++) {
+                    int step = path[i] - path[i - 1];
+                    Assertions.assertTrue(step == 1 || step == grid.columns());
+                    Assertions.assertTrue(grid.isPassable(path[i]));
+                }
+            }
+            Assertions.assertEquals(expected, problems.robotCountPaths(grid) > 0);
+            Assertions.assertEquals(BigInteger.valueOf(problems.robotCountPaths(grid)), problems.robotCountPathsExact(grid));
+        }
+    }
+
+    @Test
+    void robotCountPathsTest() {
+        // An open r x c grid has C(r + c - 2, r - 1) paths
+        var open = new BitGrid(3, 3);
+        open.fill(true);
+        Assertions.assertEquals(6, problems.robotCountPaths(open));
+        open.setPassable(1, 1, false);
+        Assertions.assertEquals(2, problems.robotCountPaths(open));
+        open.setPassable(2, 2, false);
+        Assertions.assertEquals(0, problems.robotCountPaths(open));
+
+        var single = new BitGrid(1, 1);
+        Assertions.assertEquals(1, problems.robotCountPaths(single));
+        Assertions.assertTrue(problems.robotHasPath(single));
+        Assertions.assertArrayEquals(new int[]{ 0 }, problems.robotFindPath(single));
+
+        var largest = new BitGrid(34, 34);
+        largest.fill(true);
+        Assertions.assertEquals(7219428434016265740L, problems.robotCountPaths(largest));
+        var tooLarge = new BitGrid(35, 35);
+        tooLarge.fill(true);
+        Assertions.assertThrows(ArithmeticException.class, () -> problems.robotCountPaths(tooLarge));
+        Assertions.assertEquals(new BigInteger("28453041475240576740"), problems.robotCountPathsExact(tooLarge));
+    }
+
     @Test
     void findMagicIndexTest() {
         Assertions.assertEquals(0, problems.findMagicIndex(new int[]{ 0 }));
@@ -0,0 +1,70 @@
+package com.github.sambsnyd.problems;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.NoSuchElementException;
+
+public class StairCombinationSequenceTest {
+
+    private RecursionAndMemoizationProblems problems = new RecursionAndMemoizationProblems();
+
+    @Test
+    void matchesMatrixCounts() {
+        var sequence = new StairCombinationSequence();
+        for(int steps = 1; steps <= 72; steps++) {
+            Assertions.assertTrue(sequence.hasNext());
+            Assertions.assertEquals(steps, sequence.nextStep());
+            Assertions.assertEquals(problems.stairTraversalCombinationsMatrix(steps), sequence.nextLong());
+        }
+        Assertions.assertFalse(sequence.hasNext(), "The count for 73 steps doesn't fit in a long");
+        Assertions.assertThrows(NoSuchElementException.class, sequence::nextLong);
+    }
+
+    @Test
+    void streamsEveryCountUpToN() {
+        Assertions.assertArrayEquals(new long[]{1, 2, 4, 7, 13, 24},
+                problems.stairTraversalCombinationsUpTo(6).toArray());
+        Assertions.assertEquals(72, new StairCombinationSequence().stream().count());
+        Assertions.assertEquals(0, problems.stairTraversalCombinationsUpTo(0).count());
+    }
+
+    @Test
+    void jumpTo() {
+        var sequence = new StairCombinationSequence();
+        sequence.jumpTo(40);
+        Assertions.assertEquals(40, sequence.nextStep());
+        Assertions.assertEquals(problems.stairTraversalCombinationsMatrix(40), sequence.nextLong());
+        Assertions.assertEquals(problems.stairTraversalCombinationsMatrix(41), sequence.nextLong());
+
+        sequence.jumpTo(1);
+        Assertions.assertEquals(1, sequence.nextLong());
+        sequence.jumpTo(3);
+        Assertions.assertEquals(4, sequence.nextLong());
+
+        sequence.jumpTo(73);
+        Assertions.assertFalse(sequence.hasNext());
+        Assertions.assertThrows(ArithmeticException.class, () -> sequence.jumpTo(200));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sequence.jumpTo(0));
+    }
+
+    @Test
+    void modularSequenceNeverEnds() {
+        long modulus = 1_000_000_007;
+        var sequence = StairCombinationSequence.modulo(modulus);
+        sequence.jumpTo(10_000);
+        long jumped = sequence.nextLong();
+        Assertions.assertEquals(
+                problems.stairTraversalCombinationsExact(10_000).mod(BigInteger.valueOf(modulus)).longValue(),
+                jumped);
+
+        var stepped = StairCombinationSequence.modulo(modulus);
+        long last = 0;
+        for(int steps = 1; steps <= 10_000; steps++) {
+            last = stepped.nextLong();
+        }
+        Assertions.assertEquals(jumped, last);
+        Assertions.assertTrue(stepped.hasNext());
+    }
+}
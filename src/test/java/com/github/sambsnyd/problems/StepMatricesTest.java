@@ -0,0 +1,54 @@
+package com.github.sambsnyd.problems;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+public class StepMatricesTest {
+
+    @Test
+    void companion() {
+        Assertions.assertArrayEquals(new long[]{ 1, 1, 1, 1, 0, 0, 0, 1, 0 }, StepMatrices.companion(new int[]{ 1, 2, 3 }));
+        Assertions.assertArrayEquals(new long[]{ 0, 1, 1, 0 }, StepMatrices.companion(new int[]{ 2 }));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StepMatrices.companion(new int[0]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StepMatrices.companion(new int[]{ 0 }));
+    }
+
+    @Test
+    void powerMatchesRepeatedMultiplication() {
+        long[] companion = StepMatrices.companion(new int[]{ 1, 3, 4 });
+        long[] expected = StepMatrices.power(companion, 0, 0);
+        for(int exponent = 0; exponent < 40; exponent++) {
+            Assertions.assertArrayEquals(expected, StepMatrices.power(companion, exponent, 0), "exponent " + exponent);
+            long[] modular = StepMatrices.power(companion, exponent, 1_000);
+            BigInteger[] exact = StepMatrices.powerExact(companion, exponent);
+            for(int i = 0; i < expected.length; i++) {
+                Assertions.assertEquals(expected[i] % 1_000, modular[i]);
+                Assertions.assertEquals(BigInteger.valueOf(expected[i]), exact[i]);
+            }
+            expected = naiveMultiply(expected, companion, 4);
+        }
+    }
+
+    @Test
+    void overflowAndModulus() {
+        long[] companion = StepMatrices.companion(new int[]{ 1, 2, 3 });
+        Assertions.assertThrows(ArithmeticException.class, () -> StepMatrices.power(companion, 200, 0));
+        Assertions.assertArrayEquals(new long[9], StepMatrices.power(companion, 5, 1), "Everything is 0 modulo 1");
+        Assertions.assertEquals(new BigInteger("23837527729"), StepMatrices.powerExact(companion, 40)[0]);
+        Assertions.assertEquals(23837527729L % 1_000_000_007L, StepMatrices.power(companion, 40, 1_000_000_007L)[0]);
+    }
+
+    private static long[] naiveMultiply(long[] a, long[] b, int size) {
+        long[] product = new long[size * size];
+        for(int row = 0; row < size; row++) {
+            for(int column = 0; column < size; column++) {
+                for(int k = 0; k < size; k++) {
+                    product[row * size + column] += a[row * size + k] * b[k * size + column];
+                }
+            }
+        }
+        return product;
+    }
+}
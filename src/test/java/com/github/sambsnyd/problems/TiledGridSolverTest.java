@@ -0,0 +1,84 @@
+package com.github.sambsnyd.problems;
+
+import com.github.sambsnyd.datastructures.BitGrid;
+import com.github.sambsnyd.datastructures.MappedTileGrid;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class TiledGridSolverTest {
+
+    private RecursionAndMemoizationProblems problems = new RecursionAndMemoizationProblems();
+    private Path file;
+
+    @BeforeEach
+    void createFile() throws IOException {
+        file = Files.createTempFile("tilegrid", ".bin");
+    }
+
+    @AfterEach
+    void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void matchesUntiledSolver() throws IOException {
+        var random = new Random(20);
+        var pool = new ForkJoinPool(4);
+        try {
+            for(int trial = 0; trial < 40; trial++) {
+                var grid = new BitGrid(1 + random.nextInt(300), 1 + random.nextInt(300));
+                for(int cell = 0; cell < grid.cellCount(); cell++) {
+                    grid.setPassable(cell, random.nextInt(trial % 2 == 0 ? 3 : 12) != 0);
+                }
+                var solver = new TiledGridSolver(MappedTileGrid.write(grid, file, 64), pool);
+                boolean expected = problems.robotHasPath(grid);
+                Assertions.assertEquals(expected, solver.hasPath());
+
+                long[] path = solver.findPath();
+                Assertions.assertEquals(expected, path.length > 0);
+                if(expected) {
+                    Assertions.assertEquals(grid.rows() + grid.columns() - 1, path.length);
+                    Assertions.assertEquals(0, path[0]);
+                    Assertions.assertEquals(grid.cellCount() - 1, path[path.length - 1]);
+                    for(int i = 1; i < path.length; i++) {
+                        long step = path[i] - path[i - 1];
+                        Assertions.assertTrue(step == 1 || step == grid.columns());
+                        Assertions.assertTrue(grid.isPassable((int)path[i]));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void unreachedTilesAreSkipped() throws IOException {
+        // A wall across the first band of tiles stops everything below it from being read
+        var grid = MappedTileGrid.create(file, 640, 640, 64);
+        for(int row = 0; row < 640; row++) {
+            for(int column = 0; column < 640; column++) {
+                grid.setPassable(row, column, row != 63);
+            }
+        }
+        var solver = new TiledGridSolver(grid);
+        Assertions.assertFalse(solver.hasPath());
+        Assertions.assertArrayEquals(new long[0], solver.findPath());
+        Assertions.assertEquals(10, solver.getTilesSolved());
+
+        // With a gap at the far right only the last column of tiles below the wall can be reached
+        grid.setPassable(63, 639, true);
+        var reopened = new TiledGridSolver(grid);
+        Assertions.assertTrue(reopened.hasPath());
+        Assertions.assertEquals(10 + 9, reopened.getTilesSolved());
+        Assertions.assertEquals(640 + 640 - 1, reopened.findPath().length);
+    }
+}